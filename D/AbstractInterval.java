@@ -1,7 +1,19 @@
 public abstract class AbstractInterval<T> implements Interval<T> {
 
-  Bound<T> upper;
-  Bound<T> lower;
+  final T lower;
+  final BoundType lowerType;
+  final T upper;
+  final BoundType upperType;
+
+  /*
+   * REPRESENTATION NOTE:
+   *
+   * The bounds are kept in plain fields rather than in bound objects, and intersection, span and
+   * includes read the other interval's bounds once each and compare them directly. Between them
+   * they make at most two comparisons beyond those of isEmpty, plus one to check a narrowed result,
+   * and they return an operand instead of a copy whenever the result equals it. Nothing is
+   * allocated unless the result is a new interval.
+   */
 
   /**
    * constructor for abstract interval
@@ -12,26 +24,26 @@ public abstract class AbstractInterval<T> implements Interval<T> {
    * @param upperType the lower bound type
    */
   AbstractInterval(T lower, BoundType lowerType, T upper, BoundType upperType) {
-    this.lower = new Bound<>(lower, lowerType);
-    this.upper = new Bound<>(upper, upperType);
+    this.lower = lower;
+    this.lowerType = lowerType;
+    this.upper = upper;
+    this.upperType = upperType;
   }
 
   @Override
   public boolean contains(T value) {
-    return leftOf(upper, value) && rightOf(lower, value);
+    int cmp = compare(value, lower);
+    if (cmp < 0 || cmp == 0 && lowerType == BoundType.Open) {
+      return false;
+    }
+    cmp = compare(value, upper);
+    return cmp < 0 || cmp == 0 && upperType == BoundType.Closed;
   }
 
   @Override
   public boolean isEmpty() {
-    if (upper.type() == BoundType.Closed && lower.type() == BoundType.Open && areEqual(
-        upper.bound(), lower.bound())) {
-      return true;
-    }
-    if (upper.type() == BoundType.Open && lower.type() == BoundType.Closed && areEqual(
-        upper.bound(), lower.bound())) {
-      return true;
-    }
-    return false;
+    // Only [a, a) and (a, a] are empty, so equal bound types need no comparison.
+    return lowerType != upperType && areEqual(lower, upper);
   }
 
   @Override
@@ -39,7 +51,7 @@ public abstract class AbstractInterval<T> implements Interval<T> {
     if (isEmpty()) {
       throw new IllegalStateException();
     }
-    return lower.bound();
+    return lower;
   }
 
   @Override
@@ -47,37 +59,61 @@ public abstract class AbstractInterval<T> implements Interval<T> {
     if (isEmpty()) {
       throw new IllegalStateException();
     }
-    return upper.bound();
+    return upper;
   }
 
   @Override
   public BoundType lowerBoundType() {
-    return lower.type();
+    return lowerType;
   }
 
   @Override
   public BoundType upperBoundType() {
-    return upper.type();
+    return upperType;
   }
 
   @Override
   public Interval<T> intersection(Interval<T> other) {
-    Bound<T> otherLower = new Bound<>(other.lowerBound(), other.lowerBoundType());
-    Bound<T> otherUpper = new Bound<>(other.upperBound(), other.upperBoundType());
-
-    if (this.isEmpty() || other.isEmpty()) {
-      return emptyInterval();
+    if (this.isEmpty()) {
+      return this;
     }
-    if (this.includes(other)) {
+    if (other.isEmpty()) {
       return other;
     }
-    if (other.includes(this)) {
+    T otherLower = other.lowerBound();
+    BoundType otherLowerType = other.lowerBoundType();
+    T otherUpper = other.upperBound();
+    BoundType otherUpperType = other.upperBoundType();
+
+    // Keep the later lower bound and the earlier upper bound, and the open one on a tie. A tie of
+    // the same type is won by both, so that either operand can be returned as is.
+    int cmpLower = compare(lower, otherLower);
+    boolean keepLower = cmpLower > 0 || cmpLower == 0 && (lowerType == BoundType.Open
+                                                          || otherLowerType == BoundType.Closed);
+    boolean otherLowerWins = cmpLower < 0 || cmpLower == 0 && (otherLowerType == BoundType.Open
+                                                               || lowerType == BoundType.Closed);
+    int cmpUpper = compare(upper, otherUpper);
+    boolean keepUpper = cmpUpper < 0 || cmpUpper == 0 && (upperType == BoundType.Open
+                                                          || otherUpperType == BoundType.Closed);
+    boolean otherUpperWins = cmpUpper > 0 || cmpUpper == 0 && (otherUpperType == BoundType.Open
+                                                               || upperType == BoundType.Closed);
+    if (keepLower && keepUpper) {
       return this;
     }
-    if (greaterThan(otherLower, upper) || greaterThan(lower, otherUpper)) {
+    if (otherLowerWins && otherUpperWins) {
+      return other;
+    }
+
+    T newLower = keepLower ? lower : otherLower;
+    BoundType newLowerType = keepLower ? lowerType : otherLowerType;
+    T newUpper = keepUpper ? upper : otherUpper;
+    BoundType newUpperType = keepUpper ? upperType : otherUpperType;
+    int cmp = compare(newLower, newUpper);
+    if (cmp > 0 || cmp == 0 && newLowerType == BoundType.Closed
+                   && newUpperType == BoundType.Open) {
       return emptyInterval();
     }
-    return fromBounds(MaxBound(lower, otherLower), MinBound(upper, otherUpper));
+    return fromBounds(newLower, newLowerType, newUpper, newUpperType);
   }
 
   @Override
@@ -85,60 +121,62 @@ public abstract class AbstractInterval<T> implements Interval<T> {
     if (other.isEmpty()) {
       return true;
     }
-    if (areEqual(this.lowerBound(), other.lowerBound())) {
-      if (!this.lowerBoundType().includes(other.lowerBoundType())) {
-        return false;
-      }
+    if (this.isEmpty()) {
+      return false;
     }
-
-    if (areEqual(this.upperBound(), other.upperBound())) {
-      if (!this.upperBoundType().includes(other.upperBoundType())) {
-        return false;
-      }
+    // As before, an equal bound is only included by a closed one, which contains its value.
+    int cmp = compare(lower, other.lowerBound());
+    if (cmp > 0 || cmp == 0 && lowerType == BoundType.Open) {
+      return false;
     }
-    return contains(other.lowerBound()) && contains(other.upperBound());
+    cmp = compare(upper, other.upperBound());
+    return cmp > 0 || cmp == 0 && upperType == BoundType.Closed;
   }
 
 
   @Override
   public Interval<T> span(Interval<T> other) {
-    Bound<T> otherLower = new Bound<>(other.lowerBound(), other.lowerBoundType());
-    Bound<T> otherUpper = new Bound<>(other.upperBound(), other.upperBoundType());
     if (this.isEmpty()) {
       return other;
     }
     if (other.isEmpty()) {
       return this;
     }
-    return fromBounds(LeftMost(lower, otherLower), RightMost(upper, otherUpper));
+    T otherLower = other.lowerBound();
+    BoundType otherLowerType = other.lowerBoundType();
+    T otherUpper = other.upperBound();
+    BoundType otherUpperType = other.upperBoundType();
+
+    // Keep the earlier lower bound and the later upper bound, and the closed one on a tie. A tie
+    // of the same type is won by both, as for intersection.
+    int cmpLower = compare(lower, otherLower);
+    boolean keepLower = cmpLower < 0 || cmpLower == 0 && (lowerType == BoundType.Closed
+                                                          || otherLowerType == BoundType.Open);
+    boolean otherLowerWins = cmpLower > 0 || cmpLower == 0 && (otherLowerType == BoundType.Closed
+                                                               || lowerType == BoundType.Open);
+    int cmpUpper = compare(upper, otherUpper);
+    boolean keepUpper = cmpUpper > 0 || cmpUpper == 0 && (upperType == BoundType.Closed
+                                                          || otherUpperType == BoundType.Open);
+    boolean otherUpperWins = cmpUpper < 0 || cmpUpper == 0 && (otherUpperType == BoundType.Closed
+                                                               || upperType == BoundType.Open);
+    if (keepLower && keepUpper) {
+      return this;
+    }
+    if (otherLowerWins && otherUpperWins) {
+      return other;
+    }
+    return fromBounds(keepLower ? lower : otherLower, keepLower ? lowerType : otherLowerType,
+                      keepUpper ? upper : otherUpper, keepUpper ? upperType : otherUpperType);
   }
 
   /**
-   * returns the max bound of two bounds
+   * compares two values in the order of this interval
    *
-   * @param bound1 a bound
-   * @param bound2 a bound
-   * @return the greater of the two bounds
+   * @param value1 a value
+   * @param value2 a value
+   * @return negative, zero or positive as value1 is less than, equal to or greater than value2
    */
-  protected abstract Bound<T> MaxBound(Bound<T> bound1, Bound<T> bound2);
-
-  /**
-   * returns the min bound of two bounds
-   *
-   * @param bound1 a bound
-   * @param bound2 a bound
-   * @return the lesser of the two bounds
-   */
-  protected abstract Bound<T> MinBound(Bound<T> bound1, Bound<T> bound2);
-
-  /**
-   * returns true if bound1 is greater than bound 2
-   *
-   * @param bound1 a bound
-   * @param bound2 a bound
-   * @return true if bound1 > bound2
-   */
-  protected abstract boolean greaterThan(Bound<T> bound1, Bound<T> bound2);
+  protected abstract int compare(T value1, T value2);
 
   /**
    * return true if the bounds are equal
@@ -147,7 +185,12 @@ public abstract class AbstractInterval<T> implements Interval<T> {
    * @param bound2 a bound
    * @return true if the bounds are equal
    */
-  protected abstract boolean areEqual(T bound1, T bound2);
+  protected boolean areEqual(T bound1, T bound2) {
+    if (bound1 == null || bound2 == null) {
+      return bound1 == bound2;
+    }
+    return compare(bound1, bound2) == 0;
+  }
 
   /**
    * returns an empty interval
@@ -159,53 +202,21 @@ public abstract class AbstractInterval<T> implements Interval<T> {
   /**
    * factory method to create an interval object
    *
-   * @param lower lower bound
-   * @param upper upper bound
+   * @param lower     the lower bound
+   * @param lowerType the lower bound type
+   * @param upper     the upper bound
+   * @param upperType the upper bound type
    * @return a new interval object
    */
-  protected abstract Interval<T> fromBounds(Bound<T> lower, Bound<T> upper);
-
-  /**
-   * returns the left most bound
-   *
-   * @param bound1 a bound
-   * @param bound2 a bound
-   * @return the left most bound
-   */
-  protected abstract Bound<T> LeftMost(Bound<T> bound1, Bound<T> bound2);
-
-  /**
-   * returns the right most bound
-   *
-   * @param bound1 a bound
-   * @param bound2 a bound
-   * @return the rightmost bound
-   */
-  protected Bound<T> RightMost(Bound<T> bound1, Bound<T> bound2) {
-    return MaxBound(bound1, bound2);
-  }
-
-  /**
-   * returns true if value is to the left of bound
-   *
-   * @param bound a bound
-   * @param value a value
-   * @return true if the value is to the left of the bound
-   */
-  protected abstract boolean leftOf(Bound<T> bound, T value);
-
-  /**
-   * returns true if value is to the right of bound
-   *
-   * @param bound a bound
-   * @param value a value
-   * @return true if the value is to the right of the bound
-   */
-  protected abstract boolean rightOf(Bound<T> bound, T value);
+  protected abstract Interval<T> fromBounds(T lower, BoundType lowerType, T upper,
+                                            BoundType upperType);
 
   @Override
   @SuppressWarnings("unchecked")
   public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
     if (other instanceof Interval) {
       Interval<T> interval = (Interval<T>) other;
       if (this.isEmpty() && interval.isEmpty()) {
@@ -222,7 +233,10 @@ public abstract class AbstractInterval<T> implements Interval<T> {
 
   @Override
   public int hashCode() {
-    return upper.bound.hashCode() + lower.bound.hashCode() + lowerBoundType().hashCode()
+    if (isEmpty()) {
+      return 0;
+    }
+    return upper.hashCode() + lower.hashCode() + lowerBoundType().hashCode()
            + upperBoundType().hashCode();
   }
 
@@ -232,36 +246,17 @@ public abstract class AbstractInterval<T> implements Interval<T> {
       return "Empty";
     }
     String interval = "";
-    if (lower.type() == BoundType.Closed) {
+    if (lowerType == BoundType.Closed) {
       interval = interval + "[";
     } else {
       interval = interval + "(";
     }
-    interval = interval + lower.bound() + ", " + upper.bound();
-    if (upper.type() == BoundType.Closed) {
+    interval = interval + lower + ", " + upper;
+    if (upperType == BoundType.Closed) {
       interval = interval + "]";
     } else {
       interval = interval + ")";
     }
     return interval;
   }
-
-  protected static class Bound<T> {
-
-    private T bound;
-    private BoundType type;
-
-    public Bound(T bound, BoundType type) {
-      this.bound = bound;
-      this.type = type;
-    }
-
-    public T bound() {
-      return bound;
-    }
-
-    public BoundType type() {
-      return type;
-    }
-  }
 }
@@ -0,0 +1,237 @@
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only {@link RangeMap} stored in parallel sorted arrays: the bounds of each interval, a
+ * byte of bound types, and the value. It takes a fraction of the memory of a {@link TreeRangeMap},
+ * since no interval or entry objects are kept, and looks points up by binary search over the lower
+ * bounds in <em>O</em>(log n) time.
+ *
+ * <p>Instances are immutable, and safe to share between threads if their keys and values are.
+ *
+ * @param <K> the type of the interval endpoints
+ * @param <V> the type of the values
+ */
+public final class ArrayRangeMap<K, V> implements RangeMap<K, V> {
+
+  // Flag bits for open bounds; a clear bit means closed:
+  private static final byte LOWER_OPEN = 1;
+  private static final byte UPPER_OPEN = 2;
+
+  // The order of the keys:
+  private final Comparator<K> comparator;
+
+  // The bounds, bound types and values of the entries, in ascending order:
+  private final K[] lowers;
+  private final K[] uppers;
+  private final byte[] flags;
+  private final V[] values;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - all four arrays have the same length
+   *  - entry i is the interval from lowers[i] to uppers[i], open where flags[i] says so, mapped to
+   *    values[i]
+   *  - the intervals are non-empty, pairwise disjoint, and sorted by lower bound as in
+   *    IntervalComparisons.compareLower; the values are non-null
+   */
+
+  private ArrayRangeMap(Comparator<K> comparator, List<Map.Entry<Interval<K>, V>> sorted) {
+    int n = sorted.size();
+    @SuppressWarnings("unchecked")
+    K[] lowerTemp = (K[]) new Object[n];
+    @SuppressWarnings("unchecked")
+    K[] upperTemp = (K[]) new Object[n];
+    @SuppressWarnings("unchecked")
+    V[] valueTemp = (V[]) new Object[n];
+
+    this.comparator = comparator;
+    lowers = lowerTemp;
+    uppers = upperTemp;
+    flags = new byte[n];
+    values = valueTemp;
+    for (int i = 0; i < n; ++i) {
+      Interval<K> interval = sorted.get(i).getKey();
+      lowers[i] = interval.lowerBound();
+      uppers[i] = interval.upperBound();
+      flags[i] = (byte) ((interval.lowerBoundType().isOpen() ? LOWER_OPEN : 0)
+                         | (interval.upperBoundType().isOpen() ? UPPER_OPEN : 0));
+      values[i] = sorted.get(i).getValue();
+    }
+  }
+
+  /**
+   * Copies another range map.
+   *
+   * @param map the map to copy
+   * @param <K> the type of the interval endpoints
+   * @param <V> the type of the values
+   * @return a read-only copy
+   */
+  public static <K, V> ArrayRangeMap<K, V> copyOf(RangeMap<K, V> map) {
+    if (map instanceof ArrayRangeMap) {
+      return (ArrayRangeMap<K, V>) map;
+    }
+    return new ArrayRangeMap<>(map.comparator(), map.entries());
+  }
+
+  /**
+   * Builds a map from entries whose intervals must be disjoint, in any order. Entries with empty
+   * intervals are left out.
+   *
+   * @param entries    the entries
+   * @param comparator the order of the keys
+   * @param <K>        the type of the interval endpoints
+   * @param <V>        the type of the values
+   * @return a new read-only map
+   * @throws IllegalArgumentException if two of the intervals overlap
+   * @throws NullPointerException     if a value is null
+   */
+  public static <K, V> ArrayRangeMap<K, V> build(
+      Collection<? extends Map.Entry<Interval<K>, ? extends V>> entries,
+      Comparator<K> comparator) {
+    List<Map.Entry<Interval<K>, V>> sorted = new ArrayList<>(entries.size());
+    for (Map.Entry<Interval<K>, ? extends V> entry : entries) {
+      if (entry.getValue() == null) {
+        throw new NullPointerException("value");
+      }
+      if (!entry.getKey().isEmpty()) {
+        sorted.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+      }
+    }
+    sorted.sort((a, b) -> IntervalComparisons.compareLower(a.getKey(), b.getKey(), comparator));
+    for (int i = 1; i < sorted.size(); ++i) {
+      if (!IntervalComparisons.before(sorted.get(i - 1).getKey(), sorted.get(i).getKey(),
+                                      comparator)) {
+        throw new IllegalArgumentException(
+            "overlapping intervals: " + sorted.get(i - 1).getKey() + " and "
+            + sorted.get(i).getKey());
+      }
+    }
+    return new ArrayRangeMap<>(comparator, sorted);
+  }
+
+  @Override
+  public Comparator<K> comparator() {
+    return comparator;
+  }
+
+  @Override
+  public V get(K point) {
+    int i = find(point);
+    return i < 0 ? null : values[i];
+  }
+
+  @Override
+  public Map.Entry<Interval<K>, V> getEntry(K point) {
+    int i = find(point);
+    return i < 0 ? null : entry(i);
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public List<Map.Entry<Interval<K>, V>> entries() {
+    List<Map.Entry<Interval<K>, V>> result = new ArrayList<>(values.length);
+    for (int i = 0; i < values.length; ++i) {
+      result.add(entry(i));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Always throws, since the map is read-only.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void put(Interval<K> interval, V value) {
+    throw new UnsupportedOperationException("read-only range map");
+  }
+
+  /**
+   * Always throws, since the map is read-only.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void putCoalescing(Interval<K> interval, V value) {
+    throw new UnsupportedOperationException("read-only range map");
+  }
+
+  /**
+   * Always throws, since the map is read-only.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void remove(Interval<K> interval) {
+    throw new UnsupportedOperationException("read-only range map");
+  }
+
+  /**
+   * Returns the index of the entry containing a point, or -1.
+   */
+  private int find(K point) {
+    // Find the last entry that starts at or before the point; no earlier one can contain it.
+    int lo = 0;
+    int hi = lowers.length - 1;
+    int floor = -1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      int cmp = comparator.compare(lowers[mid], point);
+      if (cmp < 0 || cmp == 0 && (flags[mid] & LOWER_OPEN) == 0) {
+        floor = mid;
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    if (floor < 0) {
+      return -1;
+    }
+    int cmp = comparator.compare(point, uppers[floor]);
+    return cmp < 0 || cmp == 0 && (flags[floor] & UPPER_OPEN) == 0 ? floor : -1;
+  }
+
+  /**
+   * Materializes entry {@code i}.
+   */
+  private Map.Entry<Interval<K>, V> entry(int i) {
+    BoundType lowerType = (flags[i] & LOWER_OPEN) != 0 ? BoundType.Open : BoundType.Closed;
+    BoundType upperType = (flags[i] & UPPER_OPEN) != 0 ? BoundType.Open : BoundType.Closed;
+    Interval<K> interval = Intervals.interval(lowers[i], lowerType, uppers[i], upperType,
+                                              comparator);
+    return new SimpleImmutableEntry<>(interval, values[i]);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof RangeMap)) {
+      return false;
+    }
+    return entries().equals(((RangeMap<?, ?>) other).entries());
+  }
+
+  @Override
+  public int hashCode() {
+    return entries().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return entries().toString();
+  }
+}
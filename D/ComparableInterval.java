@@ -2,6 +2,15 @@ import java.util.Comparator;
 
 class ComparableInterval<T extends Comparable<T>> extends AbstractInterval<T> {
 
+  // The empty interval, which has no bounds to compare and so serves every type:
+  @SuppressWarnings("rawtypes")
+  private static final ComparableInterval EMPTY =
+      new ComparableInterval<>(null, BoundType.Closed, null, BoundType.Open);
+
+  // The natural order, shared so that intervals of the same type report the same comparator:
+  @SuppressWarnings("rawtypes")
+  private static final Comparator COMPARATOR = new ComparableIntervalComparator<>();
+
   /**
    * constructor for ComparableInterval
    *
@@ -15,109 +24,35 @@ class ComparableInterval<T extends Comparable<T>> extends AbstractInterval<T> {
   }
 
   @Override
-  protected boolean leftOf(Bound<T> bound, T value) {
-    if (value.compareTo(bound.bound()) > 0) {
-      return false;
-    }
-    if (value.compareTo(bound.bound()) == 0 && bound.type() == BoundType.Open) {
-      return false;
-    }
-    return true;
-  }
-
-  @Override
-  protected boolean rightOf(Bound<T> bound, T value) {
-    if (value.compareTo(bound.bound()) < 0) {
-      return false;
-    }
-    if (value.compareTo(bound.bound()) == 0 && bound.type() == BoundType.Open) {
-      return false;
-    }
-    return true;
+  protected int compare(T value1, T value2) {
+    return value1.compareTo(value2);
   }
 
-  @Override
-  protected boolean areEqual(T bound1, T bound2) {
-    if (bound1 == null && bound2 == null) {
-      return true;
-    }
-    if (bound1 == null || bound2 == null) {
-      return false;
-    }
-    return bound1.compareTo(bound2) == 0;
+  /**
+   * returns the shared empty interval
+   *
+   * @param <T> type
+   * @return the empty interval
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Comparable<T>> Interval<T> empty() {
+    return (Interval<T>) EMPTY;
   }
 
   @Override
   protected Interval<T> emptyInterval() {
-    return new ComparableInterval<>(null, BoundType.Closed, null, BoundType.Open);
+    return empty();
   }
 
   @Override
-  protected Interval<T> fromBounds(Bound<T> lower, Bound<T> upper) {
-    return new ComparableInterval<>(lower.bound(), lower.type(), upper.bound(), upper.type());
+  protected Interval<T> fromBounds(T lower, BoundType lowerType, T upper, BoundType upperType) {
+    return new ComparableInterval<>(lower, lowerType, upper, upperType);
   }
 
-  @Override
-  protected Bound<T> MaxBound(Bound<T> bound1, Bound<T> bound2) {
-    if (bound1.bound().compareTo(bound2.bound()) == 0) {
-      if (bound1.type() == BoundType.Closed && bound2.type() == BoundType.Open) {
-        return bound1;
-      }
-      return bound2;
-    }
-    if (bound1.bound().compareTo(bound2.bound()) > 0) {
-      return bound1;
-    }
-    return bound2;
-  }
-
-  @Override
-  protected Bound<T> MinBound(Bound<T> bound1, Bound<T> bound2) {
-    if (bound1.bound().compareTo(bound2.bound()) == 0) {
-      if (bound1.type() == BoundType.Open && bound2.type() == BoundType.Closed) {
-        return bound1;
-      }
-      return bound2;
-    }
-    if (bound1.bound().compareTo(bound2.bound()) < 0) {
-      return bound1;
-    }
-    return bound2;
-  }
-
-  @Override
-  protected boolean greaterThan(Bound<T> bound1, Bound<T> bound2) {
-    if (bound1.bound().compareTo(bound2.bound()) == 0) {
-      if (bound1.type() == BoundType.Closed && bound2.type() == BoundType.Open) {
-        return true;
-      }
-      return false;
-    }
-    if (bound1.bound().compareTo(bound2.bound()) > 0) {
-      return true;
-    }
-    return false;
-  }
-
-  @Override
-  protected Bound<T> LeftMost(Bound<T> bound1, Bound<T> bound2) {
-    if (bound1.bound().compareTo(bound2.bound()) == 0) {
-      if (bound1.type() == BoundType.Closed && bound2.type() == BoundType.Open) {
-        return bound1;
-      }
-      return bound2;
-    }
-    if (bound1.bound().compareTo(bound2.bound()) < 0) {
-      return bound1;
-    }
-    return bound2;
-  }
-
-
   @Override
   @SuppressWarnings("unchecked")
   public Comparator<T> getComparator() {
-    return new ComparableIntervalComparator();
+    return (Comparator<T>) COMPARATOR;
   }
 
   private static class ComparableIntervalComparator<T extends Comparable<T>>
@@ -0,0 +1,449 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * A segment tree answering aggregate questions about weighted numeric intervals, such as how many
+ * bookings cover a moment, the most that overlap anywhere in a window, or the total booked
+ * capacity-time over a window. Each interval added carries a weight, one to count intervals, and
+ * the depth of a value is the total weight of the intervals containing it.
+ *
+ * <p>The tree is built over a fixed set of endpoints, and only intervals whose bounds are among
+ * them can be added. The sorted endpoints {@code v0 < v1 < ... < vm} split the values into slots:
+ * each endpoint on its own, and the open gap between each endpoint and the next, so that [1, 3)
+ * covers the slots {1}, (1, 3), and no more, while [1, 3] also covers {3}. Every value in a slot
+ * has the same depth, and each node of the tree keeps the greatest depth and the total of depth
+ * times length over its slots, with additions to a whole node held back until a later update or
+ * query visits its children. {@link #add}, {@link #depth}, {@link #maxDepth} and {@link
+ * #weightedCoverage} thus take <em>O</em>(log m) time, and {@link #addAll} adds any number of
+ * intervals in one <em>O</em>(m) pass.
+ *
+ * <p>Queries may use any values, not only endpoints. A query bound inside a gap takes in the part
+ * of the gap on its side, which is treated as holding values even when, as with integers, it might
+ * not. Lengths are measured with {@link Number#doubleValue()}.
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @param <T> the type of the interval endpoints
+ */
+public final class CoverageTree<T extends Number> {
+
+  // The order of the values:
+  private final Comparator<T> comparator;
+
+  // The distinct endpoints, sorted:
+  private final T[] endpoints;
+
+  // The number of slots, 2 * endpoints.length - 1, or 0 if there are no endpoints:
+  private final int slots;
+
+  // Per node: the greatest depth, the total depth times length, the depth not yet pushed to the
+  // children, and the total length of the slots it spans:
+  private final double[] max;
+  private final double[] sum;
+  private final double[] pending;
+  private final double[] length;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - endpoints is sorted by comparator and holds no two equal values
+   *  - slot 2i is the value endpoints[i], and slot 2i + 1 the values strictly between endpoints[i]
+   *    and endpoints[i + 1]
+   *  - node 1 spans every slot, and node n spanning slots [lo, hi] with lo < hi has children 2n
+   *    spanning [lo, mid] and 2n + 1 spanning [mid + 1, hi], where mid = (lo + hi) >>> 1
+   *  - max[n] and sum[n] are the greatest depth and the total depth times length over the slots
+   *    of node n, less the pending weight of the nodes above n, which is yet to reach them
+   *  - the depth of a slot is thus max of its leaf plus the pending of the nodes above the leaf
+   */
+
+  /**
+   * Creates a tree over the endpoints of some intervals, holding no intervals yet.
+   *
+   * @param comparator the order of the values, which must agree with that of the intervals
+   * @param intervals  the intervals whose bounds are the endpoints of the tree
+   */
+  @SuppressWarnings("unchecked")
+  public CoverageTree(Comparator<T> comparator, Collection<? extends Interval<T>> intervals) {
+    this.comparator = comparator;
+    Number[] values = new Number[intervals.size() * 2];
+    int count = 0;
+    for (Interval<T> interval : intervals) {
+      if (!interval.isEmpty()) {
+        values[count++] = interval.lowerBound();
+        values[count++] = interval.upperBound();
+      }
+    }
+    T[] sorted = (T[]) Arrays.copyOf(values, count);
+    Arrays.sort(sorted, comparator);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || comparator.compare(sorted[distinct - 1], sorted[i]) != 0) {
+        sorted[distinct++] = sorted[i];
+      }
+    }
+    endpoints = Arrays.copyOf(sorted, distinct);
+    slots = distinct == 0 ? 0 : 2 * distinct - 1;
+    int nodes = Math.max(1, 4 * slots);
+    max = new double[nodes];
+    sum = new double[nodes];
+    pending = new double[nodes];
+    length = new double[nodes];
+    if (slots > 0) {
+      build(1, 0, slots - 1, new double[slots]);
+    }
+  }
+
+  /**
+   * Creates a tree holding some intervals, each with weight one.
+   *
+   * @param comparator the order of the values, which must agree with that of the intervals
+   * @param intervals  the intervals
+   * @param <T>        type
+   * @return a new tree over the endpoints of the intervals, counting them
+   */
+  public static <T extends Number> CoverageTree<T> of(Comparator<T> comparator,
+                                                      Collection<? extends Interval<T>> intervals) {
+    CoverageTree<T> tree = new CoverageTree<>(comparator, intervals);
+    tree.addAll(intervals, 1);
+    return tree;
+  }
+
+  /**
+   * Adds weight to the values of an interval. A negative weight takes away weight added before,
+   * and so removes an interval added with the opposite weight. Adding an empty interval does
+   * nothing.
+   *
+   * @param interval the interval, both of whose bounds must be endpoints of this tree
+   * @param weight   the weight to add
+   * @throws IllegalArgumentException if a bound of the interval isn't an endpoint
+   */
+  public void add(Interval<T> interval, double weight) {
+    if (interval.isEmpty()) {
+      return;
+    }
+    int lo = firstSlot(interval);
+    int hi = lastSlot(interval);
+    if (lo <= hi) {
+      add(1, 0, slots - 1, lo, hi, weight);
+    }
+  }
+
+  /**
+   * Adds the same weight to the values of many intervals in one pass over the tree, which is
+   * quicker than adding them one at a time once there are more than a few percent of the slots.
+   *
+   * @param intervals the intervals, all of whose bounds must be endpoints of this tree
+   * @param weight    the weight to add for each interval
+   * @throws IllegalArgumentException if a bound of an interval isn't an endpoint, in which case
+   *                                  no interval is added
+   */
+  public void addAll(Collection<? extends Interval<T>> intervals, double weight) {
+    if (slots == 0) {
+      for (Interval<T> interval : intervals) {
+        if (!interval.isEmpty()) {
+          firstSlot(interval);
+        }
+      }
+      return;
+    }
+    // Mark where each interval starts and stops adding weight, then run through the slots.
+    double[] changes = new double[slots + 1];
+    for (Interval<T> interval : intervals) {
+      if (!interval.isEmpty()) {
+        int lo = firstSlot(interval);
+        int hi = lastSlot(interval);
+        if (lo <= hi) {
+          changes[lo] += weight;
+          changes[hi + 1] -= weight;
+        }
+      }
+    }
+    double[] depths = new double[slots];
+    collect(1, 0, slots - 1, depths);
+    double change = 0;
+    for (int i = 0; i < slots; i++) {
+      change += changes[i];
+      depths[i] += change;
+    }
+    build(1, 0, slots - 1, depths);
+  }
+
+  /**
+   * Returns the depth of a value: the total weight of the intervals containing it, which is the
+   * number of them if each was added with weight one.
+   *
+   * @param value the value
+   * @return its depth
+   */
+  public double depth(T value) {
+    int slot = slotOf(value);
+    return slot < 0 ? 0 : depthAt(slot);
+  }
+
+  /**
+   * Returns the greatest depth of any value in a range.
+   *
+   * @param range the range
+   * @return the greatest depth in it, or 0 if the range is empty or beyond every endpoint
+   */
+  public double maxDepth(Interval<T> range) {
+    if (range.isEmpty()) {
+      return 0;
+    }
+    int lo = firstQuerySlot(range);
+    int hi = lastQuerySlot(range);
+    return lo > hi ? 0 : max(1, 0, slots - 1, lo, hi);
+  }
+
+  /**
+   * Returns the total over a range of depth times length, such as the capacity-time booked in a
+   * window when intervals are weighted by capacity. Single values have no length, so bound types
+   * don't change the result.
+   *
+   * @param range the range
+   * @return the weighted coverage of the range
+   */
+  public double weightedCoverage(Interval<T> range) {
+    if (range.isEmpty()) {
+      return 0;
+    }
+    int lo = firstQuerySlot(range);
+    int hi = lastQuerySlot(range);
+    if (lo > hi) {
+      return 0;
+    }
+    // The end slots may be gaps that the range only partly covers, so they are clipped to it.
+    double from = range.lowerBound().doubleValue();
+    double to = range.upperBound().doubleValue();
+    double total = depthAt(lo) * clippedLength(lo, from, to);
+    if (hi > lo) {
+      total += depthAt(hi) * clippedLength(hi, from, to);
+    }
+    if (hi > lo + 1) {
+      total += sum(1, 0, slots - 1, lo + 1, hi - 1);
+    }
+    return total;
+  }
+
+  /**
+   * Returns the slot of a value, or -1 if it is outside the endpoints.
+   */
+  private int slotOf(T value) {
+    int index = Arrays.binarySearch(endpoints, value, comparator);
+    if (index >= 0) {
+      return 2 * index;
+    }
+    int insertion = -index - 1;
+    return insertion == 0 || insertion == endpoints.length ? -1 : 2 * insertion - 1;
+  }
+
+  /**
+   * Returns the index of an endpoint.
+   *
+   * @throws IllegalArgumentException if the value isn't an endpoint
+   */
+  private int endpointIndex(T value) {
+    int index = Arrays.binarySearch(endpoints, value, comparator);
+    if (index < 0) {
+      throw new IllegalArgumentException(value + " is not an endpoint of this tree");
+    }
+    return index;
+  }
+
+  /**
+   * Returns the first slot of a non-empty interval whose bounds are endpoints.
+   */
+  private int firstSlot(Interval<T> interval) {
+    int index = endpointIndex(interval.lowerBound());
+    return interval.lowerBoundType().isClosed() ? 2 * index : 2 * index + 1;
+  }
+
+  /**
+   * Returns the last slot of a non-empty interval whose bounds are endpoints.
+   */
+  private int lastSlot(Interval<T> interval) {
+    int index = endpointIndex(interval.upperBound());
+    return interval.upperBoundType().isClosed() ? 2 * index : 2 * index - 1;
+  }
+
+  /**
+   * Returns the first slot holding values of a non-empty range with any bounds, which is past
+   * the last slot if there is none.
+   */
+  private int firstQuerySlot(Interval<T> range) {
+    int index = Arrays.binarySearch(endpoints, range.lowerBound(), comparator);
+    if (index >= 0) {
+      return range.lowerBoundType().isClosed() ? 2 * index : 2 * index + 1;
+    }
+    int insertion = -index - 1;
+    return insertion == 0 ? 0 : 2 * insertion - 1;
+  }
+
+  /**
+   * Returns the last slot holding values of a non-empty range with any bounds, which is -1 if
+   * there is none.
+   */
+  private int lastQuerySlot(Interval<T> range) {
+    int index = Arrays.binarySearch(endpoints, range.upperBound(), comparator);
+    if (index >= 0) {
+      return range.upperBoundType().isClosed() ? 2 * index : 2 * index - 1;
+    }
+    int insertion = -index - 1;
+    return insertion == endpoints.length ? slots - 1 : 2 * insertion - 1;
+  }
+
+  /**
+   * Returns the length of the part of a slot between two values.
+   */
+  private double clippedLength(int slot, double from, double to) {
+    if ((slot & 1) == 0) {
+      return 0;
+    }
+    int index = slot >>> 1;
+    double start = Math.max(from, endpoints[index].doubleValue());
+    double end = Math.min(to, endpoints[index + 1].doubleValue());
+    return Math.max(0, end - start);
+  }
+
+  /**
+   * Returns the length of a slot.
+   */
+  private double slotLength(int slot) {
+    int index = slot >>> 1;
+    return (slot & 1) == 0
+           ? 0 : endpoints[index + 1].doubleValue() - endpoints[index].doubleValue();
+  }
+
+  /**
+   * Sets the slots spanned by node n to the given depths, with nothing pending.
+   */
+  private void build(int n, int lo, int hi, double[] depths) {
+    pending[n] = 0;
+    if (lo == hi) {
+      length[n] = slotLength(lo);
+      max[n] = depths[lo];
+      sum[n] = depths[lo] * length[n];
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    build(2 * n, lo, mid, depths);
+    build(2 * n + 1, mid + 1, hi, depths);
+    length[n] = length[2 * n] + length[2 * n + 1];
+    max[n] = Math.max(max[2 * n], max[2 * n + 1]);
+    sum[n] = sum[2 * n] + sum[2 * n + 1];
+  }
+
+  /**
+   * Writes the depth of each slot spanned by node n into depths.
+   */
+  private void collect(int n, int lo, int hi, double[] depths) {
+    if (lo == hi) {
+      depths[lo] = max[n];
+      return;
+    }
+    push(n);
+    int mid = (lo + hi) >>> 1;
+    collect(2 * n, lo, mid, depths);
+    collect(2 * n + 1, mid + 1, hi, depths);
+  }
+
+  /**
+   * Adds weight to slots [from, to] under node n, which spans [lo, hi].
+   */
+  private void add(int n, int lo, int hi, int from, int to, double weight) {
+    if (from <= lo && hi <= to) {
+      apply(n, weight);
+      return;
+    }
+    push(n);
+    int mid = (lo + hi) >>> 1;
+    if (from <= mid) {
+      add(2 * n, lo, mid, from, to, weight);
+    }
+    if (to > mid) {
+      add(2 * n + 1, mid + 1, hi, from, to, weight);
+    }
+    max[n] = Math.max(max[2 * n], max[2 * n + 1]);
+    sum[n] = sum[2 * n] + sum[2 * n + 1];
+  }
+
+  /**
+   * Returns the greatest depth of slots [from, to] under node n, which spans [lo, hi].
+   */
+  private double max(int n, int lo, int hi, int from, int to) {
+    if (from <= lo && hi <= to) {
+      return max[n];
+    }
+    push(n);
+    int mid = (lo + hi) >>> 1;
+    double result = Double.NEGATIVE_INFINITY;
+    if (from <= mid) {
+      result = max(2 * n, lo, mid, from, to);
+    }
+    if (to > mid) {
+      result = Math.max(result, max(2 * n + 1, mid + 1, hi, from, to));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the total depth times length of slots [from, to] under node n, which spans [lo, hi].
+   */
+  private double sum(int n, int lo, int hi, int from, int to) {
+    if (from <= lo && hi <= to) {
+      return sum[n];
+    }
+    push(n);
+    int mid = (lo + hi) >>> 1;
+    double result = 0;
+    if (from <= mid) {
+      result += sum(2 * n, lo, mid, from, to);
+    }
+    if (to > mid) {
+      result += sum(2 * n + 1, mid + 1, hi, from, to);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the depth of a slot.
+   */
+  private double depthAt(int slot) {
+    int n = 1;
+    int lo = 0;
+    int hi = slots - 1;
+    while (lo < hi) {
+      push(n);
+      int mid = (lo + hi) >>> 1;
+      if (slot <= mid) {
+        n = 2 * n;
+        hi = mid;
+      } else {
+        n = 2 * n + 1;
+        lo = mid + 1;
+      }
+    }
+    return max[n];
+  }
+
+  /**
+   * Adds weight to every slot spanned by node n, holding it back from the children.
+   */
+  private void apply(int n, double weight) {
+    pending[n] += weight;
+    max[n] += weight;
+    sum[n] += weight * length[n];
+  }
+
+  /**
+   * Passes the weight held back at node n, which isn't a leaf, on to its children.
+   */
+  private void push(int n) {
+    if (pending[n] != 0) {
+      apply(2 * n, pending[n]);
+      apply(2 * n + 1, pending[n]);
+      pending[n] = 0;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CoverageTreeTest {
+
+  private static final Comparator<Double> ORDER = Comparator.naturalOrder();
+
+  @Test
+  public void bound_types_test() {
+    List<Interval<Double>> intervals = Arrays.asList(
+        Intervals.closedOpen(1.0, 3.0), Intervals.closed(3.0, 5.0), Intervals.open(1.0, 5.0));
+    CoverageTree<Double> tree = CoverageTree.of(ORDER, intervals);
+    assertEquals(1, tree.depth(1.0), 0.0);
+    assertEquals(2, tree.depth(2.0), 0.0);
+    assertEquals(2, tree.depth(3.0), 0.0);
+    assertEquals(1, tree.depth(5.0), 0.0);
+    assertEquals(0, tree.depth(0.5), 0.0);
+    assertEquals(0, tree.depth(6.0), 0.0);
+    assertEquals(2, tree.maxDepth(Intervals.closed(0.0, 9.0)), 0.0);
+    assertEquals(1, tree.maxDepth(Intervals.closed(5.0, 9.0)), 0.0);
+    assertEquals(0, tree.maxDepth(Intervals.openClosed(5.0, 9.0)), 0.0);
+    assertEquals(8, tree.weightedCoverage(Intervals.closed(0.0, 9.0)), 0.0);
+  }
+
+  @Test
+  public void weights_test() {
+    Interval<Double> day = Intervals.closed(0.0, 10.0);
+    Interval<Double> shift = Intervals.closedOpen(2.0, 6.0);
+    CoverageTree<Double> tree = new CoverageTree<>(ORDER, Arrays.asList(day, shift));
+    tree.add(day, 2);
+    tree.add(shift, 1.5);
+    assertEquals(3.5, tree.depth(4.0), 0.0);
+    assertEquals(3.5, tree.maxDepth(Intervals.open(5.5, 5.75)), 0.0);
+    assertEquals(2 * 1.5 + 3.5 * 2, tree.weightedCoverage(Intervals.closed(0.5, 4.0)), 1e-9);
+    assertEquals(3.5 * 0.25, tree.weightedCoverage(Intervals.closed(5.5, 5.75)), 1e-9);
+    tree.add(shift, -1.5);
+    assertEquals(2, tree.maxDepth(day), 0.0);
+    assertEquals(20, tree.weightedCoverage(day), 1e-9);
+  }
+
+  @Test
+  public void empty_test() {
+    CoverageTree<Double> tree =
+        new CoverageTree<>(ORDER, Collections.<Interval<Double>>emptyList());
+    assertEquals(0, tree.depth(1.0), 0.0);
+    assertEquals(0, tree.maxDepth(Intervals.closed(0.0, 9.0)), 0.0);
+    assertEquals(0, tree.weightedCoverage(Intervals.closed(0.0, 9.0)), 0.0);
+    tree.add(Intervals.empty(ORDER), 1);
+    tree.addAll(Collections.<Interval<Double>>emptyList(), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknown_endpoint_test() {
+    CoverageTree<Double> tree = CoverageTree.of(ORDER, Arrays.asList(Intervals.closed(1.0, 3.0)));
+    tree.add(Intervals.closed(1.0, 2.0), 1);
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(6);
+    for (int round = 0; round < 20; round++) {
+      List<Interval<Double>> intervals = new ArrayList<>();
+      for (int i = 0; i < 60; i++) {
+        double lower = random.nextInt(50);
+        double upper = lower + random.nextInt(15);
+        BoundType lowerType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                     : BoundType.Open;
+        BoundType upperType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                     : BoundType.Open;
+        intervals.add(Intervals.interval(lower, lowerType, upper, upperType));
+      }
+      double[] weights = new double[intervals.size()];
+      CoverageTree<Double> tree = new CoverageTree<>(ORDER, intervals);
+      int batched = random.nextInt(intervals.size());
+      tree.addAll(intervals.subList(0, batched), 1);
+      Arrays.fill(weights, 0, batched, 1);
+      for (int i = batched; i < intervals.size(); i++) {
+        weights[i] = random.nextInt(4);
+        tree.add(intervals.get(i), weights[i]);
+      }
+      tree.addAll(intervals.subList(batched / 2, intervals.size()), 1);
+      for (int i = batched / 2; i < intervals.size(); i++) {
+        weights[i]++;
+      }
+
+      for (int i = -4; i < 140; i++) {
+        double value = i / 2.0;
+        assertEquals(depth(intervals, weights, value), tree.depth(value), 1e-9);
+      }
+      for (int i = 0; i < 200; i++) {
+        int from = random.nextInt(70) - 2;
+        int to = from + random.nextInt(20);
+        BoundType lowerType = from == to || random.nextBoolean() ? BoundType.Closed
+                                                                 : BoundType.Open;
+        BoundType upperType = from == to || random.nextBoolean() ? BoundType.Closed
+                                                                 : BoundType.Open;
+        Interval<Double> range =
+            Intervals.interval((double) from, lowerType, (double) to, upperType);
+        double max = 0;
+        double coverage = 0;
+        for (int j = 2 * from; j <= 2 * to; j++) {
+          if (range.contains(j / 2.0)) {
+            max = Math.max(max, depth(intervals, weights, j / 2.0));
+          }
+          if (j < 2 * to && (j & 1) == 1) {
+            coverage += depth(intervals, weights, j / 2.0);
+          }
+        }
+        assertEquals(max, tree.maxDepth(range), 1e-9);
+        assertEquals(coverage, tree.weightedCoverage(range), 1e-9);
+      }
+    }
+  }
+
+  private static double depth(List<Interval<Double>> intervals, double[] weights, double value) {
+    double depth = 0;
+    for (int i = 0; i < intervals.size(); i++) {
+      if (intervals.get(i).contains(value)) {
+        depth += weights[i];
+      }
+    }
+    return depth;
+  }
+}
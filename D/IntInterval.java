@@ -0,0 +1,463 @@
+import java.util.Arrays;
+
+/**
+ * An interval of {@code int}s, in their natural order. It is the primitive counterpart of {@code
+ * Interval<Integer>}, with the same meaning for bounds, bound types and emptiness, but its
+ * endpoints are stored unboxed and its bound types are packed into a single flags byte, so that
+ * {@link #contains(int)} compares two {@code int}s and allocates nothing.
+ *
+ * <p>{@link #countContained(int[])} and {@link #containsAll(int[], long[])} check whole
+ * arrays of values at once: with the vector API when the optional vector kernels are built and
+ * the JVM has the {@code jdk.incubator.vector} module (see {@link IntervalKernels}), and otherwise
+ * in loops without branches, which the JIT compiler vectorizes only in part.
+ *
+ * <p>Instances are immutable. Use {@link #toInterval()} and {@link #from(Interval)} to convert to
+ * and from the generic type.
+ */
+public final class IntInterval {
+
+  // Flag bits for open bounds; a clear bit means closed:
+  private static final byte LOWER_OPEN = 1;
+  private static final byte UPPER_OPEN = 2;
+
+  /**
+   * The empty interval, which by convention is [0, 0).
+   */
+  public static final IntInterval EMPTY = new IntInterval(0, 0, UPPER_OPEN);
+
+  private final int lower;
+  private final int upper;
+  private final byte flags;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - lower <= upper
+   *  - if lower == upper and either bound is open, this is EMPTY
+   */
+
+  private IntInterval(int lower, int upper, byte flags) {
+    this.lower = lower;
+    this.upper = upper;
+    this.flags = flags;
+  }
+
+  /**
+   * creates a new interval
+   *
+   * @param lower     the lower bound
+   * @param lowerType the lower bound type
+   * @param upper     the upper bound
+   * @param upperType the upper bound type
+   * @return the interval, which is {@link #EMPTY} if the bounds are equal and either is open
+   * @throws IllegalArgumentException if {@code lower > upper}
+   */
+  public static IntInterval of(int lower, BoundType lowerType, int upper, BoundType upperType) {
+    if (lower > upper) {
+      throw new IllegalArgumentException("lower bound is greater than upper bound");
+    }
+    byte flags = (byte) ((lowerType.isOpen() ? LOWER_OPEN : 0)
+                         | (upperType.isOpen() ? UPPER_OPEN : 0));
+    return make(lower, upper, flags);
+  }
+
+  /**
+   * creates a closed, closed interval
+   *
+   * @param lower the lower bound
+   * @param upper the upper bound
+   * @return a new closed interval
+   * @throws IllegalArgumentException if {@code lower > upper}
+   */
+  public static IntInterval closed(int lower, int upper) {
+    return of(lower, BoundType.Closed, upper, BoundType.Closed);
+  }
+
+  /**
+   * creates an open, open interval
+   *
+   * @param lower the lower bound
+   * @param upper the upper bound
+   * @return a new open interval
+   * @throws IllegalArgumentException if {@code lower > upper}
+   */
+  public static IntInterval open(int lower, int upper) {
+    return of(lower, BoundType.Open, upper, BoundType.Open);
+  }
+
+  /**
+   * creates a closed, open interval
+   *
+   * @param lower the lower bound
+   * @param upper the upper bound
+   * @return a new closed, open interval
+   * @throws IllegalArgumentException if {@code lower > upper}
+   */
+  public static IntInterval closedOpen(int lower, int upper) {
+    return of(lower, BoundType.Closed, upper, BoundType.Open);
+  }
+
+  /**
+   * creates an open, closed interval
+   *
+   * @param lower the lower bound
+   * @param upper the upper bound
+   * @return a new open, closed interval
+   * @throws IllegalArgumentException if {@code lower > upper}
+   */
+  public static IntInterval openClosed(int lower, int upper) {
+    return of(lower, BoundType.Open, upper, BoundType.Closed);
+  }
+
+  /**
+   * creates the interval containing just one value
+   *
+   * @param value the value
+   * @return a new singleton interval
+   */
+  public static IntInterval singleton(int value) {
+    return new IntInterval(value, value, (byte) 0);
+  }
+
+  /**
+   * converts a generic interval in the natural order of {@code Integer}
+   *
+   * @param interval the interval to convert
+   * @return the same interval with primitive endpoints
+   * @throws IllegalArgumentException if the interval's lower bound is greater than its upper bound
+   *                                  in the natural order
+   */
+  public static IntInterval from(Interval<Integer> interval) {
+    if (interval instanceof Boxed) {
+      return ((Boxed) interval).unboxed;
+    }
+    if (interval.isEmpty()) {
+      return EMPTY;
+    }
+    return of(interval.lowerBound(), interval.lowerBoundType(),
+              interval.upperBound(), interval.upperBoundType());
+  }
+
+  /**
+   * Returns an interval with the given bounds, which are already checked to be in order.
+   */
+  private static IntInterval make(int lower, int upper, byte flags) {
+    if (lower == upper && flags != 0) {
+      return EMPTY;
+    }
+    return new IntInterval(lower, upper, flags);
+  }
+
+  /**
+   * Determines whether a particular value lies in this interval.
+   *
+   * @param value the value to check
+   * @return whether the value is in the interval
+   */
+  public boolean contains(int value) {
+    boolean aboveLower = (flags & LOWER_OPEN) == 0 ? value >= lower : value > lower;
+    boolean belowUpper = (flags & UPPER_OPEN) == 0 ? value <= upper : value < upper;
+    return aboveLower & belowUpper;
+  }
+
+  /**
+   * Counts the values in an array that lie in this interval.
+   *
+   * @param values the values to check
+   * @return the number of values in the interval
+   */
+  public int countContained(int[] values) {
+    return countContained(values, 0, values.length);
+  }
+
+  /**
+   * Counts the values in part of an array that lie in this interval.
+   *
+   * @param values the values to check
+   * @param from   the index of the first value to check
+   * @param to     the index after the last value to check
+   * @return the number of values in the interval
+   * @throws IndexOutOfBoundsException if the range isn't within the array
+   */
+  public int countContained(int[] values, int from, int to) {
+    checkRange(values.length, from, to);
+    // With closed bounds, one unsigned comparison of the offset from the lower bound will do.
+    int low = (flags & LOWER_OPEN) == 0 ? lower : lower + 1;
+    int high = (flags & UPPER_OPEN) == 0 ? upper : upper - 1;
+    if (low > high) {
+      return 0;
+    }
+    IntervalKernels vector = IntervalKernels.VECTOR;
+    if (vector != null) {
+      return vector.countContained(values, from, to, low, high);
+    }
+    int width = high - low + Integer.MIN_VALUE;
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      count += values[i] - low + Integer.MIN_VALUE <= width ? 1 : 0;
+    }
+    return count;
+  }
+
+  /**
+   * Marks the values in an array that lie in this interval: bit {@code i % 64} of {@code
+   * resultBitmap[i / 64]} is set if {@code values[i]} is in the interval, and cleared if it isn't.
+   * The bits past the last value in the last word are cleared, and later words are left alone.
+   *
+   * @param values       the values to check
+   * @param resultBitmap the bitmap to fill, with at least {@code (values.length + 63) / 64} words
+   * @return the number of values in the interval
+   * @throws IllegalArgumentException if the bitmap is too short
+   */
+  public int containsAll(int[] values, long[] resultBitmap) {
+    int words = checkBitmap(values.length, resultBitmap);
+    int low = (flags & LOWER_OPEN) == 0 ? lower : lower + 1;
+    int high = (flags & UPPER_OPEN) == 0 ? upper : upper - 1;
+    if (low > high) {
+      Arrays.fill(resultBitmap, 0, words, 0L);
+      return 0;
+    }
+    IntervalKernels vector = IntervalKernels.VECTOR;
+    if (vector != null) {
+      return vector.containsAll(values, resultBitmap, words, low, high);
+    }
+    int width = high - low + Integer.MIN_VALUE;
+    int count = 0;
+    for (int w = 0; w < words; w++) {
+      int from = w << 6;
+      int to = Math.min(from + 64, values.length);
+      long word = 0;
+      for (int i = from; i < to; i++) {
+        // A long shift only uses the low six bits of i.
+        word |= (values[i] - low + Integer.MIN_VALUE <= width ? 1L : 0L) << i;
+      }
+      resultBitmap[w] = word;
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Determines whether this interval is empty.
+   *
+   * @return whether this interval is empty
+   */
+  public boolean isEmpty() {
+    return this == EMPTY;
+  }
+
+  /**
+   * The lower bound for this interval.
+   *
+   * @return the lower bound
+   * @throws IllegalStateException if this interval is empty
+   */
+  public int lowerBound() {
+    if (isEmpty()) {
+      throw new IllegalStateException();
+    }
+    return lower;
+  }
+
+  /**
+   * The upper bound for this interval.
+   *
+   * @return the upper bound
+   * @throws IllegalStateException if this interval is empty
+   */
+  public int upperBound() {
+    if (isEmpty()) {
+      throw new IllegalStateException();
+    }
+    return upper;
+  }
+
+  /**
+   * Whether the lower bound of this interval is open or closed. The lower bound of the empty
+   * interval is closed.
+   *
+   * @return the lower bound type
+   */
+  public BoundType lowerBoundType() {
+    return (flags & LOWER_OPEN) == 0 ? BoundType.Closed : BoundType.Open;
+  }
+
+  /**
+   * Whether the upper bound of this interval is open or closed. The upper bound of the empty
+   * interval is open.
+   *
+   * @return the upper bound type
+   */
+  public BoundType upperBoundType() {
+    return (flags & UPPER_OPEN) == 0 ? BoundType.Closed : BoundType.Open;
+  }
+
+  /**
+   * Determines whether this interval includes the other interval, as in {@link
+   * Interval#includes(Interval)}.
+   *
+   * @param other the interval to check
+   * @return whether this interval includes the other
+   */
+  public boolean includes(IntInterval other) {
+    if (other.isEmpty()) {
+      return true;
+    }
+    if (isEmpty()) {
+      return false;
+    }
+    boolean lowerOk = other.lower > lower
+                      || other.lower == lower && ((flags & ~other.flags & LOWER_OPEN) == 0);
+    boolean upperOk = other.upper < upper
+                      || other.upper == upper && ((flags & ~other.flags & UPPER_OPEN) == 0);
+    return lowerOk && upperOk;
+  }
+
+  /**
+   * Returns the intersection of two intervals, as in {@link Interval#intersection(Interval)}. If
+   * the intersection is one of the two intervals, that interval is returned rather than a copy.
+   *
+   * @param other the interval to intersect with this interval
+   * @return the intersection
+   */
+  public IntInterval intersection(IntInterval other) {
+    if (isEmpty() || other.isEmpty()) {
+      return EMPTY;
+    }
+
+    // The greater lower bound, and on a tie the open one:
+    int newLower = Math.max(lower, other.lower);
+    int lowerFlag = lower > other.lower ? flags : other.lower > lower ? other.flags
+                                                                      : flags | other.flags;
+    // The lesser upper bound, and on a tie the open one:
+    int newUpper = Math.min(upper, other.upper);
+    int upperFlag = upper < other.upper ? flags : other.upper < upper ? other.flags
+                                                                      : flags | other.flags;
+
+    if (newLower > newUpper) {
+      return EMPTY;
+    }
+    byte newFlags = (byte) ((lowerFlag & LOWER_OPEN) | (upperFlag & UPPER_OPEN));
+    return reuse(newLower, newUpper, newFlags, other);
+  }
+
+  /**
+   * Returns the smallest interval including both intervals, as in {@link Interval#span(Interval)}.
+   * If the span is one of the two intervals, that interval is returned rather than a copy.
+   *
+   * @param other the interval to span along with this interval
+   * @return the span
+   */
+  public IntInterval span(IntInterval other) {
+    if (isEmpty()) {
+      return other;
+    }
+    if (other.isEmpty()) {
+      return this;
+    }
+
+    // The lesser lower bound, and on a tie the closed one:
+    int newLower = Math.min(lower, other.lower);
+    int lowerFlag = lower < other.lower ? flags : other.lower < lower ? other.flags
+                                                                      : flags & other.flags;
+    // The greater upper bound, and on a tie the closed one:
+    int newUpper = Math.max(upper, other.upper);
+    int upperFlag = upper > other.upper ? flags : other.upper > upper ? other.flags
+                                                                      : flags & other.flags;
+
+    byte newFlags = (byte) ((lowerFlag & LOWER_OPEN) | (upperFlag & UPPER_OPEN));
+    return reuse(newLower, newUpper, newFlags, other);
+  }
+
+  /**
+   * Checks that {@code [from, to)} is a range of indices into an array of a given length.
+   */
+  private static void checkRange(int length, int from, int to) {
+    if (from < 0 || from > to || to > length) {
+      throw new IndexOutOfBoundsException(
+          "range [" + from + ", " + to + ") out of bounds for length " + length);
+    }
+  }
+
+  /**
+   * Checks that a bitmap has a bit for each of {@code length} values, and returns the number of
+   * words that takes.
+   */
+  private static int checkBitmap(int length, long[] bitmap) {
+    int words = (length + 63) >>> 6;
+    if (bitmap.length < words) {
+      throw new IllegalArgumentException(
+          "bitmap has " + bitmap.length + " words, but " + words + " are needed");
+    }
+    return words;
+  }
+
+  /**
+   * Returns this interval or {@code other} if either has the given bounds, and a new interval
+   * otherwise.
+   */
+  private IntInterval reuse(int newLower, int newUpper, byte newFlags, IntInterval other) {
+    if (newLower == lower && newUpper == upper && newFlags == flags) {
+      return this;
+    }
+    if (newLower == other.lower && newUpper == other.upper && newFlags == other.flags) {
+      return other;
+    }
+    return make(newLower, newUpper, newFlags);
+  }
+
+  /**
+   * converts to a generic interval in the natural order of {@code Integer}. The result boxes the
+   * endpoints once, and converts back with {@link #from(Interval)} without allocating.
+   *
+   * @return the same interval as an {@code Interval<Integer>}
+   */
+  public Interval<Integer> toInterval() {
+    return new Boxed(this);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof IntInterval)) {
+      return false;
+    }
+    IntInterval that = (IntInterval) other;
+    return lower == that.lower && upper == that.upper && flags == that.flags;
+  }
+
+  @Override
+  public int hashCode() {
+    return (Integer.hashCode(lower) * 31 + Integer.hashCode(upper)) * 31 + flags;
+  }
+
+  @Override
+  public String toString() {
+    if (isEmpty()) {
+      return "Empty";
+    }
+    return ((flags & LOWER_OPEN) == 0 ? "[" : "(") + lower + ", " + upper
+           + ((flags & UPPER_OPEN) == 0 ? "]" : ")");
+  }
+
+  /**
+   * The generic view returned by {@link #toInterval()}, which remembers the primitive interval it
+   * came from.
+   */
+  private static final class Boxed extends ComparableInterval<Integer> {
+
+    private final IntInterval unboxed;
+
+    Boxed(IntInterval unboxed) {
+      super(unboxed.lower, unboxed.lowerBoundType(), unboxed.upper, unboxed.upperBoundType());
+      this.unboxed = unboxed;
+    }
+
+    @Override
+    public boolean contains(Integer value) {
+      return unboxed.contains(value);
+    }
+  }
+}
@@ -159,4 +159,40 @@ public interface Interval<T> extends Predicate<T> {
   default boolean test(T value) {
     return contains(value);
   }
+
+  /**
+   * Returns a predicate matching the values in both this interval and another predicate. The
+   * result is an {@link IntervalPredicate}, so that chains of {@code and}, {@code or} and {@code
+   * negate} over intervals are normalized into a set of disjoint intervals as they are built.
+   *
+   * @param other the other predicate
+   * @return the conjunction
+   */
+  @Override
+  default Predicate<T> and(Predicate<? super T> other) {
+    return IntervalPredicate.of(this).and(other);
+  }
+
+  /**
+   * Returns a predicate matching the values in this interval, another predicate, or both. The
+   * result is an {@link IntervalPredicate}, as for {@link #and(Predicate)}.
+   *
+   * @param other the other predicate
+   * @return the disjunction
+   */
+  @Override
+  default Predicate<T> or(Predicate<? super T> other) {
+    return IntervalPredicate.of(this).or(other);
+  }
+
+  /**
+   * Returns a predicate matching exactly the values not in this interval. The result is an {@link
+   * IntervalPredicate}, as for {@link #and(Predicate)}.
+   *
+   * @return the negation
+   */
+  @Override
+  default Predicate<T> negate() {
+    return IntervalPredicate.of(this).negate();
+  }
 }
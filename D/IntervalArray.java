@@ -0,0 +1,547 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A growable array of {@code long} intervals stored by column: one array of lower bounds, one of
+ * upper bounds, and a bitset for each bound type. Each interval takes a little over 16 bytes, where
+ * an {@code Interval<Long>} object with its boxed endpoints takes several times that, and scans
+ * read the columns sequentially.
+ *
+ * <p>Intervals are read by index, or through a {@link Cursor}: a flyweight that is moved from one
+ * interval to the next and reads the columns in place, so a scan allocates nothing per interval.
+ * A cursor isn't an {@link Interval}, since it changes as it moves; {@link #get(int)}, iteration
+ * and {@link Cursor#copy()} give immutable intervals that can be kept.
+ *
+ * <p>Once {@link #sort() sorted} by lower bound, the array answers stabbing queries by binary
+ * search. It also keeps, for each block of 64 intervals, the greatest upper bound up to the end of
+ * that block, so a query skips every block ending before the point. Adding intervals in sorted
+ * order keeps the array sorted.
+ *
+ * <p>Empty intervals aren't stored. Instances are not thread safe.
+ */
+public final class IntervalArray implements Iterable<Interval<Long>> {
+
+  // The number of intervals summarized by each entry of blockMax:
+  private static final int BLOCK_SHIFT = 6;
+
+  // The lower and upper bounds of the intervals:
+  private long[] lowers;
+  private long[] uppers;
+
+  // Bitsets of the intervals with an open lower bound and with an open upper bound:
+  private long[] lowerOpen;
+  private long[] upperOpen;
+
+  // The number of intervals:
+  private int size;
+
+  // Whether the intervals are sorted by lower bound:
+  private boolean sorted;
+
+  // blockMax[b] is the greatest upper bound of intervals 0 through the end of block b:
+  private long[] blockMax;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - lowers and uppers have the same length, and lowerOpen and upperOpen have a bit for each
+   *    element of them
+   *  - interval i, for i < size, is non-empty, so lowers[i] <= uppers[i], with both bounds closed
+   *    if they are equal
+   *  - if sorted, the intervals are in ascending order of lower bound, closed before open on a tie,
+   *    and blockMax is up to date for every block holding an interval
+   */
+
+  /**
+   * Creates an empty array.
+   */
+  public IntervalArray() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty array with room for a number of intervals.
+   *
+   * @param capacity the number of intervals to make room for
+   * @throws IllegalArgumentException if {@code capacity} is negative
+   */
+  public IntervalArray(int capacity) {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+    }
+    lowers = new long[capacity];
+    uppers = new long[capacity];
+    lowerOpen = new long[words(capacity)];
+    upperOpen = new long[words(capacity)];
+    blockMax = new long[words(capacity)];
+    sorted = true;
+  }
+
+  /**
+   * Adds an interval.
+   *
+   * @param lower     the lower bound
+   * @param lowerType the lower bound type
+   * @param upper     the upper bound
+   * @param upperType the upper bound type
+   * @return whether it was added, which it isn't if it is empty
+   * @throws IllegalArgumentException if {@code lower > upper}
+   */
+  public boolean add(long lower, BoundType lowerType, long upper, BoundType upperType) {
+    if (lower > upper) {
+      throw new IllegalArgumentException("lower bound is greater than upper bound");
+    }
+    if (lower == upper && (lowerType.isOpen() || upperType.isOpen())) {
+      return false;
+    }
+    if (size == lowers.length) {
+      grow();
+    }
+    int i = size++;
+    lowers[i] = lower;
+    uppers[i] = upper;
+    setBit(lowerOpen, i, lowerType.isOpen());
+    setBit(upperOpen, i, upperType.isOpen());
+    if (sorted) {
+      if (i > 0 && compareLower(i - 1, i) > 0) {
+        sorted = false;
+      } else {
+        int block = i >>> BLOCK_SHIFT;
+        long previous = block > 0 ? blockMax[block - 1] : Long.MIN_VALUE;
+        long current = (i & ((1 << BLOCK_SHIFT) - 1)) == 0 ? previous : blockMax[block];
+        blockMax[block] = Math.max(current, upper);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Adds an interval in the natural order of {@code Long}.
+   *
+   * @param interval the interval to add
+   * @return whether it was added, which it isn't if it is empty
+   */
+  public boolean add(Interval<Long> interval) {
+    if (interval.isEmpty()) {
+      return false;
+    }
+    return add(interval.lowerBound(), interval.lowerBoundType(), interval.upperBound(),
+               interval.upperBoundType());
+  }
+
+  /**
+   * Returns the number of intervals.
+   *
+   * @return the number of intervals
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the lower bound of an interval.
+   *
+   * @param index the index of the interval
+   * @return its lower bound
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public long lowerBound(int index) {
+    checkIndex(index);
+    return lowers[index];
+  }
+
+  /**
+   * Returns the upper bound of an interval.
+   *
+   * @param index the index of the interval
+   * @return its upper bound
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public long upperBound(int index) {
+    checkIndex(index);
+    return uppers[index];
+  }
+
+  /**
+   * Returns the lower bound type of an interval.
+   *
+   * @param index the index of the interval
+   * @return its lower bound type
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public BoundType lowerBoundType(int index) {
+    checkIndex(index);
+    return getBit(lowerOpen, index) ? BoundType.Open : BoundType.Closed;
+  }
+
+  /**
+   * Returns the upper bound type of an interval.
+   *
+   * @param index the index of the interval
+   * @return its upper bound type
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public BoundType upperBoundType(int index) {
+    checkIndex(index);
+    return getBit(upperOpen, index) ? BoundType.Open : BoundType.Closed;
+  }
+
+  /**
+   * Determines whether an interval contains a value.
+   *
+   * @param index the index of the interval
+   * @param value the value to check
+   * @return whether the value lies in the interval
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public boolean contains(int index, long value) {
+    checkIndex(index);
+    return containsAt(index, value);
+  }
+
+  /**
+   * Determines whether the intervals are sorted by lower bound.
+   *
+   * @return whether they are sorted
+   */
+  public boolean isSorted() {
+    return sorted;
+  }
+
+  /**
+   * Sorts the intervals by lower bound, closed before open on a tie. The order of intervals with
+   * equal lower bounds is kept.
+   */
+  public void sort() {
+    if (sorted) {
+      return;
+    }
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    mergeSort(order, new int[size], 0, size);
+
+    long[] newLowers = new long[lowers.length];
+    long[] newUppers = new long[uppers.length];
+    long[] newLowerOpen = new long[lowerOpen.length];
+    long[] newUpperOpen = new long[upperOpen.length];
+    for (int i = 0; i < size; i++) {
+      int from = order[i];
+      newLowers[i] = lowers[from];
+      newUppers[i] = uppers[from];
+      setBit(newLowerOpen, i, getBit(lowerOpen, from));
+      setBit(newUpperOpen, i, getBit(upperOpen, from));
+    }
+    lowers = newLowers;
+    uppers = newUppers;
+    lowerOpen = newLowerOpen;
+    upperOpen = newUpperOpen;
+
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      max = Math.max(max, uppers[i]);
+      blockMax[i >>> BLOCK_SHIFT] = max;
+    }
+    sorted = true;
+  }
+
+  /**
+   * Returns the indices of the intervals containing a point, in ascending order.
+   *
+   * @param point the point
+   * @return the indices of the intervals containing it
+   * @throws IllegalStateException if the array isn't sorted
+   */
+  public int[] stab(long point) {
+    if (!sorted) {
+      throw new IllegalStateException("the intervals must be sorted first");
+    }
+    // Intervals from index end on start after the point.
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (lowers[mid] < point || lowers[mid] == point && !getBit(lowerOpen, mid)) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    int end = lo;
+
+    // Blocks before the first one reaching the point hold only intervals ending before it.
+    lo = 0;
+    hi = (end + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (blockMax[mid] < point) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+
+    int[] result = new int[8];
+    int count = 0;
+    for (int i = lo << BLOCK_SHIFT; i < end; i++) {
+      if (containsAt(i, point)) {
+        if (count == result.length) {
+          result = Arrays.copyOf(result, count * 2);
+        }
+        result[count++] = i;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /**
+   * Returns a copy of an interval.
+   *
+   * @param index the index of the interval
+   * @return a new interval equal to the one at {@code index}
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public Interval<Long> get(int index) {
+    return Intervals.interval(lowerBound(index), lowerBoundType(index), upperBound(index),
+                              upperBoundType(index));
+  }
+
+  /**
+   * Returns a new cursor, positioned before the first interval.
+   *
+   * @return a cursor to scan the intervals with
+   */
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * Returns an iterator over copies of the intervals, which, unlike a {@link Cursor}, may be kept
+   * and stored in collections. Scans that don't keep the intervals should use a cursor instead.
+   *
+   * @return an iterator over the intervals
+   */
+  @Override
+  public Iterator<Interval<Long>> iterator() {
+    return new Iterator<Interval<Long>>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      public Interval<Long> next() {
+        if (next >= size) {
+          throw new NoSuchElementException();
+        }
+        return get(next++);
+      }
+    };
+  }
+
+  /**
+   * Whether interval {@code index}, which exists, contains a value.
+   */
+  private boolean containsAt(int index, long value) {
+    boolean aboveLower = getBit(lowerOpen, index) ? value > lowers[index] : value >= lowers[index];
+    boolean belowUpper = getBit(upperOpen, index) ? value < uppers[index] : value <= uppers[index];
+    return aboveLower & belowUpper;
+  }
+
+  /**
+   * Compares the lower bounds of two intervals, closed before open on a tie.
+   */
+  private int compareLower(int i, int j) {
+    int cmp = Long.compare(lowers[i], lowers[j]);
+    return cmp != 0 ? cmp : Boolean.compare(getBit(lowerOpen, i), getBit(lowerOpen, j));
+  }
+
+  /**
+   * Sorts {@code order[from, to)}, a range of interval indices, by lower bound.
+   */
+  private void mergeSort(int[] order, int[] temp, int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    mergeSort(order, temp, from, mid);
+    mergeSort(order, temp, mid, to);
+    if (compareLower(order[mid - 1], order[mid]) <= 0) {
+      return;
+    }
+    System.arraycopy(order, from, temp, from, to - from);
+    int i = from;
+    int j = mid;
+    for (int k = from; k < to; k++) {
+      if (j == to || i < mid && compareLower(temp[i], temp[j]) <= 0) {
+        order[k] = temp[i++];
+      } else {
+        order[k] = temp[j++];
+      }
+    }
+  }
+
+  /**
+   * Doubles the capacity of every column.
+   */
+  private void grow() {
+    int capacity = Math.max(16, lowers.length * 2);
+    lowers = Arrays.copyOf(lowers, capacity);
+    uppers = Arrays.copyOf(uppers, capacity);
+    lowerOpen = Arrays.copyOf(lowerOpen, words(capacity));
+    upperOpen = Arrays.copyOf(upperOpen, words(capacity));
+    blockMax = Arrays.copyOf(blockMax, words(capacity));
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  /**
+   * Returns the number of longs holding a bit for each of {@code count} intervals, which is also
+   * the number of blocks.
+   */
+  private static int words(int count) {
+    return (count + 63) >>> 6;
+  }
+
+  private static boolean getBit(long[] bits, int index) {
+    return (bits[index >>> 6] & 1L << index) != 0;
+  }
+
+  private static void setBit(long[] bits, int index, boolean value) {
+    if (value) {
+      bits[index >>> 6] |= 1L << index;
+    } else {
+      bits[index >>> 6] &= ~(1L << index);
+    }
+  }
+
+  /**
+   * A movable cursor over the intervals of the array. It reads the columns on every call, so it
+   * sees the interval at its index as it is now: sorting the array moves a different interval
+   * under it. A typical scan is
+   *
+   * <pre>
+   *   for (IntervalArray.Cursor cursor = array.cursor(); cursor.next(); ) {
+   *     ... cursor.lowerBound() ... cursor.contains(point) ...
+   *   }
+   * </pre>
+   */
+  public final class Cursor {
+
+    // The index of the current interval, or -1 before the first:
+    private int index = -1;
+
+    private Cursor() {
+    }
+
+    /**
+     * Moves this cursor to the next interval, if there is one.
+     *
+     * @return whether there was a next interval
+     */
+    public boolean next() {
+      if (index + 1 >= size) {
+        index = size;
+        return false;
+      }
+      ++index;
+      return true;
+    }
+
+    /**
+     * Moves this cursor to an interval.
+     *
+     * @param index the index of the interval
+     * @return this cursor
+     * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+     */
+    public Cursor moveTo(int index) {
+      checkIndex(index);
+      this.index = index;
+      return this;
+    }
+
+    /**
+     * Returns the index of the current interval.
+     *
+     * @return the index
+     */
+    public int index() {
+      return index;
+    }
+
+    /**
+     * Returns the lower bound of the current interval.
+     *
+     * @return its lower bound
+     * @throws IndexOutOfBoundsException if the cursor isn't on an interval
+     */
+    public long lowerBound() {
+      return IntervalArray.this.lowerBound(index);
+    }
+
+    /**
+     * Returns the upper bound of the current interval.
+     *
+     * @return its upper bound
+     * @throws IndexOutOfBoundsException if the cursor isn't on an interval
+     */
+    public long upperBound() {
+      return IntervalArray.this.upperBound(index);
+    }
+
+    /**
+     * Returns the lower bound type of the current interval.
+     *
+     * @return its lower bound type
+     * @throws IndexOutOfBoundsException if the cursor isn't on an interval
+     */
+    public BoundType lowerBoundType() {
+      return IntervalArray.this.lowerBoundType(index);
+    }
+
+    /**
+     * Returns the upper bound type of the current interval.
+     *
+     * @return its upper bound type
+     * @throws IndexOutOfBoundsException if the cursor isn't on an interval
+     */
+    public BoundType upperBoundType() {
+      return IntervalArray.this.upperBoundType(index);
+    }
+
+    /**
+     * Determines whether the current interval contains a value.
+     *
+     * @param value the value to check
+     * @return whether the value lies in the interval
+     * @throws IndexOutOfBoundsException if the cursor isn't on an interval
+     */
+    public boolean contains(long value) {
+      return IntervalArray.this.contains(index, value);
+    }
+
+    /**
+     * Returns an immutable copy of the current interval.
+     *
+     * @return a new interval equal to it
+     * @throws IndexOutOfBoundsException if the cursor isn't on an interval
+     */
+    public Interval<Long> copy() {
+      return get(index);
+    }
+
+    @Override
+    public String toString() {
+      return index >= 0 && index < size ? index + ": " + copy() : "no interval";
+    }
+  }
+}
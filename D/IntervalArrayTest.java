@@ -0,0 +1,121 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalArrayTest {
+
+  @Test
+  public void add_test() {
+    IntervalArray array = new IntervalArray(0);
+    assertTrue(array.add(3, BoundType.Open, 7, BoundType.Closed));
+    assertFalse(array.add(5, BoundType.Closed, 5, BoundType.Open));
+    assertTrue(array.add(Intervals.closedOpen(1L, 2L)));
+    assertEquals(2, array.size());
+    assertFalse(array.isSorted());
+    assertEquals(3, array.lowerBound(0));
+    assertEquals(BoundType.Open, array.lowerBoundType(0));
+    assertEquals(BoundType.Closed, array.upperBoundType(0));
+    assertFalse(array.contains(0, 3));
+    assertTrue(array.contains(0, 7));
+    assertEquals(Intervals.openClosed(3L, 7L), array.get(0));
+    assertEquals("[1, 2)", array.get(1).toString());
+    IntervalArray.Cursor cursor = array.cursor();
+    assertEquals(Intervals.closedOpen(1L, 2L), cursor.moveTo(1).copy());
+    assertEquals(1, cursor.lowerBound());
+    assertEquals(BoundType.Open, cursor.upperBoundType());
+    assertTrue(cursor.contains(1));
+    assertFalse(cursor.contains(2));
+  }
+
+  @Test
+  public void sort_test() {
+    IntervalArray array = new IntervalArray();
+    array.add(5, BoundType.Open, 6, BoundType.Open);
+    array.add(5, BoundType.Closed, 9, BoundType.Closed);
+    array.add(1, BoundType.Closed, 2, BoundType.Closed);
+    array.sort();
+    assertTrue(array.isSorted());
+    List<Interval<Long>> copies = new ArrayList<>();
+    for (IntervalArray.Cursor cursor = array.cursor(); cursor.next(); ) {
+      assertEquals(copies.size(), cursor.index());
+      copies.add(cursor.copy());
+    }
+    assertEquals(Intervals.closed(1L, 2L), copies.get(0));
+    assertEquals(Intervals.closed(5L, 9L), copies.get(1));
+    assertEquals(Intervals.open(5L, 6L), copies.get(2));
+    assertArrayEquals(new int[]{1}, array.stab(5));
+    array.add(7, BoundType.Closed, 8, BoundType.Closed);
+    assertTrue(array.isSorted());
+    assertArrayEquals(new int[]{1, 3}, array.stab(7));
+  }
+
+  @Test
+  public void iteration_test() {
+    // The intervals iterated over are copies, so collections can keep them.
+    IntervalArray array = new IntervalArray();
+    array.add(0, BoundType.Closed, 1, BoundType.Closed);
+    array.add(5, BoundType.Closed, 6, BoundType.Closed);
+    array.add(10, BoundType.Closed, 11, BoundType.Closed);
+    RangeSet<Long> set = new RangeSet<>(Comparator.<Long>naturalOrder());
+    List<Interval<Long>> list = new ArrayList<>();
+    for (Interval<Long> interval : array) {
+      set.add(interval);
+      list.add(interval);
+    }
+    assertEquals("[[0, 1], [5, 6], [10, 11]]", set.toString());
+    assertTrue(set.contains(0L));
+    assertEquals(Arrays.asList(array.get(0), array.get(1), array.get(2)), list);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unsorted_stab_test() {
+    IntervalArray array = new IntervalArray();
+    array.add(5, BoundType.Closed, 6, BoundType.Closed);
+    array.add(1, BoundType.Closed, 2, BoundType.Closed);
+    array.stab(1);
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(4);
+    for (boolean presorted : new boolean[]{false, true}) {
+      IntervalArray array = new IntervalArray();
+      int lower = 0;
+      for (int i = 0; i < 2000; i++) {
+        lower = presorted ? lower + random.nextInt(3) : random.nextInt(1000);
+        int length = random.nextInt(10) == 0 ? random.nextInt(500) : random.nextInt(5);
+        BoundType lowerType = presorted || random.nextBoolean() ? BoundType.Closed
+                                                                : BoundType.Open;
+        array.add(lower, lowerType, lower + length, random.nextBoolean() ? BoundType.Closed
+                                                                         : BoundType.Open);
+      }
+      assertEquals(presorted, array.isSorted());
+      array.sort();
+      for (int i = 1; i < array.size(); i++) {
+        assertTrue(array.lowerBound(i - 1) <= array.lowerBound(i));
+      }
+      for (long point = -1; point < 2000; point++) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < array.size(); i++) {
+          if (array.contains(i, point)) {
+            expected.add(i);
+          }
+        }
+        int[] actual = array.stab(point);
+        assertEquals(expected.size(), actual.length);
+        for (int i = 0; i < actual.length; i++) {
+          assertEquals((int) expected.get(i), actual[i]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,193 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merges a collection of intervals, in any order and overlapping in any way, into the fewest
+ * disjoint intervals covering the same values, sorted by lower bound. Intervals that overlap or
+ * touch at a value one of them includes are merged, as {@link RangeSet} does, so unlike folding
+ * with {@link Interval#span(Interval)} the gaps between them are kept.
+ *
+ * <p>The intervals are sorted by lower bound, closed before open on a tie, and then merged in one
+ * pass: each interval either extends the last merged one or starts a new one. {@link
+ * #parallelCoalesce} sorts with {@link Arrays#parallelSort}, merges contiguous chunks of the sorted
+ * intervals as fork-join tasks, and then stitches the chunks together, merging across each chunk
+ * boundary, in time proportional to the number of chunks and the intervals merged across them.
+ *
+ * <p>Empty intervals are ignored. Every interval must be ordered by the comparator passed in.
+ */
+public final class IntervalCoalescer {
+
+  // The fewest sorted intervals worth merging in a task of their own:
+  private static final int MIN_CHUNK = 1 << 13;
+
+  // The number of chunks per worker thread, so that uneven chunks still keep every thread busy:
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private IntervalCoalescer() {
+  } // prevents instantiation.
+
+  /**
+   * Coalesces intervals on the calling thread.
+   *
+   * @param intervals  the intervals to coalesce
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return the disjoint, coalesced intervals in ascending order
+   */
+  public static <T> List<Interval<T>> coalesce(Collection<? extends Interval<T>> intervals,
+                                               Comparator<T> comparator) {
+    Interval<T>[] sorted = nonEmpty(intervals, false);
+    Arrays.sort(sorted, byLower(comparator));
+    return merge(sorted, 0, sorted.length, comparator);
+  }
+
+  /**
+   * Coalesces intervals in parallel on the common fork-join pool.
+   *
+   * @param intervals  the intervals to coalesce
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return the disjoint, coalesced intervals in ascending order
+   */
+  public static <T> List<Interval<T>> parallelCoalesce(
+      Collection<? extends Interval<T>> intervals, Comparator<T> comparator) {
+    Interval<T>[] sorted = nonEmpty(intervals, true);
+    Arrays.parallelSort(sorted, byLower(comparator));
+
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    int chunks = Math.min(pool.getParallelism() * CHUNKS_PER_THREAD,
+                          Math.max(1, sorted.length / MIN_CHUNK));
+    List<ChunkTask<T>> tasks = new ArrayList<>(chunks);
+    for (int c = 0; c < chunks; c++) {
+      int from = (int) ((long) c * sorted.length / chunks);
+      int to = (int) ((long) (c + 1) * sorted.length / chunks);
+      tasks.add(new ChunkTask<>(sorted, from, to, comparator));
+    }
+    if (chunks == 1) {
+      tasks.get(0).compute();
+    } else {
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          ForkJoinTask.invokeAll(tasks);
+        }
+      });
+    }
+
+    // Each chunk's first intervals may be swallowed by the last merged interval before them.
+    List<Interval<T>> result = new ArrayList<>();
+    for (ChunkTask<T> task : tasks) {
+      List<Interval<T>> merged = task.merged;
+      int i = 0;
+      if (!result.isEmpty()) {
+        Interval<T> last = result.get(result.size() - 1);
+        while (i < merged.size()
+               && IntervalComparisons.connected(last, merged.get(i), comparator)) {
+          last = join(last, merged.get(i++), comparator);
+        }
+        result.set(result.size() - 1, last);
+      }
+      result.addAll(merged.subList(i, merged.size()));
+    }
+    return result;
+  }
+
+  /**
+   * Coalesces intervals in parallel into a {@link RangeSet}.
+   *
+   * @param intervals  the intervals to coalesce
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return a new set of the values in the intervals
+   */
+  public static <T> RangeSet<T> toRangeSet(Collection<? extends Interval<T>> intervals,
+                                           Comparator<T> comparator) {
+    return RangeSet.fromSorted(comparator, parallelCoalesce(intervals, comparator));
+  }
+
+  /**
+   * Merges a sorted range of intervals.
+   */
+  private static <T> List<Interval<T>> merge(Interval<T>[] sorted, int from, int to,
+                                             Comparator<T> comparator) {
+    List<Interval<T>> result = new ArrayList<>();
+    if (from == to) {
+      return result;
+    }
+    Interval<T> current = sorted[from];
+    for (int i = from + 1; i < to; i++) {
+      if (IntervalComparisons.connected(current, sorted[i], comparator)) {
+        current = join(current, sorted[i], comparator);
+      } else {
+        result.add(current);
+        current = sorted[i];
+      }
+    }
+    result.add(current);
+    return result;
+  }
+
+  /**
+   * Returns the union of two connected intervals, the first of which starts no later than the
+   * second. The first is returned as is if it already reaches as far.
+   */
+  private static <T> Interval<T> join(Interval<T> first, Interval<T> second,
+                                      Comparator<T> comparator) {
+    if (IntervalComparisons.compareUpper(first, second, comparator) >= 0) {
+      return first;
+    }
+    return Intervals.interval(first.lowerBound(), first.lowerBoundType(), second.upperBound(),
+                              second.upperBoundType(), comparator);
+  }
+
+  /**
+   * Returns the non-empty intervals of a collection in an array.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Interval<T>[] nonEmpty(Collection<? extends Interval<T>> intervals,
+                                            boolean parallel) {
+    return (parallel ? intervals.parallelStream() : intervals.stream())
+        .filter(interval -> !interval.isEmpty()).toArray(Interval[]::new);
+  }
+
+  /**
+   * Orders non-empty intervals by lower bound.
+   */
+  private static <T> Comparator<Interval<T>> byLower(Comparator<T> comparator) {
+    return (a, b) -> IntervalComparisons.compareLower(a, b, comparator);
+  }
+
+  /**
+   * Merges one chunk of the sorted intervals.
+   */
+  private static final class ChunkTask<T> extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Interval<T>[] sorted;
+    private final int from;
+    private final int to;
+    private final Comparator<T> comparator;
+
+    // The merged intervals of the chunk, once computed:
+    List<Interval<T>> merged;
+
+    ChunkTask(Interval<T>[] sorted, int from, int to, Comparator<T> comparator) {
+      this.sorted = sorted;
+      this.from = from;
+      this.to = to;
+      this.comparator = comparator;
+    }
+
+    @Override
+    protected void compute() {
+      merged = merge(sorted, from, to, comparator);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class IntervalCoalescerTest {
+
+  private static final Comparator<Integer> ORDER = Comparator.naturalOrder();
+
+  @Test
+  public void coalesce_test() {
+    List<Interval<Integer>> intervals = Arrays.asList(Intervals.closed(5, 6),
+                                                      Intervals.closedOpen(1, 2),
+                                                      Intervals.closed(2, 3),
+                                                      Intervals.openClosed(3, 4),
+                                                      Intervals.closedOpen(8, 8),
+                                                      Intervals.open(0, 10),
+                                                      Intervals.closed(20, 21));
+    assertEquals(Arrays.asList(Intervals.open(0, 10), Intervals.closed(20, 21)),
+                 IntervalCoalescer.coalesce(intervals, ORDER));
+    assertEquals(Arrays.asList(Intervals.closedOpen(1, 2), Intervals.openClosed(2, 3)),
+                 IntervalCoalescer.coalesce(Arrays.asList(Intervals.openClosed(2, 3),
+                                                          Intervals.closedOpen(1, 2)), ORDER));
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(12);
+    for (int n : new int[]{0, 1, 100, 50000, 200000}) {
+      List<Interval<Integer>> intervals = new ArrayList<>();
+      RangeSet<Integer> expected = new RangeSet<Integer>(ORDER);
+      for (int i = 0; i < n; i++) {
+        int lower = random.nextInt(Math.max(1, n * 4));
+        int upper = lower + random.nextInt(4);
+        BoundType lowerType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                     : BoundType.Open;
+        BoundType upperType = random.nextBoolean() ? BoundType.Closed : BoundType.Open;
+        Interval<Integer> interval = Intervals.interval(lower, lowerType, upper, upperType);
+        intervals.add(interval);
+        expected.add(interval);
+      }
+      List<Interval<Integer>> sequential = IntervalCoalescer.coalesce(intervals, ORDER);
+      List<Interval<Integer>> expectedList = new ArrayList<>();
+      expected.forEach(expectedList::add);
+      assertEquals(expectedList, sequential);
+      assertEquals(expected, IntervalCoalescer.toRangeSet(intervals, ORDER));
+      assertEquals(sequential, IntervalCoalescer.parallelCoalesce(intervals, ORDER));
+    }
+  }
+}
@@ -0,0 +1,131 @@
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Collector;
+
+/**
+ * {@link Collector}s that reduce streams of intervals, for example:
+ *
+ * <pre>
+ *   Interval&lt;Long&gt; window = bookings.parallelStream().collect(toSpan(order));
+ *   double busy = bookings.parallelStream().collect(toCoverage(order));
+ * </pre>
+ *
+ * <p>Span, intersection and union are associative and commutative, so the collectors are {@link
+ * Collector.Characteristics#UNORDERED UNORDERED} and parallel streams can split the work freely:
+ * each thread reduces its own part, and the parts are combined at the end. The span of no intervals
+ * is the empty interval, which is also the identity of span. The intersection of no intervals
+ * would be every value, which no interval represents, so {@link #toIntersection} reports it as
+ * absent instead.
+ *
+ * <p>Every interval must be ordered by the comparator passed in.
+ */
+public final class IntervalCollectors {
+
+  private IntervalCollectors() {
+  } // prevents instantiation.
+
+  /**
+   * Returns a collector of the span of the intervals: the smallest interval including them all.
+   *
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return a collector of the span, which is empty if there are no non-empty intervals
+   */
+  public static <T> Collector<Interval<T>, ?, Interval<T>> toSpan(Comparator<T> comparator) {
+    return Collector.of(
+        () -> new Holder<T>(Intervals.empty(comparator)),
+        (holder, interval) -> holder.value = holder.value.span(interval),
+        (a, b) -> {
+          a.value = a.value.span(b.value);
+          return a;
+        },
+        holder -> holder.value,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Returns a collector of the intersection of the intervals: the values they all contain.
+   *
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return a collector of the intersection, which is absent if there are no intervals
+   */
+  public static <T> Collector<Interval<T>, ?, Optional<Interval<T>>> toIntersection(
+      Comparator<T> comparator) {
+    // A null value stands for no intervals yet, the identity of intersection.
+    return Collector.of(
+        () -> new Holder<T>(null),
+        (holder, interval) -> holder.value = intersect(holder.value, interval),
+        (a, b) -> {
+          a.value = intersect(a.value, b.value);
+          return a;
+        },
+        holder -> Optional.ofNullable(holder.value),
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Returns a collector of the intervals into a {@link RangeSet} of the values they contain.
+   *
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return a collector of a new set
+   */
+  public static <T> Collector<Interval<T>, ?, RangeSet<T>> toRangeSet(Comparator<T> comparator) {
+    return Collector.of(
+        () -> new RangeSet<T>(comparator),
+        RangeSet::add,
+        RangeSet::union,
+        Collector.Characteristics.UNORDERED,
+        Collector.Characteristics.IDENTITY_FINISH);
+  }
+
+  /**
+   * Returns a collector of the total length of the values covered by numeric intervals, where
+   * values covered more than once count once. Bound types don't change the length.
+   *
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return a collector of the covered length, which is zero if there are no non-empty intervals
+   */
+  public static <T extends Number> Collector<Interval<T>, ?, Double> toCoverage(
+      Comparator<T> comparator) {
+    return Collector.of(
+        () -> new RangeSet<T>(comparator),
+        RangeSet::add,
+        RangeSet::union,
+        set -> {
+          double total = 0;
+          for (Interval<T> interval : set) {
+            total += interval.upperBound().doubleValue() - interval.lowerBound().doubleValue();
+          }
+          return total;
+        },
+        Collector.Characteristics.UNORDERED);
+  }
+
+  /**
+   * Intersects two intervals, either of which may be null for no intervals.
+   */
+  private static <T> Interval<T> intersect(Interval<T> a, Interval<T> b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    return a.intersection(b);
+  }
+
+  /**
+   * The running result of a reduction.
+   */
+  private static final class Holder<T> {
+
+    Interval<T> value;
+
+    Holder(Interval<T> value) {
+      this.value = value;
+    }
+  }
+}
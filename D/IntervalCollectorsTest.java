@@ -0,0 +1,75 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalCollectorsTest {
+
+  private static final Comparator<Integer> ORDER = Comparator.naturalOrder();
+
+  @Test
+  public void span_test() {
+    List<Interval<Integer>> intervals = Arrays.asList(Intervals.closedOpen(3, 5),
+                                                      Intervals.open(1, 2),
+                                                      Intervals.closedOpen(7, 7));
+    assertEquals(Intervals.open(1, 5), intervals.stream()
+        .collect(IntervalCollectors.toSpan(ORDER)));
+    assertTrue(new ArrayList<Interval<Integer>>().stream()
+                   .collect(IntervalCollectors.toSpan(ORDER)).isEmpty());
+  }
+
+  @Test
+  public void intersection_test() {
+    List<Interval<Integer>> intervals = Arrays.asList(Intervals.closed(0, 10),
+                                                      Intervals.openClosed(2, 8),
+                                                      Intervals.closedOpen(4, 9));
+    assertEquals(Optional.of(Intervals.closed(4, 8)), intervals.stream()
+        .collect(IntervalCollectors.toIntersection(ORDER)));
+    assertFalse(new ArrayList<Interval<Integer>>().stream()
+                    .collect(IntervalCollectors.toIntersection(ORDER)).isPresent());
+  }
+
+  @Test
+  public void coverage_test() {
+    List<Interval<Integer>> intervals = Arrays.asList(Intervals.closed(0, 4),
+                                                      Intervals.open(2, 6),
+                                                      Intervals.closed(10, 11),
+                                                      Intervals.singleton(20));
+    assertEquals(7.0, intervals.stream().collect(IntervalCollectors.toCoverage(ORDER)), 0.0);
+  }
+
+  @Test
+  public void parallel_test() {
+    Random random = new Random(8);
+    List<Interval<Integer>> intervals = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      int lower = random.nextInt(1000000);
+      intervals.add(Intervals.closedOpen(lower, lower + random.nextInt(20)));
+    }
+    Interval<Integer> span = Intervals.empty(ORDER);
+    RangeSet<Integer> set = new RangeSet<Integer>(ORDER);
+    for (Interval<Integer> interval : intervals) {
+      span = span.span(interval);
+      set.add(interval);
+    }
+    double coverage = 0;
+    for (Interval<Integer> interval : set) {
+      coverage += interval.upperBound() - interval.lowerBound();
+    }
+    assertEquals(span, intervals.parallelStream().collect(IntervalCollectors.toSpan(ORDER)));
+    assertEquals(set, intervals.parallelStream().collect(IntervalCollectors.toRangeSet(ORDER)));
+    assertEquals(coverage, intervals.parallelStream()
+        .collect(IntervalCollectors.toCoverage(ORDER)), 0.0);
+    assertEquals(Optional.of(Intervals.closed(5, 10)),
+                 Arrays.asList(Intervals.closed(0, 10), Intervals.closedOpen(5, 20))
+                     .parallelStream().collect(IntervalCollectors.toIntersection(ORDER)));
+  }
+}
@@ -0,0 +1,151 @@
+import java.util.Comparator;
+
+/**
+ * Comparisons between the bounds of non-empty intervals that take the bound types into account, as
+ * needed by the collections of intervals. A closed lower bound starts before an open one at the
+ * same value, and an open upper bound ends before a closed one at the same value.
+ */
+final class IntervalComparisons {
+
+  private IntervalComparisons() {
+  } // prevents instantiation.
+
+  /**
+   * compares the lower bounds of two non-empty intervals
+   *
+   * @param a          an interval
+   * @param b          an interval
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return negative, zero or positive as {@code a} starts before, with or after {@code b}
+   */
+  static <T> int compareLower(Interval<T> a, Interval<T> b, Comparator<? super T> comparator) {
+    int cmp = comparator.compare(a.lowerBound(), b.lowerBound());
+    if (cmp != 0) {
+      return cmp;
+    }
+    return Boolean.compare(a.lowerBoundType().isOpen(), b.lowerBoundType().isOpen());
+  }
+
+  /**
+   * compares the upper bounds of two non-empty intervals
+   *
+   * @param a          an interval
+   * @param b          an interval
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return negative, zero or positive as {@code a} ends before, with or after {@code b}
+   */
+  static <T> int compareUpper(Interval<T> a, Interval<T> b, Comparator<? super T> comparator) {
+    int cmp = comparator.compare(a.upperBound(), b.upperBound());
+    if (cmp != 0) {
+      return cmp;
+    }
+    return Boolean.compare(a.upperBoundType().isClosed(), b.upperBoundType().isClosed());
+  }
+
+  /**
+   * orders non-empty intervals by lower bound, then by upper bound
+   *
+   * @param a          an interval
+   * @param b          an interval
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return negative, zero or positive as {@code a} sorts before, with or after {@code b}
+   */
+  static <T> int compare(Interval<T> a, Interval<T> b, Comparator<? super T> comparator) {
+    int cmp = compareLower(a, b, comparator);
+    return cmp != 0 ? cmp : compareUpper(a, b, comparator);
+  }
+
+  /**
+   * determines whether a non-empty interval ends before a value
+   *
+   * @param interval   the interval
+   * @param value      the value
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return whether every value of the interval is less than {@code value}
+   */
+  static <T> boolean endsBefore(Interval<T> interval, T value, Comparator<? super T> comparator) {
+    int cmp = comparator.compare(interval.upperBound(), value);
+    return cmp < 0 || cmp == 0 && interval.upperBoundType().isOpen();
+  }
+
+  /**
+   * determines whether a non-empty interval starts after a value
+   *
+   * @param interval   the interval
+   * @param value      the value
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return whether every value of the interval is greater than {@code value}
+   */
+  static <T> boolean startsAfter(Interval<T> interval, T value, Comparator<? super T> comparator) {
+    int cmp = comparator.compare(interval.lowerBound(), value);
+    return cmp > 0 || cmp == 0 && interval.lowerBoundType().isOpen();
+  }
+
+  /**
+   * determines whether the non-empty interval {@code a} ends before {@code b} starts, so that no
+   * value lies in both and {@code a} comes first
+   *
+   * @param a          an interval
+   * @param b          an interval
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return whether {@code a} lies entirely before {@code b}
+   */
+  static <T> boolean before(Interval<T> a, Interval<T> b, Comparator<? super T> comparator) {
+    int cmp = comparator.compare(a.upperBound(), b.lowerBound());
+    return cmp < 0 || cmp == 0 && (a.upperBoundType().isOpen() || b.lowerBoundType().isOpen());
+  }
+
+  /**
+   * determines whether two non-empty intervals have a value in common
+   *
+   * @param a          an interval
+   * @param b          an interval
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return whether they overlap
+   */
+  static <T> boolean overlaps(Interval<T> a, Interval<T> b, Comparator<? super T> comparator) {
+    return !before(a, b, comparator) && !before(b, a, comparator);
+  }
+
+  /**
+   * determines whether the union of two non-empty intervals is an interval, that is, whether they
+   * overlap or touch at a value that one of them includes, as [1, 2) and [2, 3] do
+   *
+   * @param a          an interval
+   * @param b          an interval
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return whether they are connected
+   */
+  static <T> boolean connected(Interval<T> a, Interval<T> b, Comparator<? super T> comparator) {
+    return !separated(a, b, comparator) && !separated(b, a, comparator);
+  }
+
+  /**
+   * Whether {@code a} ends before {@code b} starts, either with a gap or at a value neither
+   * includes.
+   */
+  private static <T> boolean separated(Interval<T> a, Interval<T> b,
+                                       Comparator<? super T> comparator) {
+    int cmp = comparator.compare(a.upperBound(), b.lowerBound());
+    return cmp < 0 || cmp == 0 && a.upperBoundType().isOpen() && b.lowerBoundType().isOpen();
+  }
+
+  /**
+   * flips a bound type, as needed where a bound of one interval becomes the opposite bound of its
+   * complement
+   *
+   * @param type the bound type
+   * @return the other bound type
+   */
+  static BoundType flip(BoundType type) {
+    return type.isOpen() ? BoundType.Closed : BoundType.Open;
+  }
+}
@@ -0,0 +1,335 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only table of {@code long} intervals served straight from a memory-mapped file. Opening a
+ * file maps it and checks its header, without reading or parsing the intervals, so a table of any
+ * size is ready at once and the operating system pages it in as queries touch it.
+ *
+ * <p>Files are written from an {@link IntervalArray} in the following format, with big-endian
+ * numbers:
+ *
+ * <pre>
+ *   header     = int magic, short version, short flags, long count
+ *   bounds     = count * (long lower, long upper)
+ *   types      = ceil(count / 32) * long, two bits per interval: lower open, upper open
+ *   block maxes = ceil(count / 64) * long, present if the SORTED flag is set
+ * </pre>
+ *
+ * <p>If the intervals were sorted by lower bound when written, the SORTED flag is set and the file
+ * also holds, for each block of 64 intervals, the greatest upper bound up to the end of that
+ * block, as {@link IntervalArray} does. {@link #stab(long)} then works by binary search; otherwise
+ * it scans every interval.
+ *
+ * <p>A single mapping is limited to 2 GB, so a file holds at most about 130 million intervals.
+ * Instances are immutable and thread safe.
+ */
+public final class IntervalFile {
+
+  // The first four bytes of every interval file, "IVLF":
+  private static final int MAGIC = 0x49564C46;
+
+  // The version of the format written:
+  private static final short VERSION = 1;
+
+  // The flag set if the intervals are sorted by lower bound:
+  private static final short SORTED = 1;
+
+  // The size of the header and of the bounds of one interval, in bytes:
+  private static final int HEADER_BYTES = 16;
+  private static final int INTERVAL_BYTES = 16;
+
+  // The read-only mapping of the whole file, and the offsets of its sections:
+  private final ByteBuffer buffer;
+  private final int typesOffset;
+  private final int blocksOffset;
+
+  // The number of intervals, and whether they are sorted:
+  private final int size;
+  private final boolean sorted;
+
+  private IntervalFile(ByteBuffer buffer, int size, boolean sorted) {
+    this.buffer = buffer;
+    this.size = size;
+    this.sorted = sorted;
+    typesOffset = HEADER_BYTES + size * INTERVAL_BYTES;
+    blocksOffset = typesOffset + typeWords(size) * Long.BYTES;
+  }
+
+  /**
+   * Writes the intervals of an array to a file, replacing anything there.
+   *
+   * @param path      the file to write
+   * @param intervals the intervals to write
+   * @throws IOException              if the file can't be written
+   * @throws IllegalArgumentException if there are too many intervals for one file
+   */
+  public static void write(Path path, IntervalArray intervals) throws IOException {
+    int count = intervals.size();
+    if (fileBytes(count, true) > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("too many intervals for one file: " + count);
+    }
+    boolean sorted = intervals.isSorted();
+    try (OutputStream file = Files.newOutputStream(path);
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeShort(VERSION);
+      out.writeShort(sorted ? SORTED : 0);
+      out.writeLong(count);
+      for (int i = 0; i < count; i++) {
+        out.writeLong(intervals.lowerBound(i));
+        out.writeLong(intervals.upperBound(i));
+      }
+      long word = 0;
+      for (int i = 0; i < count; i++) {
+        long bits = (intervals.lowerBoundType(i).isOpen() ? 1L : 0L)
+                    | (intervals.upperBoundType(i).isOpen() ? 2L : 0L);
+        word |= bits << ((i & 31) << 1);
+        if ((i & 31) == 31 || i == count - 1) {
+          out.writeLong(word);
+          word = 0;
+        }
+      }
+      if (sorted) {
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+          max = Math.max(max, intervals.upperBound(i));
+          if ((i & 63) == 63 || i == count - 1) {
+            out.writeLong(max);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens a file written by {@link #write}, mapping it into memory.
+   *
+   * @param path the file to open
+   * @return the intervals in the file
+   * @throws IOException if the file can't be read, or isn't a whole interval file
+   */
+  public static IntervalFile open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+        throw new IOException("not an interval file: " + path);
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IOException("not an interval file: " + path);
+      }
+      if (buffer.getShort(4) != VERSION) {
+        throw new IOException("unknown interval file version: " + buffer.getShort(4));
+      }
+      boolean sorted = (buffer.getShort(6) & SORTED) != 0;
+      long count = buffer.getLong(8);
+      if (count < 0 || count > Integer.MAX_VALUE || fileBytes((int) count, sorted) != length) {
+        throw new IOException("bad interval count " + count + " for " + length + " bytes");
+      }
+      return new IntervalFile(buffer, (int) count, sorted);
+    }
+  }
+
+  /**
+   * Returns the number of intervals.
+   *
+   * @return the number of intervals
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Determines whether the intervals are sorted by lower bound.
+   *
+   * @return whether they are sorted
+   */
+  public boolean isSorted() {
+    return sorted;
+  }
+
+  /**
+   * Returns the lower bound of an interval.
+   *
+   * @param index the index of the interval
+   * @return its lower bound
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public long lowerBound(int index) {
+    checkIndex(index);
+    return lower(index);
+  }
+
+  /**
+   * Returns the upper bound of an interval.
+   *
+   * @param index the index of the interval
+   * @return its upper bound
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public long upperBound(int index) {
+    checkIndex(index);
+    return upper(index);
+  }
+
+  /**
+   * Returns the lower bound type of an interval.
+   *
+   * @param index the index of the interval
+   * @return its lower bound type
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public BoundType lowerBoundType(int index) {
+    checkIndex(index);
+    return (types(index) & 1) != 0 ? BoundType.Open : BoundType.Closed;
+  }
+
+  /**
+   * Returns the upper bound type of an interval.
+   *
+   * @param index the index of the interval
+   * @return its upper bound type
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public BoundType upperBoundType(int index) {
+    checkIndex(index);
+    return (types(index) & 2) != 0 ? BoundType.Open : BoundType.Closed;
+  }
+
+  /**
+   * Returns a copy of an interval.
+   *
+   * @param index the index of the interval
+   * @return a new interval equal to the one at {@code index}
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public Interval<Long> get(int index) {
+    return Intervals.interval(lowerBound(index), lowerBoundType(index), upperBound(index),
+                              upperBoundType(index));
+  }
+
+  /**
+   * Determines whether an interval contains a value.
+   *
+   * @param index the index of the interval
+   * @param value the value to check
+   * @return whether the value lies in the interval
+   * @throws IndexOutOfBoundsException if there is no interval at {@code index}
+   */
+  public boolean contains(int index, long value) {
+    checkIndex(index);
+    return containsAt(index, value);
+  }
+
+  /**
+   * Returns the indices of the intervals containing a point, in ascending order. This takes
+   * <em>O</em>(log n) time plus the blocks scanned if the file is sorted, and <em>O</em>(n) time if
+   * it isn't.
+   *
+   * @param point the point
+   * @return the indices of the intervals containing it
+   */
+  public int[] stab(long point) {
+    int start = 0;
+    int end = size;
+    if (sorted) {
+      // Intervals from index end on start after the point.
+      int lo = 0;
+      int hi = size;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        long lower = lower(mid);
+        if (lower < point || lower == point && (types(mid) & 1) == 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      end = lo;
+
+      // Blocks before the first one reaching the point hold only intervals ending before it.
+      lo = 0;
+      hi = (end + 63) >>> 6;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (buffer.getLong(blocksOffset + mid * Long.BYTES) < point) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      start = lo << 6;
+    }
+
+    int[] result = new int[8];
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      if (containsAt(i, point)) {
+        if (count == result.length) {
+          result = Arrays.copyOf(result, count * 2);
+        }
+        result[count++] = i;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private long lower(int index) {
+    return buffer.getLong(HEADER_BYTES + index * INTERVAL_BYTES);
+  }
+
+  private long upper(int index) {
+    return buffer.getLong(HEADER_BYTES + index * INTERVAL_BYTES + Long.BYTES);
+  }
+
+  /**
+   * Returns the two type bits of an interval: 1 if the lower bound is open, 2 if the upper is.
+   */
+  private int types(int index) {
+    long word = buffer.getLong(typesOffset + (index >>> 5) * Long.BYTES);
+    return (int) (word >>> ((index & 31) << 1)) & 3;
+  }
+
+  /**
+   * Whether interval {@code index}, which exists, contains a value.
+   */
+  private boolean containsAt(int index, long value) {
+    int types = types(index);
+    long lower = lower(index);
+    long upper = upper(index);
+    boolean aboveLower = (types & 1) != 0 ? value > lower : value >= lower;
+    boolean belowUpper = (types & 2) != 0 ? value < upper : value <= upper;
+    return aboveLower & belowUpper;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+    }
+  }
+
+  /**
+   * Returns the number of longs holding the type bits of {@code count} intervals.
+   */
+  private static int typeWords(int count) {
+    return (count + 31) >>> 5;
+  }
+
+  /**
+   * Returns the length of a file of {@code count} intervals.
+   */
+  private static long fileBytes(int count, boolean sorted) {
+    long blocks = sorted ? (count + 63L) >>> 6 : 0;
+    return HEADER_BYTES + (long) count * INTERVAL_BYTES
+           + ((long) typeWords(count) + blocks) * Long.BYTES;
+  }
+}
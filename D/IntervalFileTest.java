@@ -0,0 +1,120 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalFileTest {
+
+  @Test
+  public void round_trip_test() throws IOException {
+    IntervalArray array = new IntervalArray();
+    array.add(1, BoundType.Closed, 4, BoundType.Open);
+    array.add(3, BoundType.Open, 9, BoundType.Closed);
+    array.add(Long.MIN_VALUE, BoundType.Closed, Long.MAX_VALUE, BoundType.Closed);
+    IntervalFile file = IntervalFile.open(written(array));
+    assertEquals(3, file.size());
+    assertFalse(file.isSorted());
+    assertEquals(3, file.lowerBound(1));
+    assertEquals(9, file.upperBound(1));
+    assertEquals(BoundType.Open, file.lowerBoundType(1));
+    assertEquals(BoundType.Open, file.upperBoundType(0));
+    assertEquals(Intervals.openClosed(3L, 9L), file.get(1));
+    assertEquals(Long.MIN_VALUE, file.lowerBound(2));
+    assertFalse(file.contains(0, 4));
+    assertTrue(file.contains(1, 9));
+    assertArrayEquals(new int[]{0, 2}, file.stab(3));
+  }
+
+  @Test
+  public void empty_test() throws IOException {
+    IntervalArray array = new IntervalArray();
+    array.sort();
+    IntervalFile file = IntervalFile.open(written(array));
+    assertEquals(0, file.size());
+    assertTrue(file.isSorted());
+    assertArrayEquals(new int[0], file.stab(0));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void index_test() throws IOException {
+    IntervalArray array = new IntervalArray();
+    array.add(1, BoundType.Closed, 2, BoundType.Closed);
+    IntervalFile.open(written(array)).lowerBound(1);
+  }
+
+  @Test(expected = IOException.class)
+  public void not_an_interval_file_test() throws IOException {
+    Path path = Files.createTempFile("intervals", ".bin");
+    path.toFile().deleteOnExit();
+    Files.write(path, "[1, 2]\n[3, 4]\n".getBytes("UTF-8"));
+    IntervalFile.open(path);
+  }
+
+  @Test(expected = IOException.class)
+  public void truncated_test() throws IOException {
+    IntervalArray array = new IntervalArray();
+    array.add(1, BoundType.Closed, 2, BoundType.Closed);
+    Path path = written(array);
+    byte[] bytes = Files.readAllBytes(path);
+    ByteBuffer.wrap(bytes).putLong(8, 2);
+    Files.write(path, bytes);
+    IntervalFile.open(path);
+  }
+
+  @Test
+  public void random_test() throws IOException {
+    Random random = new Random(5);
+    for (boolean sorted : new boolean[]{false, true}) {
+      IntervalArray array = new IntervalArray();
+      for (int i = 0; i < 3000; i++) {
+        int lower = random.nextInt(1000);
+        int length = random.nextInt(10) == 0 ? random.nextInt(500) : random.nextInt(5);
+        BoundType lowerType = length == 0 || random.nextBoolean() ? BoundType.Closed
+                                                                  : BoundType.Open;
+        BoundType upperType = length == 0 || random.nextBoolean() ? BoundType.Closed
+                                                                  : BoundType.Open;
+        array.add(lower, lowerType, lower + length, upperType);
+      }
+      if (sorted) {
+        array.sort();
+      }
+      IntervalFile file = IntervalFile.open(written(array));
+      assertEquals(array.size(), file.size());
+      assertEquals(sorted, file.isSorted());
+      for (int i = 0; i < array.size(); i++) {
+        assertEquals(array.get(i), file.get(i));
+      }
+      for (int point = -2; point < 1600; point++) {
+        int[] expected = sorted ? array.stab(point) : linearStab(array, point);
+        assertArrayEquals(expected, file.stab(point));
+      }
+    }
+  }
+
+  private static int[] linearStab(IntervalArray array, long point) {
+    int[] result = new int[array.size()];
+    int count = 0;
+    for (int i = 0; i < array.size(); i++) {
+      if (array.contains(i, point)) {
+        result[count++] = i;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private static Path written(IntervalArray array) throws IOException {
+    Path path = Files.createTempFile("intervals", ".bin");
+    path.toFile().deleteOnExit();
+    IntervalFile.write(path, array);
+    return path;
+  }
+}
@@ -0,0 +1,388 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An index over a collection of intervals that finds those containing a point (a "stabbing"
+ * query), or those overlapping another interval, without looking at the rest. It is an AVL tree of
+ * the intervals ordered by lower bound, in which each node also records the greatest upper bound
+ * in its subtree, so that whole subtrees ending before the query can be skipped. Queries take
+ * <em>O</em>(log n + k) time for k results in the usual case, and insertion and removal take
+ * <em>O</em>(log n).
+ *
+ * <p>The index orders values by a single comparator, which must agree with that of every interval
+ * added, as for the binary operations on {@link Interval}. Equal intervals may be added more than
+ * once, and are reported once per copy. Empty intervals contain nothing and are never stored.
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @param <T> the type of the interval endpoints
+ */
+public final class IntervalIndex<T> {
+
+  // The order of the values, or null until the first interval is added:
+  private Comparator<T> comparator;
+
+  // The root of the tree, or null if it is empty:
+  private Node<T> root = null;
+
+  // The number of intervals in the index, counting copies:
+  private int size = 0;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - an in-order walk of the tree visits the distinct intervals in the order of
+   *    IntervalComparisons.compare, and every node holds a non-empty interval with copies >= 1
+   *  - each node's height is 1 + the greater of its children's heights (0 for null), and these
+   *    differ by at most 1
+   *  - each node's maxUpper is the interval with the greatest upper bound in its subtree
+   *  - size is the sum of copies over all nodes
+   *  - comparator is null only if no interval was ever added and none was given
+   */
+
+  /**
+   * Creates an empty index that orders values by the comparator of the first interval added.
+   */
+  public IntervalIndex() {
+  }
+
+  /**
+   * Creates an empty index that orders values by {@code comparator}.
+   *
+   * @param comparator the order of the interval endpoints
+   */
+  public IntervalIndex(Comparator<T> comparator) {
+    this.comparator = comparator;
+  }
+
+  /**
+   * Builds an index of the given intervals in <em>O</em>(n log n) time, or <em>O</em>(n) if they
+   * are already sorted by lower bound. This is faster than adding them one by one, and gives a
+   * perfectly balanced tree.
+   *
+   * @param intervals  the intervals to index
+   * @param comparator the order of the interval endpoints
+   * @param <T>        the type of the interval endpoints
+   * @return a new index
+   */
+  public static <T> IntervalIndex<T> build(Collection<? extends Interval<T>> intervals,
+                                           Comparator<T> comparator) {
+    List<Interval<T>> sorted = new ArrayList<>(intervals.size());
+    for (Interval<T> interval : intervals) {
+      if (!interval.isEmpty()) {
+        sorted.add(interval);
+      }
+    }
+    sorted.sort((a, b) -> IntervalComparisons.compare(a, b, comparator));
+
+    // Collapse runs of equal intervals into one node each.
+    List<Node<T>> nodes = new ArrayList<>(sorted.size());
+    for (Interval<T> interval : sorted) {
+      Node<T> last = nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+      if (last != null && IntervalComparisons.compare(last.interval, interval, comparator) == 0) {
+        ++last.copies;
+      } else {
+        nodes.add(new Node<>(interval));
+      }
+    }
+
+    IntervalIndex<T> index = new IntervalIndex<>(comparator);
+    index.root = index.buildBalanced(nodes, 0, nodes.size());
+    index.size = sorted.size();
+    return index;
+  }
+
+  /**
+   * Links {@code nodes[from, to)} into a balanced tree, and returns its root.
+   */
+  private Node<T> buildBalanced(List<Node<T>> nodes, int from, int to) {
+    if (from == to) {
+      return null;
+    }
+    int mid = (from + to) >>> 1;
+    Node<T> node = nodes.get(mid);
+    node.left = buildBalanced(nodes, from, mid);
+    node.right = buildBalanced(nodes, mid + 1, to);
+    update(node);
+    return node;
+  }
+
+  /**
+   * Returns the number of intervals in the index, counting each copy.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Determines whether the index has no intervals.
+   *
+   * @return whether it is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Adds an interval to the index.
+   *
+   * @param interval the interval to add
+   * @return whether it was added, which is false only if it is empty
+   */
+  public boolean add(Interval<T> interval) {
+    if (interval.isEmpty()) {
+      return false;
+    }
+    if (comparator == null) {
+      comparator = interval.getComparator();
+    }
+    root = insert(root, interval);
+    ++size;
+    return true;
+  }
+
+  /**
+   * Removes one copy of an interval from the index.
+   *
+   * @param interval the interval to remove
+   * @return whether it was in the index
+   */
+  public boolean remove(Interval<T> interval) {
+    if (interval.isEmpty() || root == null) {
+      return false;
+    }
+    int before = size;
+    root = delete(root, interval);
+    return size < before;
+  }
+
+  /**
+   * Removes every interval from the index.
+   */
+  public void clear() {
+    root = null;
+    size = 0;
+  }
+
+  /**
+   * Finds every interval that contains a point.
+   *
+   * @param point the point
+   * @return the intervals containing it, ordered by lower bound
+   */
+  public List<Interval<T>> stab(T point) {
+    List<Interval<T>> result = new ArrayList<>();
+    IntervalTreeQueries.stab(root, point, comparator, result);
+    return result;
+  }
+
+  /**
+   * Finds every interval that overlaps another, that is, has at least one value in common with
+   * it.
+   *
+   * @param query the interval to overlap
+   * @return the intervals overlapping it, ordered by lower bound
+   */
+  public List<Interval<T>> overlapping(Interval<T> query) {
+    List<Interval<T>> result = new ArrayList<>();
+    if (!query.isEmpty()) {
+      IntervalTreeQueries.overlapping(root, query, comparator, result);
+    }
+    return result;
+  }
+
+  /**
+   * Counts the intervals that contain a point, without collecting them.
+   *
+   * @param point the point
+   * @return the number of intervals containing it
+   */
+  public int count(T point) {
+    return IntervalTreeQueries.stab(root, point, comparator, null);
+  }
+
+  /**
+   * Counts the intervals that overlap another, without collecting them.
+   *
+   * @param query the interval to overlap
+   * @return the number of intervals overlapping it
+   */
+  public int count(Interval<T> query) {
+    return query.isEmpty() ? 0 : IntervalTreeQueries.overlapping(root, query, comparator, null);
+  }
+
+  /**
+   * Inserts an interval into a subtree, and returns the new root of the subtree.
+   */
+  private Node<T> insert(Node<T> node, Interval<T> interval) {
+    if (node == null) {
+      return new Node<>(interval);
+    }
+    int cmp = IntervalComparisons.compare(interval, node.interval, comparator);
+    if (cmp == 0) {
+      ++node.copies;
+      return node;
+    }
+    if (cmp < 0) {
+      node.left = insert(node.left, interval);
+    } else {
+      node.right = insert(node.right, interval);
+    }
+    return rebalance(node);
+  }
+
+  /**
+   * Removes one copy of an interval from a subtree, decrementing size if it was found, and returns
+   * the new root of the subtree.
+   */
+  private Node<T> delete(Node<T> node, Interval<T> interval) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = IntervalComparisons.compare(interval, node.interval, comparator);
+    if (cmp < 0) {
+      node.left = delete(node.left, interval);
+    } else if (cmp > 0) {
+      node.right = delete(node.right, interval);
+    } else {
+      --size;
+      if (--node.copies > 0) {
+        return node;
+      }
+      if (node.left == null) {
+        return node.right;
+      }
+      if (node.right == null) {
+        return node.left;
+      }
+      // Replace the node with its successor, the leftmost node of its right subtree.
+      Node<T> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = removeLeftmost(node.right);
+      successor.left = node.left;
+      node = successor;
+    }
+    return rebalance(node);
+  }
+
+  /**
+   * Unlinks the leftmost node of a subtree, and returns the new root of the subtree.
+   */
+  private Node<T> removeLeftmost(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeLeftmost(node.left);
+    return rebalance(node);
+  }
+
+  /**
+   * Restores the balance of a node whose subtrees are balanced and differ in height by at most 2,
+   * and returns the new root in its place.
+   */
+  private Node<T> rebalance(Node<T> node) {
+    update(node);
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private Node<T> rotateLeft(Node<T> node) {
+    Node<T> pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+
+  private Node<T> rotateRight(Node<T> node) {
+    Node<T> pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    update(node);
+    update(pivot);
+    return pivot;
+  }
+
+  /**
+   * Recomputes a node's height and maxUpper from its children.
+   */
+  private void update(Node<T> node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+    Interval<T> max = node.interval;
+    if (node.left != null
+        && IntervalComparisons.compareUpper(node.left.maxUpper, max, comparator) > 0) {
+      max = node.left.maxUpper;
+    }
+    if (node.right != null
+        && IntervalComparisons.compareUpper(node.right.maxUpper, max, comparator) > 0) {
+      max = node.right.maxUpper;
+    }
+    node.maxUpper = max;
+  }
+
+  private static int height(Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * A node of the tree, holding one distinct interval.
+   */
+  private static final class Node<T> implements IntervalTreeQueries.Node<T> {
+
+    final Interval<T> interval;
+    int copies = 1;
+    Interval<T> maxUpper;
+    int height = 1;
+    Node<T> left;
+    Node<T> right;
+
+    Node(Interval<T> interval) {
+      this.interval = interval;
+      this.maxUpper = interval;
+    }
+
+    @Override
+    public Interval<T> interval() {
+      return interval;
+    }
+
+    @Override
+    public int copies() {
+      return copies;
+    }
+
+    @Override
+    public Interval<T> maxUpper() {
+      return maxUpper;
+    }
+
+    @Override
+    public Node<T> left() {
+      return left;
+    }
+
+    @Override
+    public Node<T> right() {
+      return right;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalIndexTest {
+
+  @Test
+  public void stab_test() {
+    IntervalIndex<Integer> index = new IntervalIndex<>();
+    index.add(Intervals.closed(1, 5));
+    index.add(Intervals.open(3, 8));
+    index.add(Intervals.closedOpen(5, 6));
+    index.add(Intervals.singleton(10));
+
+    assertEquals(Arrays.asList(Intervals.closed(1, 5)), index.stab(3));
+    assertEquals(Arrays.asList(Intervals.closed(1, 5), Intervals.open(3, 8),
+                               Intervals.closedOpen(5, 6)), index.stab(5));
+    assertEquals(Arrays.asList(Intervals.open(3, 8)), index.stab(6));
+    assertEquals(Arrays.asList(Intervals.singleton(10)), index.stab(10));
+    assertTrue(index.stab(9).isEmpty());
+    assertEquals(3, index.count(5));
+  }
+
+  @Test
+  public void overlapping_test() {
+    IntervalIndex<Integer> index = new IntervalIndex<>();
+    index.add(Intervals.closedOpen(1, 3));
+    index.add(Intervals.closed(3, 4));
+    index.add(Intervals.open(4, 9));
+
+    assertEquals(Arrays.asList(Intervals.closed(3, 4)), index.overlapping(Intervals.closed(3, 4)));
+    assertEquals(2, index.count(Intervals.closed(2, 3)));
+    assertEquals(0, index.count(Intervals.open(9, 12)));
+    assertEquals(0, index.count(Intervals.<Integer>empty()));
+  }
+
+  @Test
+  public void empty_and_duplicates_test() {
+    IntervalIndex<Integer> index = new IntervalIndex<>();
+    assertFalse(index.add(Intervals.closedOpen(2, 2)));
+    assertTrue(index.add(Intervals.closed(1, 2)));
+    assertTrue(index.add(Intervals.closed(1, 2)));
+    assertEquals(2, index.size());
+    assertEquals(2, index.count(1));
+    assertTrue(index.remove(Intervals.closed(1, 2)));
+    assertEquals(1, index.count(1));
+    assertTrue(index.remove(Intervals.closed(1, 2)));
+    assertFalse(index.remove(Intervals.closed(1, 2)));
+    assertTrue(index.isEmpty());
+  }
+
+  @Test
+  public void comparator_test() {
+    Comparator<Integer> reverse = Comparator.reverseOrder();
+    IntervalIndex<Integer> index = new IntervalIndex<>(reverse);
+    index.add(Intervals.closed(8, 5, reverse));
+    index.add(Intervals.open(6, 2, reverse));
+    assertEquals(2, index.count(5));
+    assertEquals(1, index.count(7));
+    assertEquals(0, index.count(2));
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(7);
+    List<Interval<Double>> all = new ArrayList<>();
+    IntervalIndex<Double> incremental = new IntervalIndex<>();
+    for (int i = 0; i < 2000; i++) {
+      Interval<Double> interval = randomInterval(random);
+      all.add(interval);
+      incremental.add(interval);
+    }
+    List<Interval<Double>> shuffled = new ArrayList<>(all);
+    Collections.shuffle(shuffled, random);
+    IntervalIndex<Double> bulk = IntervalIndex.build(shuffled, Comparator.naturalOrder());
+
+    // Remove every third interval from both.
+    List<Interval<Double>> remaining = new ArrayList<>();
+    for (int i = 0; i < all.size(); i++) {
+      if (i % 3 == 0) {
+        assertEquals(!all.get(i).isEmpty(), incremental.remove(all.get(i)));
+        bulk.remove(all.get(i));
+      } else if (!all.get(i).isEmpty()) {
+        remaining.add(all.get(i));
+      }
+    }
+    assertEquals(remaining.size(), incremental.size());
+    assertEquals(remaining.size(), bulk.size());
+
+    // Bounds are whole numbers, so probing every half covers the open bounds too.
+    for (double point = -5; point < 1005; point += 0.5) {
+      int expected = 0;
+      for (Interval<Double> interval : remaining) {
+        if (interval.contains(point)) {
+          expected++;
+        }
+      }
+      assertEquals(expected, incremental.count(point));
+      assertEquals(expected, bulk.stab(point).size());
+    }
+    for (int i = 0; i < 200; i++) {
+      Interval<Double> query = randomInterval(random);
+      int expected = 0;
+      for (Interval<Double> interval : remaining) {
+        if (!query.isEmpty() && overlapsByBruteForce(interval, query)) {
+          expected++;
+        }
+      }
+      assertEquals(expected, incremental.overlapping(query).size());
+      assertEquals(expected, bulk.count(query));
+    }
+  }
+
+  private static Interval<Double> randomInterval(Random random) {
+    double lower = random.nextInt(1000);
+    double upper = lower + random.nextInt(30);
+    BoundType[] types = BoundType.values();
+    BoundType lowerType = types[random.nextInt(2)];
+    // (x, x) isn't one of the empty forms Interval defines, so leave it out.
+    BoundType upperType = lower == upper && lowerType.isOpen() ? BoundType.Closed
+                                                               : types[random.nextInt(2)];
+    return Intervals.interval(lower, lowerType, upper, upperType);
+  }
+
+  private static boolean overlapsByBruteForce(Interval<Double> a, Interval<Double> b) {
+    for (double point = a.lowerBound(); point <= a.upperBound(); point += 0.5) {
+      if (a.contains(point) && b.contains(point)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
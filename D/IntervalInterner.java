@@ -0,0 +1,90 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded pool of canonical intervals. Interning an interval returns the pooled interval equal to
+ * it, or pools it if there is none, so that code building the same intervals over and over keeps
+ * one instance of each and can compare them with {@code ==}. Empty intervals aren't pooled, but are
+ * mapped to the shared empty interval of their comparator.
+ *
+ * <p>The pool holds at most {@code maxSize} intervals, and evicts the least recently interned one
+ * to make room. Eviction only costs sharing: an interval interned again after its twin was evicted
+ * becomes the new canonical instance.
+ *
+ * <p>Intervals are matched with {@link Interval#equals} and {@link Interval#hashCode}, so the
+ * comparator must be consistent with the {@code equals} of the endpoints. An interval equal to a
+ * pooled one but ordered by a different comparator is returned as is, without being pooled.
+ *
+ * <p>Instances are thread safe.
+ *
+ * @param <T> the type of the interval endpoints
+ */
+public final class IntervalInterner<T> {
+
+  // The pooled intervals, each mapped to itself, in order of last use:
+  private final LinkedHashMap<Interval<T>, Interval<T>> pool;
+
+  // The most intervals that are pooled at once:
+  private final int maxSize;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - every key of pool is non-empty and mapped to itself
+   *  - pool.size() <= maxSize
+   */
+
+  /**
+   * Creates an empty pool.
+   *
+   * @param maxSize the most intervals to keep (positive)
+   * @throws IllegalArgumentException if {@code maxSize} isn't positive
+   */
+  public IntervalInterner(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    pool = new LinkedHashMap<Interval<T>, Interval<T>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Interval<T>, Interval<T>> eldest) {
+        return size() > IntervalInterner.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the canonical instance of an interval.
+   *
+   * @param interval the interval (non-null)
+   * @return the pooled interval equal to {@code interval}, or {@code interval} itself
+   */
+  public synchronized Interval<T> intern(Interval<T> interval) {
+    if (interval.isEmpty()) {
+      return interval instanceof AbstractInterval
+             ? ((AbstractInterval<T>) interval).emptyInterval() : interval;
+    }
+    Interval<T> canonical = pool.get(interval);
+    if (canonical == null) {
+      pool.put(interval, interval);
+      return interval;
+    }
+    return canonical.getComparator() == interval.getComparator() ? canonical : interval;
+  }
+
+  /**
+   * Returns the number of intervals in the pool.
+   *
+   * @return the number of pooled intervals
+   */
+  public synchronized int size() {
+    return pool.size();
+  }
+
+  /**
+   * Empties the pool.
+   */
+  public synchronized void clear() {
+    pool.clear();
+  }
+}
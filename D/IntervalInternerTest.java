@@ -0,0 +1,63 @@
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class IntervalInternerTest {
+
+  @Test
+  public void intern_test() {
+    IntervalInterner<Integer> interner = new IntervalInterner<>(10);
+    Interval<Integer> first = Intervals.closed(1, 2);
+    assertSame(first, interner.intern(first));
+    assertSame(first, interner.intern(Intervals.closed(1, 2)));
+    Interval<Integer> open = Intervals.open(1, 2);
+    assertSame(open, interner.intern(open));
+    assertSame(open, interner.intern(Intervals.open(1, 2)));
+    assertEquals(2, interner.size());
+  }
+
+  @Test
+  public void empty_test() {
+    IntervalInterner<Integer> interner = new IntervalInterner<>(10);
+    Comparator<Integer> comparator = Comparator.naturalOrder();
+    assertSame(Intervals.<Integer>empty(), interner.intern(Intervals.closedOpen(3, 3)));
+    assertSame(Intervals.empty(comparator),
+               interner.intern(Intervals.openClosed(3, 3, comparator)));
+    assertSame(Intervals.empty(comparator), Intervals.closed(1, 2, comparator)
+        .intersection(Intervals.closed(4, 5, comparator)));
+    assertSame(Intervals.<Integer>empty(),
+               Intervals.closed(1, 2).intersection(Intervals.closed(4, 5)));
+    assertEquals(0, interner.size());
+  }
+
+  @Test
+  public void eviction_test() {
+    IntervalInterner<Integer> interner = new IntervalInterner<>(2);
+    Interval<Integer> a = interner.intern(Intervals.closed(1, 2));
+    Interval<Integer> b = interner.intern(Intervals.closed(3, 4));
+    assertSame(a, interner.intern(Intervals.closed(1, 2)));
+    // [3, 4] is now the least recently used, and makes way for [5, 6].
+    interner.intern(Intervals.closed(5, 6));
+    assertEquals(2, interner.size());
+    assertSame(a, interner.intern(Intervals.closed(1, 2)));
+    assertNotSame(b, interner.intern(Intervals.closed(3, 4)));
+  }
+
+  @Test
+  public void comparator_test() {
+    IntervalInterner<Integer> interner = new IntervalInterner<>(10);
+    Interval<Integer> natural = interner.intern(Intervals.closed(1, 2));
+    Interval<Integer> other = Intervals.closed(1, 2, Comparator.<Integer>naturalOrder());
+    assertSame(other, interner.intern(other));
+    assertSame(natural, interner.intern(Intervals.closed(1, 2)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void size_test() {
+    new IntervalInterner<Integer>(0);
+  }
+}
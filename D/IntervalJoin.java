@@ -0,0 +1,245 @@
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Joins two collections of intervals on overlap: finds every pair of an interval from the left and
+ * an interval from the right that have a value in common, such as the bookings that overlap each
+ * maintenance window.
+ *
+ * <p>Both sides are sorted by lower bound and swept together in that order. Each side keeps its
+ * active intervals, those that started but haven't yet ended, in a heap ordered by upper bound.
+ * When an interval is reached, the intervals of the other side that ended before it starts are
+ * dropped, and every one left overlaps it. A join of {@code n} and {@code m} intervals with {@code
+ * k} overlapping pairs therefore takes <em>O</em>((n + m) log(n + m) + k) time, where comparing
+ * every pair would take <em>O</em>(nm).
+ *
+ * <p>Empty intervals overlap nothing and are ignored. Every interval must be ordered by the
+ * comparator passed in.
+ */
+public final class IntervalJoin {
+
+  private IntervalJoin() {
+  } // prevents instantiation.
+
+  /**
+   * Passes every overlapping pair to a consumer, ordered by the lower bound of the later starting
+   * interval of each pair.
+   *
+   * @param left       the left intervals
+   * @param right      the right intervals
+   * @param comparator the order of the values
+   * @param consumer   receives each overlapping pair, the left interval first
+   * @param <T>        type
+   */
+  public static <T> void join(Collection<? extends Interval<T>> left,
+                              Collection<? extends Interval<T>> right,
+                              Comparator<? super T> comparator,
+                              BiConsumer<? super Interval<T>, ? super Interval<T>> consumer) {
+    List<Interval<T>> sortedLeft = Arrays.asList(sorted(left, comparator, false));
+    List<Interval<T>> sortedRight = Arrays.asList(sorted(right, comparator, false));
+    sweep(sortedLeft, sortedRight, comparator, null, consumer);
+  }
+
+  /**
+   * Returns every overlapping pair.
+   *
+   * @param left       the left intervals
+   * @param right      the right intervals
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return the pairs, each with the left interval as its key and the right one as its value
+   */
+  public static <T> List<Map.Entry<Interval<T>, Interval<T>>> pairs(
+      Collection<? extends Interval<T>> left, Collection<? extends Interval<T>> right,
+      Comparator<? super T> comparator) {
+    List<Map.Entry<Interval<T>, Interval<T>>> result = new ArrayList<>();
+    join(left, right, comparator, (a, b) -> result.add(new SimpleImmutableEntry<>(a, b)));
+    return result;
+  }
+
+  /**
+   * Returns the intersection of every overlapping pair.
+   *
+   * @param left       the left intervals
+   * @param right      the right intervals
+   * @param comparator the order of the values
+   * @param <T>        type
+   * @return the non-empty intersections, one per pair
+   */
+  public static <T> List<Interval<T>> intersections(Collection<? extends Interval<T>> left,
+                                                    Collection<? extends Interval<T>> right,
+                                                    Comparator<? super T> comparator) {
+    List<Interval<T>> result = new ArrayList<>();
+    join(left, right, comparator, (a, b) -> result.add(a.intersection(b)));
+    return result;
+  }
+
+  /**
+   * Returns every overlapping pair like {@link #pairs}, but sorts both sides in parallel and splits
+   * the sweep by key range across the common fork-join pool.
+   *
+   * <p>The ranges are cut at evenly spaced lower bounds of the larger side. Each range sweeps the
+   * intervals starting in it, after those that started earlier and reach into it, and keeps the
+   * pairs whose later starting interval starts in it, so every pair is found exactly once. Finding
+   * the intervals that reach into a range scans those before it, which adds <em>O</em>(n) work per
+   * range, but not time, as the ranges run in parallel.
+   *
+   * @param left       the left intervals
+   * @param right      the right intervals
+   * @param comparator the order of the values
+   * @param ranges     the number of key ranges to split the sweep into (positive)
+   * @param <T>        type
+   * @return the same pairs as {@link #pairs} returns, though not necessarily in the same order
+   * @throws IllegalArgumentException if {@code ranges} isn't positive
+   */
+  public static <T> List<Map.Entry<Interval<T>, Interval<T>>> parallelPairs(
+      Collection<? extends Interval<T>> left, Collection<? extends Interval<T>> right,
+      Comparator<? super T> comparator, int ranges) {
+    if (ranges <= 0) {
+      throw new IllegalArgumentException("ranges must be positive: " + ranges);
+    }
+    Interval<T>[] sortedLeft = sorted(left, comparator, true);
+    Interval<T>[] sortedRight = sorted(right, comparator, true);
+    Interval<T>[] larger = sortedLeft.length >= sortedRight.length ? sortedLeft : sortedRight;
+    int count = Math.max(1, Math.min(ranges, larger.length));
+
+    // Range r covers the intervals starting at or after cuts[r] and before cuts[r + 1].
+    List<Interval<T>> cuts = new ArrayList<>(count + 1);
+    cuts.add(null);
+    for (int r = 1; r < count; r++) {
+      cuts.add(larger[(int) ((long) r * larger.length / count)]);
+    }
+    cuts.add(null);
+
+    List<List<Map.Entry<Interval<T>, Interval<T>>>> parts =
+        IntStream.range(0, count).parallel().mapToObj(r -> {
+          Interval<T> from = cuts.get(r);
+          Interval<T> to = cuts.get(r + 1);
+          List<Map.Entry<Interval<T>, Interval<T>>> part = new ArrayList<>();
+          sweep(slice(sortedLeft, from, to, comparator), slice(sortedRight, from, to, comparator),
+                comparator, from, (a, b) -> part.add(new SimpleImmutableEntry<>(a, b)));
+          return part;
+        }).collect(Collectors.toList());
+
+    List<Map.Entry<Interval<T>, Interval<T>>> result = new ArrayList<>();
+    for (List<Map.Entry<Interval<T>, Interval<T>>> part : parts) {
+      result.addAll(part);
+    }
+    return result;
+  }
+
+  /**
+   * Sweeps two lists sorted by lower bound, passing the overlapping pairs to a consumer. If {@code
+   * from} isn't null, a pair is passed on only if its later starting interval doesn't start before
+   * {@code from} does.
+   */
+  private static <T> void sweep(List<Interval<T>> left, List<Interval<T>> right,
+                                Comparator<? super T> comparator, Interval<T> from,
+                                BiConsumer<? super Interval<T>, ? super Interval<T>> consumer) {
+    Comparator<Interval<T>> byUpper = (a, b) -> IntervalComparisons.compareUpper(a, b, comparator);
+    PriorityQueue<Interval<T>> activeLeft = new PriorityQueue<>(byUpper);
+    PriorityQueue<Interval<T>> activeRight = new PriorityQueue<>(byUpper);
+    int i = 0;
+    int j = 0;
+    while (i < left.size() && j < right.size()
+           || i < left.size() && !activeRight.isEmpty()
+           || j < right.size() && !activeLeft.isEmpty()) {
+      // On a tie the left interval goes first, so the right one finds it active.
+      if (j == right.size()
+          || i < left.size()
+             && IntervalComparisons.compareLower(left.get(i), right.get(j), comparator) <= 0) {
+        Interval<T> next = left.get(i++);
+        expire(activeRight, next, comparator);
+        if (from == null || IntervalComparisons.compareLower(next, from, comparator) >= 0) {
+          for (Interval<T> other : activeRight) {
+            consumer.accept(next, other);
+          }
+        }
+        activeLeft.add(next);
+      } else {
+        Interval<T> next = right.get(j++);
+        expire(activeLeft, next, comparator);
+        if (from == null || IntervalComparisons.compareLower(next, from, comparator) >= 0) {
+          for (Interval<T> other : activeLeft) {
+            consumer.accept(other, next);
+          }
+        }
+        activeRight.add(next);
+      }
+    }
+  }
+
+  /**
+   * Drops the active intervals that end before {@code next} starts. Those left all overlap it,
+   * since they started no later than it did.
+   */
+  private static <T> void expire(PriorityQueue<Interval<T>> active, Interval<T> next,
+                                 Comparator<? super T> comparator) {
+    while (!active.isEmpty() && IntervalComparisons.before(active.peek(), next, comparator)) {
+      active.poll();
+    }
+  }
+
+  /**
+   * Returns the non-empty intervals of a collection, sorted by lower bound.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Interval<T>[] sorted(Collection<? extends Interval<T>> intervals,
+                                          Comparator<? super T> comparator, boolean parallel) {
+    Interval<T>[] result = intervals.stream().filter(interval -> !interval.isEmpty())
+        .toArray(Interval[]::new);
+    Comparator<Interval<T>> byLower = (a, b) -> IntervalComparisons.compareLower(a, b, comparator);
+    if (parallel) {
+      Arrays.parallelSort(result, byLower);
+    } else {
+      Arrays.sort(result, byLower);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the intervals that a range from {@code from} to {@code to} sweeps: those that start
+   * before it and reach into it, then those that start in it, in sorted order. A null {@code from}
+   * or {@code to} leaves that end of the range open.
+   */
+  private static <T> List<Interval<T>> slice(Interval<T>[] sorted, Interval<T> from,
+                                             Interval<T> to, Comparator<? super T> comparator) {
+    int start = from == null ? 0 : firstAtOrAfter(sorted, from, comparator);
+    int end = to == null ? sorted.length : firstAtOrAfter(sorted, to, comparator);
+    List<Interval<T>> result = new ArrayList<>();
+    for (int i = 0; i < start; i++) {
+      if (!IntervalComparisons.before(sorted[i], from, comparator)) {
+        result.add(sorted[i]);
+      }
+    }
+    result.addAll(Arrays.asList(sorted).subList(start, end));
+    return result;
+  }
+
+  /**
+   * Returns the index of the first interval that doesn't start before {@code bound} does.
+   */
+  private static <T> int firstAtOrAfter(Interval<T>[] sorted, Interval<T> bound,
+                                        Comparator<? super T> comparator) {
+    int lo = 0;
+    int hi = sorted.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (IntervalComparisons.compareLower(sorted[mid], bound, comparator) < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+}
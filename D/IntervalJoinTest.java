@@ -0,0 +1,103 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class IntervalJoinTest {
+
+  private static final Comparator<Integer> ORDER = Comparator.naturalOrder();
+
+  @Test
+  public void pairs_test() {
+    List<Interval<Integer>> bookings = Arrays.asList(Intervals.closedOpen(1, 3),
+                                                     Intervals.closed(5, 8),
+                                                     Intervals.closedOpen(9, 9));
+    List<Interval<Integer>> windows = Arrays.asList(Intervals.closed(3, 5),
+                                                    Intervals.open(0, 10));
+    List<Map.Entry<Interval<Integer>, Interval<Integer>>> pairs =
+        IntervalJoin.pairs(bookings, windows, ORDER);
+    assertEquals(3, pairs.size());
+    assertEquals(Intervals.closedOpen(1, 3), pairs.get(0).getKey());
+    assertEquals(Intervals.open(0, 10), pairs.get(0).getValue());
+    assertEquals(Arrays.asList(Intervals.closedOpen(1, 3), Intervals.singleton(5),
+                               Intervals.closed(5, 8)),
+                 IntervalJoin.intersections(bookings, windows, ORDER));
+  }
+
+  @Test
+  public void touching_test() {
+    List<Interval<Integer>> left = Arrays.asList(Intervals.closedOpen(0, 5),
+                                                 Intervals.closed(10, 15));
+    List<Interval<Integer>> right = Arrays.asList(Intervals.closed(5, 10),
+                                                  Intervals.openClosed(15, 20));
+    List<Map.Entry<Interval<Integer>, Interval<Integer>>> pairs =
+        IntervalJoin.pairs(left, right, ORDER);
+    assertEquals(1, pairs.size());
+    assertEquals(Intervals.singleton(10), pairs.get(0).getKey().intersection(pairs.get(0)
+                                                                                  .getValue()));
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(3);
+    for (int trial = 0; trial < 20; trial++) {
+      List<Interval<Integer>> left = randomIntervals(random, random.nextInt(200));
+      List<Interval<Integer>> right = randomIntervals(random, random.nextInt(200));
+      Set<String> expected = new HashSet<>();
+      for (Interval<Integer> a : left) {
+        for (Interval<Integer> b : right) {
+          if (!a.isEmpty() && !b.isEmpty() && IntervalComparisons.overlaps(a, b, ORDER)) {
+            expected.add(System.identityHashCode(a) + " " + System.identityHashCode(b));
+          }
+        }
+      }
+      List<Map.Entry<Interval<Integer>, Interval<Integer>>> pairs =
+          IntervalJoin.pairs(left, right, ORDER);
+      assertEquals(expected.size(), pairs.size());
+      assertEquals(expected, keys(pairs));
+      for (int ranges : new int[]{1, 3, 16}) {
+        List<Map.Entry<Interval<Integer>, Interval<Integer>>> parallel =
+            IntervalJoin.parallelPairs(left, right, ORDER, ranges);
+        assertEquals(expected.size(), parallel.size());
+        assertEquals(expected, keys(parallel));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void ranges_test() {
+    IntervalJoin.parallelPairs(new ArrayList<Interval<Integer>>(),
+                               new ArrayList<Interval<Integer>>(), ORDER, 0);
+  }
+
+  private static List<Interval<Integer>> randomIntervals(Random random, int count) {
+    List<Interval<Integer>> result = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int lower = random.nextInt(100);
+      int upper = lower + random.nextInt(10);
+      // (x, x) isn't empty by isEmpty, but has no values, so it is left out.
+      BoundType lowerType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                   : BoundType.Open;
+      BoundType upperType = random.nextBoolean() ? BoundType.Closed : BoundType.Open;
+      result.add(Intervals.interval(lower, lowerType, upper, upperType));
+    }
+    return result;
+  }
+
+  private static Set<String> keys(List<Map.Entry<Interval<Integer>, Interval<Integer>>> pairs) {
+    Set<String> result = new HashSet<>();
+    for (Map.Entry<Interval<Integer>, Interval<Integer>> pair : pairs) {
+      result.add(System.identityHashCode(pair.getKey()) + " "
+                 + System.identityHashCode(pair.getValue()));
+    }
+    return result;
+  }
+}
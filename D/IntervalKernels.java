@@ -0,0 +1,69 @@
+/**
+ * Bulk scans for the primitive intervals, done with explicit vector instructions. {@link
+ * IntInterval}, {@link LongInterval} and {@link DoubleInterval} use {@link #VECTOR} when it isn't
+ * null, and their own scalar loops otherwise.
+ *
+ * <p>The implementation, {@code VectorIntervalKernels}, uses the incubating {@code
+ * jdk.incubator.vector} module, so it lives in the optional {@code vector/} source root, which
+ * the main build doesn't compile. It is loaded only if its class was compiled onto the class path
+ * and the JVM was started with {@code --add-modules jdk.incubator.vector}.
+ *
+ * <p>Every method takes closed bounds, which the callers have already checked aren't reversed,
+ * and a range already checked against the array.
+ */
+interface IntervalKernels {
+
+  /**
+   * The vector implementation, or null if the vector module isn't available.
+   */
+  IntervalKernels VECTOR = load();
+
+  /**
+   * Counts the values in {@code values[from, to)} that lie in {@code [low, high]}.
+   */
+  int countContained(int[] values, int from, int to, int low, int high);
+
+  /**
+   * Fills {@code words} words of a bitmap, as for {@link IntInterval#containsAll}, and returns the
+   * number of bits set.
+   */
+  int containsAll(int[] values, long[] bitmap, int words, int low, int high);
+
+  /**
+   * Counts the values in {@code values[from, to)} that lie in {@code [low, high]}.
+   */
+  int countContained(long[] values, int from, int to, long low, long high);
+
+  /**
+   * Fills {@code words} words of a bitmap, as for {@link LongInterval#containsAll}, and returns
+   * the number of bits set.
+   */
+  int containsAll(long[] values, long[] bitmap, int words, long low, long high);
+
+  /**
+   * Counts the values in {@code values[from, to)} that lie in {@code [low, high]}; NaN never does.
+   */
+  int countContained(double[] values, int from, int to, double low, double high);
+
+  /**
+   * Fills {@code words} words of a bitmap, as for {@link DoubleInterval#containsAll}, and returns
+   * the number of bits set.
+   */
+  int containsAll(double[] values, long[] bitmap, int words, double low, double high);
+
+  /**
+   * Returns the vector implementation if the module is available and the class was compiled, and
+   * null otherwise.
+   */
+  static IntervalKernels load() {
+    if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+      return null;
+    }
+    try {
+      return (IntervalKernels) Class.forName("VectorIntervalKernels")
+          .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,246 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A predicate built from intervals with {@code and}, {@code or} and {@code negate}, kept in a
+ * normal form: a sorted set of disjoint intervals, possibly negated. Combining it with another
+ * interval predicate, or with an {@link Interval}, computes the new normal form at once instead of
+ * wrapping the two in a lambda, so a filter of any number of clauses tests a value with one search
+ * of the set rather than a walk of every clause. {@link Interval} returns one of these from its own
+ * {@code and}, {@code or} and {@code negate}, so chains such as
+ *
+ * <pre>
+ *   Predicate&lt;Long&gt; filter = morning.or(evening).and(weekday.negate());
+ * </pre>
+ *
+ * <p>are normalized as they are built. Combining with any other predicate falls back to the usual
+ * lambda.
+ *
+ * <p>A set of a few intervals is tested by checking every one of them, without branching on the
+ * results; larger sets by binary search, in <em>O</em>(log n) comparisons.
+ *
+ * <p>The intervals combined must all be ordered by the same comparator, as for the binary
+ * operations on {@link Interval}. Instances are immutable and thread safe.
+ *
+ * @param <T> the type of the interval endpoints
+ */
+public final class IntervalPredicate<T> implements Predicate<T> {
+
+  // The largest set tested by checking every interval:
+  private static final int LINEAR_PROBE_LIMIT = 8;
+
+  // The order of the values:
+  private final Comparator<T> comparator;
+
+  // The values matched, or not matched if negated:
+  private final RangeSet<T> set;
+  private final boolean negated;
+
+  // The intervals of the set, in order:
+  private final Interval<T>[] ranges;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - set is never changed, and ranges holds its intervals in ascending order
+   *  - the predicate matches a value iff set.contains(value) != negated
+   */
+
+  @SuppressWarnings("unchecked")
+  private IntervalPredicate(RangeSet<T> set, boolean negated) {
+    this.comparator = set.comparator();
+    this.set = set;
+    this.negated = negated;
+    List<Interval<T>> list = new ArrayList<>(set.size());
+    for (Interval<T> interval : set) {
+      list.add(interval);
+    }
+    @SuppressWarnings("rawtypes")
+    Interval[] array = list.toArray(new Interval[0]);
+    ranges = array;
+  }
+
+  /**
+   * Returns a predicate matching the values of an interval.
+   *
+   * @param interval the interval
+   * @param <T>      type
+   * @return a predicate equivalent to {@code interval}
+   */
+  public static <T> IntervalPredicate<T> of(Interval<T> interval) {
+    RangeSet<T> set = new RangeSet<>(interval.getComparator());
+    set.add(interval);
+    return new IntervalPredicate<>(set, false);
+  }
+
+  /**
+   * Returns a predicate matching the values of any of several intervals.
+   *
+   * @param comparator the order of the values
+   * @param intervals  the intervals
+   * @param <T>        type
+   * @return a predicate matching the values in their union
+   */
+  public static <T> IntervalPredicate<T> anyOf(Comparator<T> comparator,
+                                               Collection<? extends Interval<T>> intervals) {
+    RangeSet<T> set = new RangeSet<>(comparator);
+    for (Interval<T> interval : intervals) {
+      set.add(interval);
+    }
+    return new IntervalPredicate<>(set, false);
+  }
+
+  /**
+   * Returns a predicate matching the values of a set.
+   *
+   * @param set the set, which is copied
+   * @param <T> type
+   * @return a predicate matching the values in the set
+   */
+  public static <T> IntervalPredicate<T> of(RangeSet<T> set) {
+    return new IntervalPredicate<>(set.union(new RangeSet<>(set.comparator())), false);
+  }
+
+  /**
+   * Determines whether a value matches this predicate.
+   *
+   * @param value the value to check (non-null)
+   * @return whether it matches
+   */
+  @Override
+  public boolean test(T value) {
+    boolean found = false;
+    if (ranges.length <= LINEAR_PROBE_LIMIT) {
+      for (Interval<T> range : ranges) {
+        found |= range.contains(value);
+      }
+    } else {
+      // Find the last interval that doesn't start after the value, which alone can contain it.
+      int lo = 0;
+      int hi = ranges.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (IntervalComparisons.startsAfter(ranges[mid], value, comparator)) {
+          hi = mid;
+        } else {
+          lo = mid + 1;
+        }
+      }
+      found = lo > 0 && ranges[lo - 1].contains(value);
+    }
+    return found != negated;
+  }
+
+  /**
+   * Returns a predicate matching the values that match both this predicate and another, which is
+   * normalized if the other is an interval predicate or an {@link Interval}.
+   *
+   * @param other the other predicate
+   * @return the conjunction
+   */
+  @Override
+  public Predicate<T> and(Predicate<? super T> other) {
+    IntervalPredicate<T> that = recognize(other);
+    if (that == null) {
+      return Predicate.super.and(other);
+    }
+    // By De Morgan, a negated operand is removed from the other rather than intersected.
+    if (!negated && !that.negated) {
+      return new IntervalPredicate<>(set.intersection(that.set), false);
+    }
+    if (!negated) {
+      return new IntervalPredicate<>(difference(set, that.set), false);
+    }
+    if (!that.negated) {
+      return new IntervalPredicate<>(difference(that.set, set), false);
+    }
+    return new IntervalPredicate<>(set.union(that.set), true);
+  }
+
+  /**
+   * Returns a predicate matching the values that match this predicate, another, or both, which is
+   * normalized if the other is an interval predicate or an {@link Interval}.
+   *
+   * @param other the other predicate
+   * @return the disjunction
+   */
+  @Override
+  public Predicate<T> or(Predicate<? super T> other) {
+    IntervalPredicate<T> that = recognize(other);
+    if (that == null) {
+      return Predicate.super.or(other);
+    }
+    if (!negated && !that.negated) {
+      return new IntervalPredicate<>(set.union(that.set), false);
+    }
+    if (!negated) {
+      return new IntervalPredicate<>(difference(that.set, set), true);
+    }
+    if (!that.negated) {
+      return new IntervalPredicate<>(difference(set, that.set), true);
+    }
+    return new IntervalPredicate<>(set.intersection(that.set), true);
+  }
+
+  /**
+   * Returns a predicate matching exactly the values that don't match this one.
+   *
+   * @return the negation
+   */
+  @Override
+  public IntervalPredicate<T> negate() {
+    return new IntervalPredicate<>(set, !negated);
+  }
+
+  /**
+   * Returns the values of an interval that match this predicate.
+   *
+   * @param universe the interval
+   * @return a new set of the values in {@code universe} that match
+   */
+  public RangeSet<T> toRangeSet(Interval<T> universe) {
+    RangeSet<T> within = new RangeSet<>(comparator);
+    within.add(universe);
+    return negated ? set.complement(universe) : set.intersection(within);
+  }
+
+  /**
+   * Returns the number of disjoint intervals a value is checked against, which is what the cost
+   * of {@link #test} depends on.
+   *
+   * @return the number of intervals in the normal form
+   */
+  public int size() {
+    return ranges.length;
+  }
+
+  @Override
+  public String toString() {
+    return negated ? "not " + set : set.toString();
+  }
+
+  /**
+   * Returns a predicate as an interval predicate, or null if it is neither an interval predicate
+   * nor an interval.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> IntervalPredicate<T> recognize(Predicate<? super T> predicate) {
+    if (predicate instanceof IntervalPredicate) {
+      return (IntervalPredicate<T>) predicate;
+    }
+    if (predicate instanceof Interval) {
+      return of((Interval<T>) predicate);
+    }
+    return null;
+  }
+
+  /**
+   * Returns the values of one set that aren't in another.
+   */
+  private static <T> RangeSet<T> difference(RangeSet<T> set, RangeSet<T> removed) {
+    return set.intersection(removed.complement(set.span()));
+  }
+}
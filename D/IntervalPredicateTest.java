@@ -0,0 +1,136 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntervalPredicateTest {
+
+  private static final Comparator<Double> ORDER = Comparator.naturalOrder();
+
+  @Test
+  public void interval_chain_test() {
+    Predicate<Integer> filter = Intervals.closed(1, 5).or(Intervals.closed(10, 20))
+        .and(Intervals.open(3, 15).negate());
+    assertTrue(filter instanceof IntervalPredicate);
+    assertEquals("[[1, 3], [15, 20]]", filter.toString());
+    assertTrue(filter.test(3));
+    assertFalse(filter.test(4));
+    assertTrue(filter.test(15));
+    assertFalse(filter.test(21));
+  }
+
+  @Test
+  public void negation_test() {
+    IntervalPredicate<Integer> outside = IntervalPredicate.of(Intervals.closedOpen(0, 10)).negate();
+    assertTrue(outside.test(-1));
+    assertFalse(outside.test(0));
+    assertTrue(outside.test(10));
+    assertEquals("not [[0, 10)]", outside.toString());
+    assertEquals(IntervalPredicate.of(Intervals.closedOpen(0, 10)).toString(),
+                 outside.negate().toString());
+    assertEquals(Arrays.asList(Intervals.closedOpen(-5, 0), Intervals.closed(10, 12)),
+                 toList(outside.toRangeSet(Intervals.closed(-5, 12))));
+  }
+
+  @Test
+  public void other_predicates_test() {
+    Predicate<Integer> even = value -> value % 2 == 0;
+    Predicate<Integer> filter = Intervals.closed(1, 10).and(even);
+    assertFalse(filter instanceof IntervalPredicate);
+    assertTrue(filter.test(4));
+    assertFalse(filter.test(5));
+    assertFalse(filter.test(12));
+  }
+
+  @Test
+  public void interval_array_test() {
+    IntervalArray array = new IntervalArray();
+    array.add(1, BoundType.Closed, 5, BoundType.Closed);
+    array.add(100, BoundType.Closed, 200, BoundType.Closed);
+    Predicate<Long> filter = Intervals.closed(10L, 20L);
+    for (Interval<Long> interval : array) {
+      filter = filter.or(interval);
+    }
+    assertTrue(filter.test(3L));
+    assertTrue(filter.test(150L));
+    assertFalse(filter.test(50L));
+    assertTrue(Intervals.closed(0L, 2L).and(array.get(1)).negate().test(1L));
+  }
+
+  @Test
+  public void many_clauses_test() {
+    Predicate<Integer> filter = Intervals.singleton(0);
+    for (int i = 1; i < 500; i++) {
+      filter = filter.or(Intervals.closedOpen(4 * i, 4 * i + 2));
+    }
+    assertEquals(500, ((IntervalPredicate<Integer>) filter).size());
+    for (int value = -2; value < 2010; value++) {
+      assertEquals(value >= 0 && value < 2000 && value % 4 < 2 && value != 1, filter.test(value));
+    }
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(9);
+    for (int round = 0; round < 300; round++) {
+      // Build the same chain twice: compiled, and as plain lambdas.
+      Interval<Double> first = randomInterval(random);
+      Predicate<Double> compiled = first;
+      Predicate<Double> reference = first::contains;
+      int clauses = 1 + random.nextInt(30);
+      for (int i = 0; i < clauses; i++) {
+        Interval<Double> next = randomInterval(random);
+        Predicate<Double> operand = next;
+        Predicate<Double> referenceOperand = next::contains;
+        if (random.nextInt(4) == 0) {
+          operand = operand.negate();
+          referenceOperand = referenceOperand.negate();
+        }
+        switch (random.nextInt(3)) {
+          case 0:
+            compiled = compiled.and(operand);
+            reference = reference.and(referenceOperand);
+            break;
+          case 1:
+            compiled = compiled.or(operand);
+            reference = reference.or(referenceOperand);
+            break;
+          default:
+            compiled = compiled.negate().or(operand);
+            reference = reference.negate().or(referenceOperand);
+            break;
+        }
+      }
+      assertTrue(compiled instanceof IntervalPredicate);
+      for (double value = -3; value < 110; value += 0.5) {
+        assertEquals(reference.test(value), compiled.test(value));
+      }
+    }
+  }
+
+  private static Interval<Double> randomInterval(Random random) {
+    double lower = random.nextInt(100);
+    double upper = lower + random.nextInt(20);
+    BoundType lowerType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                 : BoundType.Open;
+    BoundType upperType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                 : BoundType.Open;
+    return Intervals.interval(lower, lowerType, upper, upperType, ORDER);
+  }
+
+  private static <T> List<Interval<T>> toList(RangeSet<T> set) {
+    List<Interval<T>> result = new ArrayList<>();
+    for (Interval<T> interval : set) {
+      result.add(interval);
+    }
+    return result;
+  }
+}
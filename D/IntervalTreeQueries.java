@@ -0,0 +1,103 @@
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The queries of {@link IntervalIndex} and {@link PersistentIntervalTree}, which keep the same
+ * kind of tree in different nodes: a search tree of distinct intervals ordered by lower bound,
+ * each node recording the copies of its interval and the interval with the greatest upper bound in
+ * its subtree.
+ */
+final class IntervalTreeQueries {
+
+  private IntervalTreeQueries() {
+  } // prevents instantiation.
+
+  /**
+   * A node of an interval tree, as far as the queries need to see it.
+   *
+   * @param <T> the type of the interval endpoints
+   */
+  interface Node<T> {
+
+    Interval<T> interval();
+
+    int copies();
+
+    Interval<T> maxUpper();
+
+    Node<T> left();
+
+    Node<T> right();
+  }
+
+  /**
+   * Adds the intervals of a subtree that contain {@code point} to {@code result}, unless it is
+   * null, and returns how many there are.
+   *
+   * @param node       the root of the subtree, or null
+   * @param point      the point
+   * @param comparator the order of the values
+   * @param result     the list to add to, or null to only count
+   * @param <T>        type
+   * @return the number of intervals containing the point, counting copies
+   */
+  static <T> int stab(Node<T> node, T point, Comparator<T> comparator, List<Interval<T>> result) {
+    int count = 0;
+    // The nodes form a search tree by lower bound, so once one starts after the point, so does
+    // its right subtree; and once a subtree ends before the point, all of it does.
+    while (node != null && !IntervalComparisons.endsBefore(node.maxUpper(), point, comparator)) {
+      count += stab(node.left(), point, comparator, result);
+      if (IntervalComparisons.startsAfter(node.interval(), point, comparator)) {
+        break;
+      }
+      if (!IntervalComparisons.endsBefore(node.interval(), point, comparator)) {
+        count += report(node, result);
+      }
+      node = node.right();
+    }
+    return count;
+  }
+
+  /**
+   * Adds the intervals of a subtree that overlap {@code query} to {@code result}, unless it is
+   * null, and returns how many there are.
+   *
+   * @param node       the root of the subtree, or null
+   * @param query      the non-empty interval to overlap
+   * @param comparator the order of the values
+   * @param result     the list to add to, or null to only count
+   * @param <T>        type
+   * @return the number of intervals overlapping the query, counting copies
+   */
+  static <T> int overlapping(Node<T> node, Interval<T> query, Comparator<T> comparator,
+                             List<Interval<T>> result) {
+    int count = 0;
+    // As for stab: a node starting after the query ends the walk to the right, and a subtree
+    // ending before it is skipped whole.
+    while (node != null && !IntervalComparisons.before(node.maxUpper(), query, comparator)) {
+      count += overlapping(node.left(), query, comparator, result);
+      if (IntervalComparisons.before(query, node.interval(), comparator)) {
+        break;
+      }
+      if (!IntervalComparisons.before(node.interval(), query, comparator)) {
+        count += report(node, result);
+      }
+      node = node.right();
+    }
+    return count;
+  }
+
+  /**
+   * Adds every copy of a node's interval to {@code result}, unless it is null, and returns the
+   * number of copies.
+   */
+  private static <T> int report(Node<T> node, List<Interval<T>> result) {
+    int copies = node.copies();
+    if (result != null) {
+      for (int i = 0; i < copies; ++i) {
+        result.add(node.interval());
+      }
+    }
+    return copies;
+  }
+}
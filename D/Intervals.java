@@ -1,7 +1,17 @@
+import java.lang.ref.WeakReference;
 import java.util.Comparator;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class Intervals {
 
+  // The shared empty interval of each comparator, held weakly so that neither is kept alive:
+  private static final Map<Comparator<?>, WeakReference<Interval<?>>> EMPTIES =
+      new WeakHashMap<>();
+
+  // The empty interval last looked up, which saves taking the lock for the common comparator:
+  private static volatile ComparatorInterval<?> lastEmpty;
+
   /**
    * creates a comparable closed, closed interval
    *
@@ -53,24 +63,39 @@ public class Intervals {
   }
 
   /**
-   * create an empty interval
+   * returns the empty interval, which is shared by every comparable type
    *
    * @param <T> type
-   * @return a new empty interval
+   * @return the empty interval
    */
   static <T extends Comparable<T>> Interval<T> empty() {
-    return Intervals.closedOpen(null, null);
+    return ComparableInterval.empty();
   }
 
   /**
-   * create an empty interval with a comparator
+   * returns the empty interval with a comparator, which is shared by all callers passing the same
+   * comparator
    *
    * @param comparator the comparator object
    * @param <T>        type
-   * @return a new empty intervals
+   * @return the empty interval
    */
+  @SuppressWarnings("unchecked")
   static <T> Interval<T> empty(Comparator<T> comparator) {
-    return Intervals.closedOpen(null, null, comparator);
+    ComparatorInterval<?> last = lastEmpty;
+    if (last != null && last.comparator == comparator) {
+      return (Interval<T>) last;
+    }
+    synchronized (EMPTIES) {
+      WeakReference<Interval<?>> ref = EMPTIES.get(comparator);
+      Interval<?> empty = ref == null ? null : ref.get();
+      if (empty == null) {
+        empty = new ComparatorInterval<>(null, BoundType.Closed, null, BoundType.Open, comparator);
+        EMPTIES.put(comparator, new WeakReference<>(empty));
+      }
+      lastEmpty = (ComparatorInterval<?>) empty;
+      return (Interval<T>) empty;
+    }
   }
 
   /**
@@ -5,6 +5,7 @@ import java.util.Comparator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class IntervalsTest {
@@ -416,4 +417,53 @@ public class IntervalsTest {
     assertEquals(singleton.toString(), "[1, 1]");
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testIntersectionTiedLowerBounds() {
+    Interval<Integer> interval1 = Intervals.closed(3, 5);
+    Interval<Integer> interval2 = Intervals.open(3, 6);
+    assertEquals(Intervals.openClosed(3, 5), interval1.intersection(interval2));
+    assertEquals(Intervals.openClosed(3, 5), interval2.intersection(interval1));
+    assertTrue(Intervals.singleton(3).intersection(interval2).isEmpty());
+
+    interval1 = Intervals.closed(3, 5, integerComparator);
+    interval2 = Intervals.open(3, 6, integerComparator);
+    assertEquals(Intervals.openClosed(3, 5), interval1.intersection(interval2));
+  }
+
+  @Test
+  public void testOperandsReused() {
+    Interval<Integer> outer = Intervals.closed(0, 10);
+    Interval<Integer> inner = Intervals.open(2, 5);
+    Interval<Integer> empty = Intervals.empty();
+    assertSame(inner, outer.intersection(inner));
+    assertSame(inner, inner.intersection(outer));
+    assertSame(outer, outer.span(inner));
+    assertSame(outer, inner.span(outer));
+    assertSame(outer, outer.span(empty));
+    assertSame(outer, empty.span(outer));
+    assertTrue(outer.intersection(empty).isEmpty());
+    assertSame(Intervals.open(0, 1).intersection(Intervals.open(2, 3)),
+               Intervals.open(4, 5).intersection(Intervals.open(6, 7)));
+  }
+
+  @Test
+  public void testOperandsReusedOnSharedEndpoints() {
+    Interval<Integer> outer = Intervals.closed(0, 10);
+    Interval<Integer> head = Intervals.closed(0, 5);
+    Interval<Integer> tail = Intervals.closedOpen(5, 10);
+    assertSame(head, outer.intersection(head));
+    assertSame(head, head.intersection(outer));
+    assertSame(outer, head.span(outer));
+    assertSame(outer, outer.span(head));
+    assertSame(outer, outer.span(Intervals.closed(0, 10)));
+    assertSame(outer, outer.intersection(Intervals.closed(0, 10)));
+    assertSame(tail, Intervals.closedOpen(0, 10).intersection(tail));
+    assertSame(tail, tail.intersection(Intervals.openClosed(2, 10).intersection(
+        Intervals.closedOpen(5, 12))));
+    Interval<Integer> halfOpen = Intervals.closedOpen(0, 10);
+    assertSame(halfOpen, halfOpen.span(tail));
+    assertSame(halfOpen, tail.span(halfOpen));
+    assertEquals(Intervals.closed(5, 10), tail.span(Intervals.openClosed(7, 10)));
+  }
+
+}
@@ -0,0 +1,380 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable index of intervals answering the same queries as {@link IntervalIndex}, where each
+ * {@link #insert} or {@link #remove} returns a new version of the tree and leaves this one as it
+ * was. The new version copies only the <em>O</em>(log n) nodes on the path to the change and shares
+ * the rest with the old one, so keeping every version costs no more than making the changes.
+ *
+ * <p>Since a version never changes, any number of threads can query it without locking, and a
+ * writer can publish each new version to them through an {@link
+ * java.util.concurrent.atomic.AtomicReference AtomicReference}:
+ *
+ * <pre>
+ *   AtomicReference&lt;PersistentIntervalTree&lt;Long&gt;&gt; current =
+ *       new AtomicReference&lt;&gt;(PersistentIntervalTree.empty(order));
+ *
+ *   current.updateAndGet(tree -&gt; tree.insert(booking));       // writer
+ *   List&lt;Interval&lt;Long&gt;&gt; busy = current.get().stab(now);  // reader, sees one version
+ * </pre>
+ *
+ * <p>Like {@link IntervalIndex} the tree is an AVL tree of the intervals ordered by lower bound,
+ * whose nodes record the greatest upper bound in their subtrees. Equal intervals may be inserted
+ * more than once, and are reported once per copy. Empty intervals are never stored.
+ *
+ * <p>Instances are immutable and thread safe.
+ *
+ * @param <T> the type of the interval endpoints
+ */
+public final class PersistentIntervalTree<T> {
+
+  // The order of the values:
+  private final Comparator<T> comparator;
+
+  // The root of the tree, or null if it is empty:
+  private final Node<T> root;
+
+  // The number of intervals in the tree, counting copies:
+  private final int size;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - an in-order walk of the tree visits the distinct intervals in the order of
+   *    IntervalComparisons.compare, and every node holds a non-empty interval with copies >= 1
+   *  - each node's height is 1 + the greater of its children's heights (0 for null), and these
+   *    differ by at most 1
+   *  - each node's maxUpper is the interval with the greatest upper bound in its subtree
+   *  - size is the sum of copies over all nodes
+   *  - no node is ever changed once built, so it may be shared by any number of versions
+   */
+
+  private PersistentIntervalTree(Comparator<T> comparator, Node<T> root, int size) {
+    this.comparator = comparator;
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns an empty tree that orders values by {@code comparator}.
+   *
+   * @param comparator the order of the interval endpoints
+   * @param <T>        the type of the interval endpoints
+   * @return a tree with no intervals
+   */
+  public static <T> PersistentIntervalTree<T> empty(Comparator<T> comparator) {
+    return new PersistentIntervalTree<>(comparator, null, 0);
+  }
+
+  /**
+   * Builds a tree of the given intervals in <em>O</em>(n log n) time, which is faster than
+   * inserting them one by one, and gives a perfectly balanced tree.
+   *
+   * @param intervals  the intervals to index
+   * @param comparator the order of the interval endpoints
+   * @param <T>        the type of the interval endpoints
+   * @return a new tree
+   */
+  public static <T> PersistentIntervalTree<T> build(Collection<? extends Interval<T>> intervals,
+                                                    Comparator<T> comparator) {
+    List<Interval<T>> sorted = new ArrayList<>(intervals.size());
+    for (Interval<T> interval : intervals) {
+      if (!interval.isEmpty()) {
+        sorted.add(interval);
+      }
+    }
+    sorted.sort((a, b) -> IntervalComparisons.compare(a, b, comparator));
+
+    // Collapse runs of equal intervals into one entry each, counting the copies.
+    List<Interval<T>> distinct = new ArrayList<>(sorted.size());
+    List<Integer> copies = new ArrayList<>(sorted.size());
+    for (Interval<T> interval : sorted) {
+      int last = distinct.size() - 1;
+      if (last >= 0
+          && IntervalComparisons.compare(distinct.get(last), interval, comparator) == 0) {
+        copies.set(last, copies.get(last) + 1);
+      } else {
+        distinct.add(interval);
+        copies.add(1);
+      }
+    }
+
+    Node<T> root = empty(comparator).buildBalanced(distinct, copies, 0, distinct.size());
+    return new PersistentIntervalTree<>(comparator, root, sorted.size());
+  }
+
+  /**
+   * Links the nodes for {@code distinct[from, to)} into a balanced tree, and returns its root.
+   */
+  private Node<T> buildBalanced(List<Interval<T>> distinct, List<Integer> copies, int from,
+                                int to) {
+    if (from == to) {
+      return null;
+    }
+    int mid = (from + to) >>> 1;
+    return node(distinct.get(mid), copies.get(mid), buildBalanced(distinct, copies, from, mid),
+                buildBalanced(distinct, copies, mid + 1, to));
+  }
+
+  /**
+   * Returns the order of the values in this tree.
+   *
+   * @return the comparator
+   */
+  public Comparator<T> comparator() {
+    return comparator;
+  }
+
+  /**
+   * Returns the number of intervals in the tree, counting each copy.
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Determines whether the tree has no intervals.
+   *
+   * @return whether it is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns a version of this tree with an interval added.
+   *
+   * @param interval the interval to add
+   * @return the new version, or this tree if the interval is empty
+   */
+  public PersistentIntervalTree<T> insert(Interval<T> interval) {
+    if (interval.isEmpty()) {
+      return this;
+    }
+    return new PersistentIntervalTree<>(comparator, insert(root, interval), size + 1);
+  }
+
+  /**
+   * Returns a version of this tree with one copy of an interval removed.
+   *
+   * @param interval the interval to remove
+   * @return the new version, or this tree if the interval isn't in it
+   */
+  public PersistentIntervalTree<T> remove(Interval<T> interval) {
+    if (interval.isEmpty() || root == null) {
+      return this;
+    }
+    Node<T> newRoot = delete(root, interval);
+    // Removal copies the root whenever it finds the interval.
+    return newRoot == root ? this : new PersistentIntervalTree<>(comparator, newRoot, size - 1);
+  }
+
+  /**
+   * Finds every interval that contains a point.
+   *
+   * @param point the point
+   * @return the intervals containing it, ordered by lower bound
+   */
+  public List<Interval<T>> stab(T point) {
+    List<Interval<T>> result = new ArrayList<>();
+    IntervalTreeQueries.stab(root, point, comparator, result);
+    return result;
+  }
+
+  /**
+   * Finds every interval that overlaps another, that is, has at least one value in common with
+   * it.
+   *
+   * @param query the interval to overlap
+   * @return the intervals overlapping it, ordered by lower bound
+   */
+  public List<Interval<T>> overlapping(Interval<T> query) {
+    List<Interval<T>> result = new ArrayList<>();
+    if (!query.isEmpty()) {
+      IntervalTreeQueries.overlapping(root, query, comparator, result);
+    }
+    return result;
+  }
+
+  /**
+   * Counts the intervals that contain a point, without collecting them.
+   *
+   * @param point the point
+   * @return the number of intervals containing it
+   */
+  public int count(T point) {
+    return IntervalTreeQueries.stab(root, point, comparator, null);
+  }
+
+  /**
+   * Counts the intervals that overlap another, without collecting them.
+   *
+   * @param query the interval to overlap
+   * @return the number of intervals overlapping it
+   */
+  public int count(Interval<T> query) {
+    return query.isEmpty() ? 0 : IntervalTreeQueries.overlapping(root, query, comparator, null);
+  }
+
+  /**
+   * Returns a copy of a subtree with an interval inserted.
+   */
+  private Node<T> insert(Node<T> node, Interval<T> interval) {
+    if (node == null) {
+      return node(interval, 1, null, null);
+    }
+    int cmp = IntervalComparisons.compare(interval, node.interval, comparator);
+    if (cmp == 0) {
+      return node(node.interval, node.copies + 1, node.left, node.right);
+    }
+    if (cmp < 0) {
+      return balance(node.interval, node.copies, insert(node.left, interval), node.right);
+    }
+    return balance(node.interval, node.copies, node.left, insert(node.right, interval));
+  }
+
+  /**
+   * Returns a copy of a subtree with one copy of an interval removed, or the subtree itself if
+   * the interval isn't in it.
+   */
+  private Node<T> delete(Node<T> node, Interval<T> interval) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = IntervalComparisons.compare(interval, node.interval, comparator);
+    if (cmp < 0) {
+      Node<T> left = delete(node.left, interval);
+      return left == node.left ? node : balance(node.interval, node.copies, left, node.right);
+    }
+    if (cmp > 0) {
+      Node<T> right = delete(node.right, interval);
+      return right == node.right ? node : balance(node.interval, node.copies, node.left, right);
+    }
+    if (node.copies > 1) {
+      return node(node.interval, node.copies - 1, node.left, node.right);
+    }
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    // Replace the node with its successor, the leftmost node of its right subtree.
+    Node<T> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return balance(successor.interval, successor.copies, node.left, removeLeftmost(node.right));
+  }
+
+  /**
+   * Returns a copy of a subtree without its leftmost node.
+   */
+  private Node<T> removeLeftmost(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return balance(node.interval, node.copies, removeLeftmost(node.left), node.right);
+  }
+
+  /**
+   * Returns a balanced subtree of an interval between two balanced subtrees whose heights differ
+   * by at most 2, rotating once or twice if needed.
+   */
+  private Node<T> balance(Interval<T> interval, int copies, Node<T> left, Node<T> right) {
+    int balance = height(left) - height(right);
+    if (balance > 1) {
+      if (height(left.left) >= height(left.right)) {
+        return node(left.interval, left.copies, left.left,
+                    node(interval, copies, left.right, right));
+      }
+      Node<T> pivot = left.right;
+      return node(pivot.interval, pivot.copies,
+                  node(left.interval, left.copies, left.left, pivot.left),
+                  node(interval, copies, pivot.right, right));
+    }
+    if (balance < -1) {
+      if (height(right.right) >= height(right.left)) {
+        return node(right.interval, right.copies, node(interval, copies, left, right.left),
+                    right.right);
+      }
+      Node<T> pivot = right.left;
+      return node(pivot.interval, pivot.copies, node(interval, copies, left, pivot.left),
+                  node(right.interval, right.copies, pivot.right, right.right));
+    }
+    return node(interval, copies, left, right);
+  }
+
+  /**
+   * Returns a new node, computing its height and maxUpper from its children.
+   */
+  private Node<T> node(Interval<T> interval, int copies, Node<T> left, Node<T> right) {
+    Interval<T> max = interval;
+    if (left != null && IntervalComparisons.compareUpper(left.maxUpper, max, comparator) > 0) {
+      max = left.maxUpper;
+    }
+    if (right != null && IntervalComparisons.compareUpper(right.maxUpper, max, comparator) > 0) {
+      max = right.maxUpper;
+    }
+    return new Node<>(interval, copies, max, 1 + Math.max(height(left), height(right)), left,
+                      right);
+  }
+
+  private static int height(Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * A node of the tree, holding one distinct interval. Nodes are never changed, so that versions
+   * can share them.
+   */
+  private static final class Node<T> implements IntervalTreeQueries.Node<T> {
+
+    final Interval<T> interval;
+    final int copies;
+    final Interval<T> maxUpper;
+    final int height;
+    final Node<T> left;
+    final Node<T> right;
+
+    Node(Interval<T> interval, int copies, Interval<T> maxUpper, int height, Node<T> left,
+         Node<T> right) {
+      this.interval = interval;
+      this.copies = copies;
+      this.maxUpper = maxUpper;
+      this.height = height;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Interval<T> interval() {
+      return interval;
+    }
+
+    @Override
+    public int copies() {
+      return copies;
+    }
+
+    @Override
+    public Interval<T> maxUpper() {
+      return maxUpper;
+    }
+
+    @Override
+    public Node<T> left() {
+      return left;
+    }
+
+    @Override
+    public Node<T> right() {
+      return right;
+    }
+  }
+}
@@ -0,0 +1,123 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentIntervalTreeTest {
+
+  private static final Comparator<Integer> ORDER = Comparator.naturalOrder();
+
+  @Test
+  public void versions_test() {
+    PersistentIntervalTree<Integer> v0 = PersistentIntervalTree.empty(ORDER);
+    PersistentIntervalTree<Integer> v1 = v0.insert(Intervals.closed(1, 5));
+    PersistentIntervalTree<Integer> v2 = v1.insert(Intervals.open(3, 8));
+    PersistentIntervalTree<Integer> v3 = v2.remove(Intervals.closed(1, 5));
+
+    assertTrue(v0.isEmpty());
+    assertEquals(Arrays.asList(Intervals.closed(1, 5)), v1.stab(4));
+    assertEquals(Arrays.asList(Intervals.closed(1, 5), Intervals.open(3, 8)), v2.stab(4));
+    assertEquals(Arrays.asList(Intervals.open(3, 8)), v3.stab(4));
+    assertEquals(Arrays.asList(0, 1, 2, 1), Arrays.asList(v0.size(), v1.size(), v2.size(),
+                                                         v3.size()));
+    assertEquals(1, v3.count(Intervals.closed(0, 4)));
+    assertEquals(0, v3.count(Intervals.<Integer>empty()));
+  }
+
+  @Test
+  public void unchanged_test() {
+    PersistentIntervalTree<Integer> tree =
+        PersistentIntervalTree.<Integer>empty(ORDER).insert(Intervals.closed(1, 2));
+    assertSame(tree, tree.insert(Intervals.closedOpen(2, 2)));
+    assertSame(tree, tree.remove(Intervals.closed(1, 3)));
+    assertSame(tree, tree.remove(Intervals.<Integer>empty()));
+  }
+
+  @Test
+  public void duplicates_test() {
+    PersistentIntervalTree<Integer> once =
+        PersistentIntervalTree.<Integer>empty(ORDER).insert(Intervals.closed(1, 2));
+    PersistentIntervalTree<Integer> twice = once.insert(Intervals.closed(1, 2));
+    assertEquals(2, twice.count(1));
+    assertEquals(1, twice.remove(Intervals.closed(1, 2)).count(1));
+    assertEquals(1, once.count(1));
+    assertTrue(once.remove(Intervals.closed(1, 2)).isEmpty());
+  }
+
+  @Test
+  public void publish_test() throws InterruptedException {
+    AtomicReference<PersistentIntervalTree<Integer>> current =
+        new AtomicReference<>(PersistentIntervalTree.empty(ORDER));
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 1000; i++) {
+        Interval<Integer> interval = Intervals.closed(i, i + 10);
+        current.updateAndGet(tree -> tree.insert(interval));
+      }
+    });
+    writer.start();
+    // Every version a reader sees is whole: the intervals covering 0 are [0, 10] if present.
+    while (writer.isAlive()) {
+      PersistentIntervalTree<Integer> tree = current.get();
+      assertEquals(Math.min(1, tree.size()), tree.count(0));
+      assertEquals(tree.size(), tree.count(Intervals.closed(0, 1010)));
+    }
+    writer.join();
+    assertEquals(1000, current.get().size());
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(8);
+    List<Interval<Integer>> intervals = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      int lower = random.nextInt(200);
+      int upper = lower + random.nextInt(20);
+      BoundType lowerType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                   : BoundType.Open;
+      BoundType upperType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                   : BoundType.Open;
+      intervals.add(Intervals.interval(lower, lowerType, upper, upperType));
+    }
+
+    // Build every version, checking each against an index holding the same intervals.
+    List<PersistentIntervalTree<Integer>> versions = new ArrayList<>();
+    List<List<Interval<Integer>>> contents = new ArrayList<>();
+    PersistentIntervalTree<Integer> tree = PersistentIntervalTree.build(
+        intervals.subList(0, 100), ORDER);
+    List<Interval<Integer>> content = new ArrayList<>(intervals.subList(0, 100));
+    for (int step = 0; step < 400; step++) {
+      if (content.isEmpty() || random.nextInt(3) > 0) {
+        Interval<Integer> interval = intervals.get(random.nextInt(intervals.size()));
+        tree = tree.insert(interval);
+        content.add(interval);
+      } else {
+        Interval<Integer> interval = content.remove(random.nextInt(content.size()));
+        tree = tree.remove(interval);
+      }
+      versions.add(tree);
+      contents.add(new ArrayList<>(content));
+    }
+
+    for (int v = 0; v < versions.size(); v += 7) {
+      PersistentIntervalTree<Integer> version = versions.get(v);
+      IntervalIndex<Integer> expected = IntervalIndex.build(contents.get(v), ORDER);
+      assertEquals(expected.size(), version.size());
+      for (int point = -2; point < 225; point++) {
+        assertEquals(expected.stab(point), version.stab(point));
+      }
+      for (int i = 0; i < 30; i++) {
+        int lower = random.nextInt(220);
+        Interval<Integer> query = Intervals.closedOpen(lower, lower + random.nextInt(10));
+        assertEquals(expected.overlapping(query), version.overlapping(query));
+      }
+    }
+  }
+}
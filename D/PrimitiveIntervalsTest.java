@@ -0,0 +1,241 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveIntervalsTest {
+
+  @Test
+  public void int_contains_test() {
+    IntInterval interval = IntInterval.openClosed(1, 4);
+    assertFalse(interval.contains(1));
+    assertTrue(interval.contains(2));
+    assertTrue(interval.contains(4));
+    assertFalse(interval.contains(5));
+    assertTrue(IntInterval.singleton(3).contains(3));
+    assertFalse(IntInterval.EMPTY.contains(0));
+    IntInterval all = IntInterval.closed(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    assertTrue(all.contains(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void int_empty_test() {
+    assertSame(IntInterval.EMPTY, IntInterval.closedOpen(5, 5));
+    assertSame(IntInterval.EMPTY, IntInterval.openClosed(9, 9));
+    assertTrue(IntInterval.EMPTY.isEmpty());
+    assertEquals(BoundType.Closed, IntInterval.EMPTY.lowerBoundType());
+    assertEquals(BoundType.Open, IntInterval.EMPTY.upperBoundType());
+    assertFalse(IntInterval.singleton(5).isEmpty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void int_empty_bound_test() {
+    IntInterval.EMPTY.lowerBound();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void int_reversed_test() {
+    IntInterval.closed(5, 4);
+  }
+
+  @Test
+  public void int_intersection_test() {
+    IntInterval a = IntInterval.open(1, 5);
+    IntInterval b = IntInterval.closed(3, 10);
+    assertEquals(IntInterval.closedOpen(3, 5), a.intersection(b));
+    assertEquals(IntInterval.closedOpen(3, 5), b.intersection(a));
+    assertSame(IntInterval.EMPTY, a.intersection(IntInterval.closed(5, 6)));
+    assertEquals(IntInterval.singleton(5),
+                 IntInterval.closed(0, 5).intersection(IntInterval.closed(5, 8)));
+    // Ties take the open bound.
+    assertEquals(IntInterval.openClosed(1, 5),
+                 IntInterval.open(1, 6).intersection(IntInterval.closed(1, 5)));
+    assertSame(a, a.intersection(IntInterval.closed(1, 5)));
+
+    IntInterval inner = IntInterval.closed(4, 6);
+    assertSame(inner, b.intersection(inner));
+    assertSame(inner, inner.intersection(b));
+  }
+
+  @Test
+  public void int_span_test() {
+    IntInterval a = IntInterval.open(1, 2);
+    IntInterval b = IntInterval.closed(4, 10);
+    assertEquals(IntInterval.openClosed(1, 10), a.span(b));
+    assertEquals(IntInterval.openClosed(1, 10), b.span(a));
+    // Ties take the closed bound.
+    assertEquals(IntInterval.closedOpen(1, 2), a.span(IntInterval.singleton(1)));
+    assertSame(b, b.span(IntInterval.EMPTY));
+    assertSame(b, IntInterval.EMPTY.span(b));
+    assertSame(b, b.span(IntInterval.open(4, 10)));
+  }
+
+  @Test
+  public void int_includes_test() {
+    IntInterval closed = IntInterval.closed(1, 4);
+    assertTrue(closed.includes(IntInterval.open(1, 4)));
+    assertFalse(IntInterval.open(1, 4).includes(closed));
+    assertTrue(closed.includes(IntInterval.EMPTY));
+    assertFalse(IntInterval.EMPTY.includes(closed));
+    assertFalse(closed.includes(IntInterval.closed(0, 2)));
+  }
+
+  @Test
+  public void int_adapter_test() {
+    IntInterval interval = IntInterval.closedOpen(1, 4);
+    Interval<Integer> boxed = interval.toInterval();
+    assertEquals(Intervals.closedOpen(1, 4), boxed);
+    assertTrue(boxed.contains(1));
+    assertFalse(boxed.contains(4));
+    assertSame(interval, IntInterval.from(boxed));
+    assertEquals(interval, IntInterval.from(Intervals.closedOpen(1, 4)));
+    assertSame(IntInterval.EMPTY, IntInterval.from(Intervals.empty()));
+    assertTrue(IntInterval.EMPTY.toInterval().isEmpty());
+    assertEquals("[1, 4)", interval.toString());
+  }
+
+  @Test
+  public void long_test() {
+    LongInterval interval = LongInterval.closedOpen(1L << 40, 1L << 41);
+    assertTrue(interval.contains(1L << 40));
+    assertFalse(interval.contains(1L << 41));
+    assertEquals(LongInterval.closedOpen(3L << 39, 1L << 41),
+                 interval.intersection(LongInterval.closed(3L << 39, Long.MAX_VALUE)));
+    assertEquals(LongInterval.closed(0, 1L << 41), interval.span(LongInterval.singleton(0)).span(
+        LongInterval.singleton(1L << 41)));
+    assertSame(interval, LongInterval.from(interval.toInterval()));
+    assertEquals(Intervals.closedOpen(1L << 40, 1L << 41), interval.toInterval());
+  }
+
+  @Test
+  public void double_test() {
+    DoubleInterval interval = DoubleInterval.open(0, 1);
+    assertTrue(interval.contains(0.5));
+    assertFalse(interval.contains(0));
+    assertFalse(interval.contains(Double.NaN));
+    assertEquals(DoubleInterval.closed(-0.0, 1), DoubleInterval.closed(0.0, 1));
+    assertEquals(DoubleInterval.closed(-0.0, 1).hashCode(),
+                 DoubleInterval.closed(0.0, 1).hashCode());
+    assertEquals(DoubleInterval.closedOpen(0.5, 1), interval.intersection(
+        DoubleInterval.closed(0.5, Double.POSITIVE_INFINITY)));
+    assertEquals(Intervals.open(0d, 1d), interval.toInterval());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void double_nan_test() {
+    DoubleInterval.closed(Double.NaN, 1);
+  }
+
+  @Test
+  public void bulk_test() {
+    Random random = new Random(5);
+    int[] ints = new int[1000];
+    long[] longs = new long[ints.length];
+    double[] doubles = new double[ints.length];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = random.nextInt(20) - 10;
+      longs[i] = ints[i];
+      doubles[i] = ints[i] / 2.0;
+    }
+    doubles[7] = Double.NaN;
+    long[] bitmap = new long[16];
+    for (int trial = 0; trial < 100; trial++) {
+      int lower = random.nextInt(20) - 10;
+      int upper = lower + random.nextInt(5);
+      BoundType lowerType = random.nextBoolean() ? BoundType.Closed : BoundType.Open;
+      BoundType upperType = random.nextBoolean() ? BoundType.Closed : BoundType.Open;
+      IntInterval intInterval = IntInterval.of(lower, lowerType, upper, upperType);
+      LongInterval longInterval = LongInterval.of(lower, lowerType, upper, upperType);
+      DoubleInterval doubleInterval = DoubleInterval.of(lower / 2.0, lowerType, upper / 2.0,
+                                                        upperType);
+      int expected = 0;
+      for (int value : ints) {
+        expected += intInterval.contains(value) ? 1 : 0;
+      }
+      assertEquals(expected, intInterval.countContained(ints));
+      assertEquals(expected, longInterval.countContained(longs));
+      assertEquals(intInterval.countContained(ints, 10, 500),
+                   longInterval.countContained(longs, 10, 500));
+
+      Arrays.fill(bitmap, -1L);
+      assertEquals(doubleInterval.countContained(doubles),
+                   doubleInterval.containsAll(doubles, bitmap));
+      for (int i = 0; i < doubles.length; i++) {
+        assertEquals(doubleInterval.contains(doubles[i]), (bitmap[i >>> 6] & 1L << i) != 0);
+      }
+      assertEquals(0, bitmap[15] >>> (doubles.length & 63));
+      assertEquals(expected, intInterval.containsAll(ints, bitmap));
+      assertEquals(expected, longInterval.containsAll(longs, bitmap));
+    }
+  }
+
+  @Test
+  public void bulk_lengths_test() {
+    // Lengths and offsets that leave partial vectors and partial bitmap words.
+    Random random = new Random(6);
+    IntInterval intInterval = IntInterval.closedOpen(-3, 4);
+    LongInterval longInterval = LongInterval.openClosed(-3, 4);
+    DoubleInterval doubleInterval = DoubleInterval.closed(-1.5, 2);
+    for (int length = 0; length < 200; length += 1 + random.nextInt(9)) {
+      int[] ints = new int[length];
+      long[] longs = new long[length];
+      double[] doubles = new double[length];
+      for (int i = 0; i < length; i++) {
+        ints[i] = random.nextInt(16) - 8;
+        longs[i] = ints[i];
+        doubles[i] = ints[i] / 2.0;
+      }
+      long[] bitmap = new long[(length + 63) >>> 6];
+      int from = length == 0 ? 0 : random.nextInt(length);
+      int intCount = 0;
+      int longCount = 0;
+      int doubleCount = 0;
+      for (int i = from; i < length; i++) {
+        intCount += intInterval.contains(ints[i]) ? 1 : 0;
+        longCount += longInterval.contains(longs[i]) ? 1 : 0;
+        doubleCount += doubleInterval.contains(doubles[i]) ? 1 : 0;
+      }
+      assertEquals(intCount, intInterval.countContained(ints, from, length));
+      assertEquals(longCount, longInterval.countContained(longs, from, length));
+      assertEquals(doubleCount, doubleInterval.countContained(doubles, from, length));
+
+      intInterval.containsAll(ints, bitmap);
+      for (int i = 0; i < length; i++) {
+        assertEquals(intInterval.contains(ints[i]), (bitmap[i >>> 6] & 1L << i) != 0);
+      }
+      longInterval.containsAll(longs, bitmap);
+      for (int i = 0; i < length; i++) {
+        assertEquals(longInterval.contains(longs[i]), (bitmap[i >>> 6] & 1L << i) != 0);
+      }
+      doubleInterval.containsAll(doubles, bitmap);
+      for (int i = 0; i < length; i++) {
+        assertEquals(doubleInterval.contains(doubles[i]), (bitmap[i >>> 6] & 1L << i) != 0);
+      }
+    }
+  }
+
+  @Test
+  public void bulk_extremes_test() {
+    long[] longs = {Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE};
+    assertEquals(5, LongInterval.closed(Long.MIN_VALUE, Long.MAX_VALUE).countContained(longs));
+    assertEquals(3, LongInterval.open(Long.MIN_VALUE, Long.MAX_VALUE).countContained(longs));
+    assertEquals(0, LongInterval.EMPTY.countContained(longs));
+    int[] ints = {Integer.MIN_VALUE, 0, Integer.MAX_VALUE};
+    assertEquals(2, IntInterval.openClosed(Integer.MIN_VALUE, Integer.MAX_VALUE)
+        .countContained(ints));
+    double[] doubles = {Double.NEGATIVE_INFINITY, -0.0, Double.POSITIVE_INFINITY, Double.NaN};
+    assertEquals(1, DoubleInterval.open(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)
+        .countContained(doubles));
+    assertEquals(2, DoubleInterval.closed(0.0, Double.POSITIVE_INFINITY).countContained(doubles));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void bulk_bitmap_test() {
+    LongInterval.closed(0, 1).containsAll(new long[65], new long[1]);
+  }
+}
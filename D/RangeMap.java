@@ -0,0 +1,90 @@
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A mapping from disjoint intervals of keys to values. Looking up a point finds the value of the
+ * interval containing it, if any. Putting an interval overwrites whatever it overlaps: intervals
+ * it covers are removed, and intervals it cuts through are split around it.
+ *
+ * <p>Two implementations are provided: {@link TreeRangeMap}, which is mutable, and {@link
+ * ArrayRangeMap}, a read-only copy in sorted arrays that takes less memory and searches faster.
+ *
+ * @param <K> the type of the interval endpoints
+ * @param <V> the type of the values
+ */
+public interface RangeMap<K, V> {
+
+  /**
+   * Returns the order of the keys, which all the intervals share.
+   *
+   * @return the comparator
+   */
+  Comparator<K> comparator();
+
+  /**
+   * Returns the value of the interval containing a point.
+   *
+   * @param point the point to look up
+   * @return the value, or null if no interval contains the point
+   */
+  V get(K point);
+
+  /**
+   * Returns the interval containing a point, along with its value.
+   *
+   * @param point the point to look up
+   * @return the entry, or null if no interval contains the point
+   */
+  Map.Entry<Interval<K>, V> getEntry(K point);
+
+  /**
+   * Returns the number of disjoint intervals in the map.
+   *
+   * @return the number of entries
+   */
+  int size();
+
+  /**
+   * Determines whether the map has no entries.
+   *
+   * @return whether it is empty
+   */
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the entries of the map in ascending order of their intervals.
+   *
+   * @return a read-only snapshot of the entries
+   */
+  List<Map.Entry<Interval<K>, V>> entries();
+
+  /**
+   * Maps every point of an interval to a value, replacing what was there before.
+   *
+   * @param interval the interval to map; nothing happens if it is empty
+   * @param value    the value (non-null)
+   * @throws UnsupportedOperationException if the map is read-only
+   */
+  void put(Interval<K> interval, V value);
+
+  /**
+   * Maps every point of an interval to a value like {@link #put}, and then merges the interval
+   * with any neighbour it connects to that has an equal value.
+   *
+   * @param interval the interval to map; nothing happens if it is empty
+   * @param value    the value (non-null)
+   * @throws UnsupportedOperationException if the map is read-only
+   */
+  void putCoalescing(Interval<K> interval, V value);
+
+  /**
+   * Unmaps every point of an interval, splitting the intervals it cuts through.
+   *
+   * @param interval the interval to unmap
+   * @throws UnsupportedOperationException if the map is read-only
+   */
+  void remove(Interval<K> interval);
+}
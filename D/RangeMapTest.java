@@ -0,0 +1,123 @@
+import org.junit.Test;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RangeMapTest {
+
+  private static TreeRangeMap<Integer, String> newMap() {
+    return new TreeRangeMap<Integer, String>(Comparator.naturalOrder());
+  }
+
+  @Test
+  public void get_test() {
+    RangeMap<Integer, String> map = newMap();
+    map.put(Intervals.closed(1, 2), "a");
+    map.put(Intervals.openClosed(2, 5), "b");
+    assertEquals("a", map.get(1));
+    assertEquals("a", map.get(2));
+    assertEquals("b", map.get(3));
+    assertNull(map.get(6));
+    assertNull(map.get(0));
+    assertEquals(Intervals.openClosed(2, 5), map.getEntry(5).getKey());
+
+    RangeMap<Integer, String> array = ArrayRangeMap.copyOf(map);
+    assertEquals("a", array.get(2));
+    assertEquals("b", array.get(3));
+    assertNull(array.get(6));
+    assertEquals(map, array);
+  }
+
+  @Test
+  public void put_splits_test() {
+    RangeMap<Integer, String> map = newMap();
+    map.put(Intervals.closed(0, 10), "a");
+    map.put(Intervals.open(3, 5), "b");
+    assertEquals(Arrays.asList(entry(Intervals.closed(0, 3), "a"),
+                               entry(Intervals.open(3, 5), "b"),
+                               entry(Intervals.closed(5, 10), "a")), map.entries());
+    map.put(Intervals.closed(2, 8), "c");
+    assertEquals(Arrays.asList(entry(Intervals.closedOpen(0, 2), "a"),
+                               entry(Intervals.closed(2, 8), "c"),
+                               entry(Intervals.openClosed(8, 10), "a")), map.entries());
+    map.remove(Intervals.closed(0, 9));
+    assertEquals(Arrays.asList(entry(Intervals.openClosed(9, 10), "a")), map.entries());
+  }
+
+  @Test
+  public void put_coalescing_test() {
+    RangeMap<Integer, String> map = newMap();
+    map.putCoalescing(Intervals.closedOpen(0, 2), "a");
+    map.putCoalescing(Intervals.closedOpen(4, 6), "a");
+    map.putCoalescing(Intervals.closedOpen(6, 8), "b");
+    map.putCoalescing(Intervals.closedOpen(2, 4), "a");
+    assertEquals(Arrays.asList(entry(Intervals.closedOpen(0, 6), "a"),
+                               entry(Intervals.closedOpen(6, 8), "b")), map.entries());
+    // (8, 9] doesn't touch [6, 8), since 8 is in neither.
+    map.putCoalescing(Intervals.openClosed(8, 9), "b");
+    assertEquals(3, map.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void array_overlap_test() {
+    ArrayRangeMap.build(Arrays.asList(entry(Intervals.closed(0, 2), "a"),
+                                      entry(Intervals.closed(2, 3), "b")),
+                        Comparator.<Integer>naturalOrder());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void array_read_only_test() {
+    ArrayRangeMap.copyOf(newMap()).put(Intervals.closed(0, 1), "a");
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(9);
+    TreeRangeMap<Double, Integer> map = new TreeRangeMap<Double, Integer>(
+        Comparator.naturalOrder());
+    Integer[] expected = new Integer[202];
+    for (int i = 0; i < 300; i++) {
+      int lower = random.nextInt(100);
+      int upper = lower + random.nextInt(10);
+      BoundType lowerType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                   : BoundType.Open;
+      BoundType upperType = lower == upper || random.nextBoolean() ? BoundType.Closed
+                                                                   : BoundType.Open;
+      Interval<Double> interval = Intervals.interval((double) lower, lowerType, (double) upper,
+                                                     upperType);
+      Integer value = random.nextInt(3) == 0 ? null : random.nextInt(3);
+      if (value == null) {
+        map.remove(interval);
+      } else if (random.nextBoolean()) {
+        map.put(interval, value);
+      } else {
+        map.putCoalescing(interval, value);
+      }
+      for (int j = 0; j < expected.length; j++) {
+        if (interval.contains(j / 2.0)) {
+          expected[j] = value;
+        }
+      }
+    }
+    ArrayRangeMap<Double, Integer> array = ArrayRangeMap.copyOf(map);
+    List<Map.Entry<Interval<Double>, Integer>> entries = map.entries();
+    ArrayRangeMap<Double, Integer> rebuilt = ArrayRangeMap.build(entries,
+                                                                 Comparator.naturalOrder());
+    for (int j = 0; j < expected.length; j++) {
+      assertEquals(expected[j], map.get(j / 2.0));
+      assertEquals(expected[j], array.get(j / 2.0));
+      assertEquals(expected[j], rebuilt.get(j / 2.0));
+    }
+  }
+
+  private static <K, V> Map.Entry<Interval<K>, V> entry(Interval<K> interval, V value) {
+    return new SimpleImmutableEntry<>(interval, value);
+  }
+}
@@ -0,0 +1,487 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A set of values made up of disjoint intervals, such as [1, 2] &cup; [4, 5], which unlike {@link
+ * Interval#span(Interval)} leaves the gaps out. The intervals are kept coalesced: any two that
+ * overlap or touch at a value one of them includes, such as [1, 2) and [2, 3], are stored as one,
+ * while [1, 2) and (2, 3] stay apart since 2 is in neither.
+ *
+ * <p>{@link #contains(Object)}, {@link #encloses(Interval)}, {@link #add(Interval)} and {@link
+ * #remove(Interval)} take <em>O</em>(log n) time, plus the number of stored intervals they merge
+ * or split. {@link #union(RangeSet)}, {@link #intersection(RangeSet)} and {@link
+ * #complement(Interval)} build new sets by a single linear pass over the sorted intervals.
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @param <T> the type of the interval endpoints
+ */
+public final class RangeSet<T> implements Iterable<Interval<T>> {
+
+  // The order of the values:
+  private final Comparator<T> comparator;
+
+  // The intervals, keyed by their lower bounds:
+  private final TreeMap<T, Interval<T>> ranges;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - ranges maps the lower bound of each interval to the interval, and every interval is
+   *    non-empty
+   *  - no two intervals are connected (see IntervalComparisons.connected)
+   *
+   * REPRESENTATION NOTE:
+   *
+   * Two intervals with the same lower bound always overlap, so keying by the bare value, without
+   * its bound type, is enough. The interval holding a value, if any, is then the floor entry of
+   * the value: if that entry starts open at the value, the entry before it can't end closed there
+   * or the two would have been coalesced.
+   *
+   * An interval being added or removed can still reach back past the floor entry, as [2, 2] does
+   * to [1, 2) when (2, 3] is stored, so those walks start one entry earlier.
+   */
+
+  /**
+   * Creates an empty set ordered by {@code comparator}.
+   *
+   * @param comparator the order of the values, which must agree with that of the intervals added
+   */
+  public RangeSet(Comparator<T> comparator) {
+    this.comparator = comparator;
+    ranges = new TreeMap<>(comparator);
+  }
+
+  /**
+   * Creates a set from intervals that are already sorted, disjoint and coalesced, in linear time.
+   */
+  static <T> RangeSet<T> fromSorted(Comparator<T> comparator, List<Interval<T>> sorted) {
+    RangeSet<T> set = new RangeSet<>(comparator);
+    set.ranges.putAll(new SortedView<>(comparator, sorted));
+    return set;
+  }
+
+  /**
+   * Returns the order of the values in this set.
+   *
+   * @return the comparator
+   */
+  public Comparator<T> comparator() {
+    return comparator;
+  }
+
+  /**
+   * Determines whether this set has no values.
+   *
+   * @return whether it is empty
+   */
+  public boolean isEmpty() {
+    return ranges.isEmpty();
+  }
+
+  /**
+   * Returns the number of disjoint intervals making up this set.
+   *
+   * @return the number of intervals
+   */
+  public int size() {
+    return ranges.size();
+  }
+
+  /**
+   * Returns the disjoint intervals making up this set, in ascending order. The iterator does not
+   * support removal.
+   *
+   * @return an iterator over the intervals
+   */
+  @Override
+  public Iterator<Interval<T>> iterator() {
+    return Collections.unmodifiableCollection(ranges.values()).iterator();
+  }
+
+  /**
+   * Returns the smallest interval including every value of this set.
+   *
+   * @return the span, which is empty if this set is
+   */
+  public Interval<T> span() {
+    if (ranges.isEmpty()) {
+      return Intervals.empty(comparator);
+    }
+    return join(ranges.firstEntry().getValue(), ranges.lastEntry().getValue());
+  }
+
+  /**
+   * Determines whether a value lies in this set.
+   *
+   * @param value the value to check
+   * @return whether it is in one of the intervals
+   */
+  public boolean contains(T value) {
+    Map.Entry<T, Interval<T>> floor = ranges.floorEntry(value);
+    return floor != null && floor.getValue().contains(value);
+  }
+
+  /**
+   * Determines whether every value of an interval lies in this set.
+   *
+   * @param interval the interval to check
+   * @return whether one of the intervals of this set includes it
+   */
+  public boolean encloses(Interval<T> interval) {
+    if (interval.isEmpty()) {
+      return true;
+    }
+    Map.Entry<T, Interval<T>> floor = ranges.floorEntry(interval.lowerBound());
+    return floor != null && includes(floor.getValue(), interval);
+  }
+
+  /**
+   * Adds every value of an interval to this set, merging it with the intervals it connects to.
+   *
+   * @param interval the interval to add
+   */
+  public void add(Interval<T> interval) {
+    if (interval.isEmpty()) {
+      return;
+    }
+    Interval<T> merged = interval;
+    Iterator<Interval<T>> itr = from(interval.lowerBound());
+    while (itr.hasNext()) {
+      Interval<T> next = itr.next();
+      if (IntervalComparisons.connected(next, merged, comparator)) {
+        merged = join(next, merged);
+        itr.remove();
+      } else if (!IntervalComparisons.before(next, merged, comparator)) {
+        // Only the first couple of intervals can end before the new one; this one is past it.
+        break;
+      }
+    }
+    ranges.put(merged.lowerBound(), merged);
+  }
+
+  /**
+   * Adds every value of several intervals to this set.
+   *
+   * @param intervals the intervals to add
+   */
+  public void addAll(Iterable<? extends Interval<T>> intervals) {
+    for (Interval<T> interval : intervals) {
+      add(interval);
+    }
+  }
+
+  /**
+   * Removes every value of an interval from this set, splitting the intervals it cuts through.
+   *
+   * @param interval the interval to remove
+   */
+  public void remove(Interval<T> interval) {
+    if (interval.isEmpty()) {
+      return;
+    }
+    List<Interval<T>> pieces = new ArrayList<>(2);
+    Iterator<Interval<T>> itr = from(interval.lowerBound());
+    while (itr.hasNext()) {
+      Interval<T> next = itr.next();
+      if (IntervalComparisons.before(interval, next, comparator)) {
+        break;
+      }
+      if (IntervalComparisons.before(next, interval, comparator)) {
+        continue;
+      }
+      itr.remove();
+      if (IntervalComparisons.compareLower(next, interval, comparator) < 0) {
+        pieces.add(Intervals.interval(next.lowerBound(), next.lowerBoundType(),
+                                      interval.lowerBound(),
+                                      IntervalComparisons.flip(interval.lowerBoundType()),
+                                      comparator));
+      }
+      if (IntervalComparisons.compareUpper(next, interval, comparator) > 0) {
+        pieces.add(Intervals.interval(interval.upperBound(),
+                                      IntervalComparisons.flip(interval.upperBoundType()),
+                                      next.upperBound(), next.upperBoundType(), comparator));
+      }
+    }
+    for (Interval<T> piece : pieces) {
+      ranges.put(piece.lowerBound(), piece);
+    }
+  }
+
+  /**
+   * Returns the union of this set and another, in time linear in their sizes.
+   *
+   * @param other the other set, with the same order
+   * @return a new set with the values of both
+   */
+  public RangeSet<T> union(RangeSet<T> other) {
+    List<Interval<T>> xs = new ArrayList<>(ranges.values());
+    List<Interval<T>> ys = new ArrayList<>(other.ranges.values());
+    List<Interval<T>> result = new ArrayList<>(xs.size() + ys.size());
+    Interval<T> current = null;
+    int i = 0;
+    int j = 0;
+    while (i < xs.size() || j < ys.size()) {
+      Interval<T> next;
+      if (j == ys.size()
+          || i < xs.size() && IntervalComparisons.compareLower(xs.get(i), ys.get(j), comparator)
+                              <= 0) {
+        next = xs.get(i++);
+      } else {
+        next = ys.get(j++);
+      }
+      if (current != null && IntervalComparisons.connected(current, next, comparator)) {
+        current = join(current, next);
+      } else {
+        if (current != null) {
+          result.add(current);
+        }
+        current = next;
+      }
+    }
+    if (current != null) {
+      result.add(current);
+    }
+    return fromSorted(comparator, result);
+  }
+
+  /**
+   * Returns the intersection of this set and another, in time linear in their sizes.
+   *
+   * @param other the other set, with the same order
+   * @return a new set with the values in both
+   */
+  public RangeSet<T> intersection(RangeSet<T> other) {
+    List<Interval<T>> xs = new ArrayList<>(ranges.values());
+    List<Interval<T>> ys = new ArrayList<>(other.ranges.values());
+    List<Interval<T>> result = new ArrayList<>();
+    int i = 0;
+    int j = 0;
+    while (i < xs.size() && j < ys.size()) {
+      Interval<T> x = xs.get(i);
+      Interval<T> y = ys.get(j);
+      if (IntervalComparisons.overlaps(x, y, comparator)) {
+        result.add(meet(x, y));
+      }
+      // Whichever ends first can't overlap anything further in the other set.
+      if (IntervalComparisons.compareUpper(x, y, comparator) <= 0) {
+        ++i;
+      } else {
+        ++j;
+      }
+    }
+    return fromSorted(comparator, result);
+  }
+
+  /**
+   * Returns the values of an interval that are not in this set.
+   *
+   * @param universe the interval to complement within
+   * @return a new set with the values of {@code universe} missing from this one
+   */
+  public RangeSet<T> complement(Interval<T> universe) {
+    List<Interval<T>> result = new ArrayList<>();
+    if (universe.isEmpty()) {
+      return fromSorted(comparator, result);
+    }
+
+    // The start of the next gap, which is null once the universe is used up:
+    T gapLower = universe.lowerBound();
+    BoundType gapLowerType = universe.lowerBoundType();
+
+    Iterator<Interval<T>> itr = from(universe.lowerBound());
+    while (itr.hasNext()) {
+      Interval<T> next = itr.next();
+      if (IntervalComparisons.before(next, universe, comparator)) {
+        continue;
+      }
+      if (IntervalComparisons.before(universe, next, comparator)) {
+        break;
+      }
+      addIfNonEmpty(result, gapLower, gapLowerType, next.lowerBound(),
+                    IntervalComparisons.flip(next.lowerBoundType()));
+      if (IntervalComparisons.compareUpper(next, universe, comparator) >= 0) {
+        gapLower = null;
+        break;
+      }
+      gapLower = next.upperBound();
+      gapLowerType = IntervalComparisons.flip(next.upperBoundType());
+    }
+    if (gapLower != null) {
+      addIfNonEmpty(result, gapLower, gapLowerType, universe.upperBound(),
+                    universe.upperBoundType());
+    }
+    return fromSorted(comparator, result);
+  }
+
+  /**
+   * Appends the interval with the given bounds to {@code result} if it has any values.
+   */
+  private void addIfNonEmpty(List<Interval<T>> result, T lower, BoundType lowerType, T upper,
+                             BoundType upperType) {
+    int cmp = comparator.compare(lower, upper);
+    if (cmp < 0 || cmp == 0 && lowerType.isClosed() && upperType.isClosed()) {
+      result.add(Intervals.interval(lower, lowerType, upper, upperType, comparator));
+    }
+  }
+
+  /**
+   * Returns an iterator over the intervals from the last one starting strictly before {@code
+   * value} onwards.
+   */
+  private Iterator<Interval<T>> from(T value) {
+    T start = ranges.lowerKey(value);
+    NavigableMap<T, Interval<T>> tail = start == null ? ranges : ranges.tailMap(start, true);
+    return tail.values().iterator();
+  }
+
+  /**
+   * Returns the smallest interval including two non-empty intervals, reusing one of them if it
+   * does.
+   */
+  private Interval<T> join(Interval<T> a, Interval<T> b) {
+    Interval<T> lower = IntervalComparisons.compareLower(a, b, comparator) <= 0 ? a : b;
+    Interval<T> upper = IntervalComparisons.compareUpper(a, b, comparator) >= 0 ? a : b;
+    return combine(lower, upper);
+  }
+
+  /**
+   * Returns the intersection of two overlapping intervals, reusing one of them if it is that.
+   */
+  private Interval<T> meet(Interval<T> a, Interval<T> b) {
+    Interval<T> lower = IntervalComparisons.compareLower(a, b, comparator) >= 0 ? a : b;
+    Interval<T> upper = IntervalComparisons.compareUpper(a, b, comparator) <= 0 ? a : b;
+    return combine(lower, upper);
+  }
+
+  /**
+   * Returns the interval from the lower bound of one interval to the upper bound of another.
+   */
+  private Interval<T> combine(Interval<T> lower, Interval<T> upper) {
+    if (lower == upper) {
+      return lower;
+    }
+    return Intervals.interval(lower.lowerBound(), lower.lowerBoundType(), upper.upperBound(),
+                              upper.upperBoundType(), comparator);
+  }
+
+  /**
+   * Whether the non-empty interval {@code outer} includes the non-empty interval {@code inner}.
+   */
+  private boolean includes(Interval<T> outer, Interval<T> inner) {
+    return IntervalComparisons.compareLower(outer, inner, comparator) <= 0
+           && IntervalComparisons.compareUpper(outer, inner, comparator) >= 0;
+  }
+
+  /**
+   * Determines whether two sets have the same values, that is, the same intervals.
+   *
+   * @param other the object to compare to this set
+   * @return whether it is an equal set
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof RangeSet)) {
+      return false;
+    }
+    RangeSet<?> that = (RangeSet<?>) other;
+    return new ArrayList<>(ranges.values()).equals(new ArrayList<>(that.ranges.values()));
+  }
+
+  @Override
+  public int hashCode() {
+    return new ArrayList<>(ranges.values()).hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return ranges.values().toString();
+  }
+
+  /**
+   * A read-only sorted map over a list of sorted, disjoint intervals, keyed by lower bound. Handing
+   * one to {@link TreeMap#putAll} on an empty map with the same comparator lets it link the tree
+   * in linear time instead of inserting one entry at a time.
+   */
+  private static final class SortedView<T> extends AbstractMap<T, Interval<T>>
+      implements SortedMap<T, Interval<T>> {
+
+    private final Comparator<T> comparator;
+    private final List<Interval<T>> sorted;
+
+    SortedView(Comparator<T> comparator, List<Interval<T>> sorted) {
+      this.comparator = comparator;
+      this.sorted = sorted;
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+      return comparator;
+    }
+
+    @Override
+    public Set<Entry<T, Interval<T>>> entrySet() {
+      return new AbstractSet<Entry<T, Interval<T>>>() {
+        @Override
+        public Iterator<Entry<T, Interval<T>>> iterator() {
+          Iterator<Interval<T>> itr = sorted.iterator();
+          return new Iterator<Entry<T, Interval<T>>>() {
+            @Override
+            public boolean hasNext() {
+              return itr.hasNext();
+            }
+
+            @Override
+            public Entry<T, Interval<T>> next() {
+              Interval<T> interval = itr.next();
+              return new SimpleImmutableEntry<>(interval.lowerBound(), interval);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return sorted.size();
+        }
+      };
+    }
+
+    @Override
+    public T firstKey() {
+      return sorted.get(0).lowerBound();
+    }
+
+    @Override
+    public T lastKey() {
+      return sorted.get(sorted.size() - 1).lowerBound();
+    }
+
+    @Override
+    public SortedMap<T, Interval<T>> subMap(T fromKey, T toKey) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedMap<T, Interval<T>> headMap(T toKey) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedMap<T, Interval<T>> tailMap(T fromKey) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,153 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RangeSetTest {
+
+  private static RangeSet<Integer> of(List<Interval<Integer>> intervals) {
+    RangeSet<Integer> set = new RangeSet<Integer>(Comparator.naturalOrder());
+    set.addAll(intervals);
+    return set;
+  }
+
+  private static List<Interval<Integer>> intervals(RangeSet<Integer> set) {
+    List<Interval<Integer>> result = new ArrayList<>();
+    set.forEach(result::add);
+    return result;
+  }
+
+  @Test
+  public void add_test() {
+    RangeSet<Integer> set = of(Arrays.asList(Intervals.closed(1, 2), Intervals.closed(4, 5)));
+    assertEquals(2, set.size());
+    assertTrue(set.contains(2));
+    assertFalse(set.contains(3));
+    assertTrue(set.contains(4));
+
+    // [2, 4) touches [1, 2] at 2 and [4, 5] at 4, so everything coalesces.
+    set.add(Intervals.closedOpen(2, 4));
+    assertEquals(Arrays.asList(Intervals.closed(1, 5)), intervals(set));
+  }
+
+  @Test
+  public void adjacency_test() {
+    RangeSet<Integer> set = of(Arrays.asList(Intervals.closedOpen(1, 2),
+                                             Intervals.openClosed(2, 3)));
+    // Neither includes 2, so they stay apart.
+    assertEquals(2, set.size());
+    assertFalse(set.contains(2));
+    set.add(Intervals.singleton(2));
+    assertEquals(Arrays.asList(Intervals.closed(1, 3)), intervals(set));
+  }
+
+  @Test
+  public void remove_test() {
+    RangeSet<Integer> set = of(Arrays.asList(Intervals.closed(1, 10), Intervals.closed(20, 30)));
+    set.remove(Intervals.closed(5, 25));
+    assertEquals(Arrays.asList(Intervals.closedOpen(1, 5), Intervals.openClosed(25, 30)),
+                 intervals(set));
+    set.remove(Intervals.open(1, 5));
+    assertEquals(Arrays.asList(Intervals.singleton(1), Intervals.openClosed(25, 30)),
+                 intervals(set));
+    set.remove(Intervals.closed(0, 40));
+    assertTrue(set.isEmpty());
+  }
+
+  @Test
+  public void encloses_test() {
+    RangeSet<Integer> set = of(Arrays.asList(Intervals.open(1, 4), Intervals.closed(6, 8)));
+    assertTrue(set.encloses(Intervals.open(1, 4)));
+    assertFalse(set.encloses(Intervals.closed(1, 3)));
+    assertFalse(set.encloses(Intervals.closed(3, 7)));
+    assertTrue(set.encloses(Intervals.<Integer>empty()));
+    assertEquals(Intervals.openClosed(1, 8), set.span());
+  }
+
+  @Test
+  public void set_algebra_test() {
+    RangeSet<Integer> a = of(Arrays.asList(Intervals.closed(1, 3), Intervals.closed(6, 9)));
+    RangeSet<Integer> b = of(Arrays.asList(Intervals.open(3, 6), Intervals.closed(8, 12)));
+
+    assertEquals(Arrays.asList(Intervals.closed(1, 12)), intervals(a.union(b)));
+    assertEquals(Arrays.asList(Intervals.closed(8, 9)), intervals(a.intersection(b)));
+    assertEquals(Arrays.asList(Intervals.closedOpen(0, 1), Intervals.open(3, 6),
+                               Intervals.open(9, 10)),
+                 intervals(a.complement(Intervals.closedOpen(0, 10))));
+    assertEquals(Arrays.asList(Intervals.open(3, 6)),
+                 intervals(a.complement(Intervals.closed(2, 7))));
+  }
+
+  @Test
+  public void random_test() {
+    Random random = new Random(5);
+    for (int round = 0; round < 50; round++) {
+      RangeSet<Double> a = new RangeSet<Double>(Comparator.naturalOrder());
+      RangeSet<Double> b = new RangeSet<Double>(Comparator.naturalOrder());
+      boolean[] inA = new boolean[202];
+      boolean[] inB = new boolean[202];
+      for (int i = 0; i < 20; i++) {
+        apply(a, inA, random);
+        apply(b, inB, random);
+      }
+      Interval<Double> universe = Intervals.closed(10d, 90d);
+      RangeSet<Double> union = a.union(b);
+      RangeSet<Double> intersection = a.intersection(b);
+      RangeSet<Double> complement = a.complement(universe);
+      // Probe every half so that open and closed bounds both show.
+      for (int i = 0; i < 202; i++) {
+        double point = i / 2.0;
+        assertEquals(inA[i], a.contains(point));
+        assertEquals(inA[i] || inB[i], union.contains(point));
+        assertEquals(inA[i] && inB[i], intersection.contains(point));
+        assertEquals(!inA[i] && universe.contains(point), complement.contains(point));
+      }
+      // Coalesced means no two neighbours are connected.
+      Interval<Double> previous = null;
+      for (Interval<Double> interval : union) {
+        if (previous != null) {
+          assertFalse(previous.upperBound() > interval.lowerBound());
+          assertFalse(previous.upperBound().equals(interval.lowerBound())
+                      && (previous.upperBoundType().isClosed()
+                          || interval.lowerBoundType().isClosed()));
+        }
+        previous = interval;
+      }
+    }
+  }
+
+  /**
+   * Adds or removes a random interval, doing the same to a bitmap of half-steps.
+   */
+  private static void apply(RangeSet<Double> set, boolean[] bits, Random random) {
+    int lower = random.nextInt(100);
+    int upper = lower + random.nextInt(15);
+    BoundType lowerType = random.nextBoolean() ? BoundType.Open : BoundType.Closed;
+    BoundType upperType = lower == upper ? BoundType.Closed
+                                         : random.nextBoolean() ? BoundType.Open
+                                                                : BoundType.Closed;
+    if (lower == upper) {
+      lowerType = BoundType.Closed;
+    }
+    Interval<Double> interval = Intervals.interval((double) lower, lowerType, (double) upper,
+                                                   upperType);
+    boolean add = random.nextInt(3) > 0;
+    if (add) {
+      set.add(interval);
+    } else {
+      set.remove(interval);
+    }
+    for (int i = 0; i < bits.length; i++) {
+      if (interval.contains(i / 2.0)) {
+        bits[i] = add;
+      }
+    }
+  }
+}
@@ -0,0 +1,196 @@
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * A mutable {@link RangeMap} kept in a {@link TreeMap} keyed by lower bound. Lookups take
+ * <em>O</em>(log n) time, and so do updates, plus the number of entries they remove or split.
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @param <K> the type of the interval endpoints
+ * @param <V> the type of the values
+ */
+public final class TreeRangeMap<K, V> implements RangeMap<K, V> {
+
+  // The order of the keys:
+  private final Comparator<K> comparator;
+
+  // The intervals and their values, ordered by lower bound:
+  private final TreeMap<Interval<K>, V> entries;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - entries is ordered by IntervalComparisons.compareLower
+   *  - the intervals are non-empty and pairwise disjoint, and the values are non-null
+   *
+   * REPRESENTATION NOTE:
+   *
+   * Unlike RangeSet, touching intervals aren't merged, so [2, 2] and (2, 3] may both be present.
+   * The map is therefore keyed by whole lower bounds, bound type included, under which disjoint
+   * intervals are still distinct. The interval containing a point, if any, is the floor of the
+   * singleton interval at that point.
+   */
+
+  /**
+   * Creates an empty map ordered by {@code comparator}.
+   *
+   * @param comparator the order of the keys, which must agree with that of the intervals put
+   */
+  public TreeRangeMap(Comparator<K> comparator) {
+    this.comparator = comparator;
+    entries = new TreeMap<>((a, b) -> IntervalComparisons.compareLower(a, b, comparator));
+  }
+
+  @Override
+  public Comparator<K> comparator() {
+    return comparator;
+  }
+
+  @Override
+  public V get(K point) {
+    Map.Entry<Interval<K>, V> entry = getEntry(point);
+    return entry == null ? null : entry.getValue();
+  }
+
+  @Override
+  public Map.Entry<Interval<K>, V> getEntry(K point) {
+    Map.Entry<Interval<K>, V> floor = entries.floorEntry(Intervals.singleton(point, comparator));
+    if (floor == null || !floor.getKey().contains(point)) {
+      return null;
+    }
+    return new SimpleImmutableEntry<>(floor);
+  }
+
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public List<Map.Entry<Interval<K>, V>> entries() {
+    List<Map.Entry<Interval<K>, V>> result = new ArrayList<>(entries.size());
+    for (Map.Entry<Interval<K>, V> entry : entries.entrySet()) {
+      result.add(new SimpleImmutableEntry<>(entry));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  @Override
+  public void put(Interval<K> interval, V value) {
+    Objects.requireNonNull(value, "value");
+    if (interval.isEmpty()) {
+      return;
+    }
+    remove(interval);
+    entries.put(interval, value);
+  }
+
+  @Override
+  public void putCoalescing(Interval<K> interval, V value) {
+    Objects.requireNonNull(value, "value");
+    if (interval.isEmpty()) {
+      return;
+    }
+    remove(interval);
+
+    Interval<K> merged = interval;
+    Map.Entry<Interval<K>, V> before = entries.lowerEntry(interval);
+    if (before != null && mergeable(before, merged, value)) {
+      merged = join(before.getKey(), merged);
+      entries.remove(before.getKey());
+    }
+    Map.Entry<Interval<K>, V> after = entries.higherEntry(interval);
+    if (after != null && mergeable(after, merged, value)) {
+      merged = join(merged, after.getKey());
+      entries.remove(after.getKey());
+    }
+    entries.put(merged, value);
+  }
+
+  @Override
+  public void remove(Interval<K> interval) {
+    if (interval.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<Interval<K>, V>> pieces = new ArrayList<>(2);
+    Interval<K> start = entries.floorKey(interval);
+    NavigableMap<Interval<K>, V> tail = start == null ? entries : entries.tailMap(start, true);
+    Iterator<Map.Entry<Interval<K>, V>> itr = tail.entrySet().iterator();
+    while (itr.hasNext()) {
+      Map.Entry<Interval<K>, V> next = itr.next();
+      Interval<K> range = next.getKey();
+      if (IntervalComparisons.before(interval, range, comparator)) {
+        break;
+      }
+      if (IntervalComparisons.before(range, interval, comparator)) {
+        continue;
+      }
+      V value = next.getValue();
+      itr.remove();
+      if (IntervalComparisons.compareLower(range, interval, comparator) < 0) {
+        Interval<K> piece = Intervals.interval(range.lowerBound(), range.lowerBoundType(),
+                                               interval.lowerBound(),
+                                               IntervalComparisons.flip(interval.lowerBoundType()),
+                                               comparator);
+        pieces.add(new SimpleImmutableEntry<>(piece, value));
+      }
+      if (IntervalComparisons.compareUpper(range, interval, comparator) > 0) {
+        Interval<K> piece = Intervals.interval(interval.upperBound(),
+                                               IntervalComparisons.flip(interval.upperBoundType()),
+                                               range.upperBound(), range.upperBoundType(),
+                                               comparator);
+        pieces.add(new SimpleImmutableEntry<>(piece, value));
+      }
+    }
+    for (Map.Entry<Interval<K>, V> piece : pieces) {
+      entries.put(piece.getKey(), piece.getValue());
+    }
+  }
+
+  /**
+   * Whether an entry has an equal value and an interval connected to {@code interval}.
+   */
+  private boolean mergeable(Map.Entry<Interval<K>, V> entry, Interval<K> interval, V value) {
+    return entry.getValue().equals(value)
+           && IntervalComparisons.connected(entry.getKey(), interval, comparator);
+  }
+
+  /**
+   * Returns the interval from the lower bound of {@code first} to the upper bound of {@code
+   * second}, which are connected and in that order.
+   */
+  private Interval<K> join(Interval<K> first, Interval<K> second) {
+    return Intervals.interval(first.lowerBound(), first.lowerBoundType(), second.upperBound(),
+                              second.upperBoundType(), comparator);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof RangeMap)) {
+      return false;
+    }
+    return entries().equals(((RangeMap<?, ?>) other).entries());
+  }
+
+  @Override
+  public int hashCode() {
+    return entries().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return entries().toString();
+  }
+}
@@ -0,0 +1,208 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * JMH benchmarks for {@code Interval.intersection}, {@code Interval.span} and {@code
+ * Interval.includes}. Each operation runs on a pre-generated pair of intervals whose shape decides
+ * the kind of result: one nested in the other (the result is an operand), nested with a shared
+ * lower bound (still an operand, found by a tie on the bound), disjoint (the result is empty),
+ * overlapping (a new interval), or one of them empty. The bulk scans of {@code DoubleInterval}
+ * run over a column of random doubles, once with the scalar loops and once, in a JVM with {@code
+ * --add-modules jdk.incubator.vector}, with the vector kernels of the optional {@code vector/}
+ * source root, if they were built; at the largest length both should be limited by memory
+ * bandwidth, eight bytes per value.
+ *
+ * <p>JMH needs benchmarks in a named package, so this directory is a source root of its own, with
+ * {@code IntervalBenchmarkTargets} bridging to the intervals in the default package. Build the
+ * main sources first, then this root with the JMH annotation processor on the class path, which
+ * generates the benchmark list, and run JMH's main class with the GC profiler to check
+ * allocation, for example:
+ *
+ * <pre>
+ *   javac -d classes $(ls *.java | grep -v Test)
+ *   javac -cp classes:jmh-core.jar:jmh-generator-annprocess.jar -d classes benchmarks/*.java
+ *   java -cp classes:jmh-core.jar:jopt-simple.jar:commons-math3.jar org.openjdk.jmh.Main \
+ *       IntervalBenchmark -prof gc
+ * </pre>
+ *
+ * <p>Only the {@code overlapping} shape, and the span of {@code disjoint} intervals, should show a
+ * non-zero {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntervalBenchmark {
+
+  // The number of pairs; a power of two so the cursor can wrap with a mask:
+  private static final int PAIRS = 1 << 10;
+
+  // The class creating the intervals and operations, in the default package:
+  private static final String TARGETS = "IntervalBenchmarkTargets";
+
+  /**
+   * The pairs of intervals, the operations on them, and a cursor into them.
+   */
+  @State(Scope.Thread)
+  public static class PairState {
+
+    @Param({"nested", "shared", "disjoint", "overlapping", "empty"})
+    public String shape;
+
+    @Param({"Comparable", "Comparator"})
+    public String flavour;
+
+    Object[] lefts;
+    Object[] rights;
+    BinaryOperator<Object> intersection;
+    BinaryOperator<Object> span;
+    BiPredicate<Object, Object> includes;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      Object[][] pairs = (Object[][]) target(
+          "pairs", new Class<?>[]{String.class, String.class, int.class, long.class},
+          shape, flavour, PAIRS, 42L);
+      lefts = pairs[0];
+      rights = pairs[1];
+      @SuppressWarnings("unchecked")
+      BinaryOperator<Object> intersection =
+          (BinaryOperator<Object>) target("intersection", new Class<?>[0]);
+      @SuppressWarnings("unchecked")
+      BinaryOperator<Object> span = (BinaryOperator<Object>) target("span", new Class<?>[0]);
+      @SuppressWarnings("unchecked")
+      BiPredicate<Object, Object> includes =
+          (BiPredicate<Object, Object>) target("includes", new Class<?>[0]);
+      this.intersection = intersection;
+      this.span = span;
+      this.includes = includes;
+      cursor = 0;
+    }
+
+    int next() {
+      int i = cursor;
+      cursor = (cursor + 1) & (PAIRS - 1);
+      return i;
+    }
+  }
+
+  /**
+   * A column of doubles to scan in bulk, and the scans of an interval holding about half of them.
+   */
+  @State(Scope.Thread)
+  public static class ColumnState {
+
+    @Param({"1000", "1000000", "100000000"})
+    public int length;
+
+    double[] column;
+    long[] bitmap;
+    ToIntFunction<double[]> countContained;
+    ToIntBiFunction<double[], long[]> containsAll;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      Random random = new Random(42);
+      column = new double[length];
+      for (int i = 0; i < length; i++) {
+        column[i] = random.nextDouble();
+      }
+      bitmap = new long[(length + 63) >>> 6];
+      Class<?>[] bounds = {double.class, double.class};
+      @SuppressWarnings("unchecked")
+      ToIntFunction<double[]> countContained =
+          (ToIntFunction<double[]>) target("countContained", bounds, 0.25, 0.75);
+      @SuppressWarnings("unchecked")
+      ToIntBiFunction<double[], long[]> containsAll =
+          (ToIntBiFunction<double[], long[]>) target("containsAll", bounds, 0.25, 0.75);
+      this.countContained = countContained;
+      this.containsAll = containsAll;
+    }
+  }
+
+  @Benchmark
+  public Object intersection(PairState state) {
+    int i = state.next();
+    return state.intersection.apply(state.lefts[i], state.rights[i]);
+  }
+
+  @Benchmark
+  public Object span(PairState state) {
+    int i = state.next();
+    return state.span.apply(state.lefts[i], state.rights[i]);
+  }
+
+  @Benchmark
+  public boolean includes(PairState state) {
+    int i = state.next();
+    return state.includes.test(state.lefts[i], state.rights[i]);
+  }
+
+  @Benchmark
+  public int countContained(ColumnState state) {
+    return state.countContained.applyAsInt(state.column);
+  }
+
+  @Benchmark
+  public int containsAll(ColumnState state) {
+    return state.containsAll.applyAsInt(state.column, state.bitmap);
+  }
+
+  /**
+   * {@link #countContained}, in a JVM with the vector module, so that the vector kernels take over
+   * from the scalar loop.
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+  public int countContainedVector(ColumnState state) {
+    return state.countContained.applyAsInt(state.column);
+  }
+
+  /**
+   * {@link #containsAll}, in a JVM with the vector module.
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+  public int containsAllVector(ColumnState state) {
+    return state.containsAll.applyAsInt(state.column, state.bitmap);
+  }
+
+  /**
+   * Calls a static method of {@link #TARGETS}.
+   */
+  private static Object target(String name, Class<?>[] types, Object... args) {
+    try {
+      return Class.forName(TARGETS).getMethod(name, types).invoke(null, args);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(TARGETS + " isn't on the class path", e);
+    }
+  }
+}
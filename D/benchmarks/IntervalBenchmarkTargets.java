@@ -0,0 +1,133 @@
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.ToIntBiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * The intervals and operations measured by {@code benchmarks.IntervalBenchmark}. JMH only runs
+ * benchmarks in a named package, and a class in a named package can't name the classes of the
+ * default package, so the benchmark calls these methods reflectively while setting up and sees
+ * what they return only through JDK types. The operations on pairs don't capture anything, so
+ * calling them allocates no more than the interval methods they call.
+ */
+public final class IntervalBenchmarkTargets {
+
+  private IntervalBenchmarkTargets() {
+  } // prevents instantiation.
+
+  /**
+   * Creates pairs of intervals of a shape: one nested in the other ({@code nested}), nested with a
+   * shared lower bound ({@code shared}), {@code disjoint}, {@code overlapping}, or the second one
+   * {@code empty}.
+   *
+   * @param shape   the shape of the pairs
+   * @param flavour {@code Comparable} for intervals ordered naturally, or {@code Comparator} for
+   *                intervals ordered by a comparator
+   * @param count   the number of pairs
+   * @param seed    the random seed
+   * @return the left intervals and the right intervals, each an {@code Interval<Integer>[]}
+   * @throws IllegalArgumentException if the shape isn't recognized
+   */
+  public static Object[][] pairs(String shape, String flavour, int count, long seed) {
+    Random random = new Random(seed);
+    boolean comparable = flavour.equals("Comparable");
+    Interval<Integer>[] lefts = newArray(count);
+    Interval<Integer>[] rights = newArray(count);
+    for (int i = 0; i < count; i++) {
+      int lower = random.nextInt(1000);
+      int length = 10 + random.nextInt(100);
+      lefts[i] = newInterval(lower, lower + length, comparable);
+      switch (shape) {
+        case "nested":
+          rights[i] = newInterval(lower + 1, lower + length - 1, comparable);
+          break;
+        case "shared":
+          rights[i] = newInterval(lower, lower + length / 2, comparable);
+          break;
+        case "disjoint":
+          rights[i] = newInterval(lower + length + 1, lower + 2 * length, comparable);
+          break;
+        case "overlapping":
+          rights[i] = newInterval(lower + length / 2, lower + 2 * length, comparable);
+          break;
+        case "empty":
+          rights[i] = newInterval(lower, lower, comparable);
+          break;
+        default:
+          throw new IllegalArgumentException("unknown shape: " + shape);
+      }
+    }
+    return new Object[][]{lefts, rights};
+  }
+
+  /**
+   * Returns {@link Interval#intersection} over the intervals of {@link #pairs}.
+   */
+  public static BinaryOperator<Object> intersection() {
+    return IntervalBenchmarkTargets::intersection;
+  }
+
+  /**
+   * Returns {@link Interval#span} over the intervals of {@link #pairs}.
+   */
+  public static BinaryOperator<Object> span() {
+    return IntervalBenchmarkTargets::span;
+  }
+
+  /**
+   * Returns {@link Interval#includes} over the intervals of {@link #pairs}.
+   */
+  public static BiPredicate<Object, Object> includes() {
+    return IntervalBenchmarkTargets::includes;
+  }
+
+  /**
+   * Returns {@link DoubleInterval#countContained(double[])} for the interval {@code [lower,
+   * upper)}.
+   */
+  public static ToIntFunction<double[]> countContained(double lower, double upper) {
+    return DoubleInterval.closedOpen(lower, upper)::countContained;
+  }
+
+  /**
+   * Returns {@link DoubleInterval#containsAll(double[], long[])} for the interval {@code [lower,
+   * upper)}.
+   */
+  public static ToIntBiFunction<double[], long[]> containsAll(double lower, double upper) {
+    return DoubleInterval.closedOpen(lower, upper)::containsAll;
+  }
+
+  private static Object intersection(Object left, Object right) {
+    return cast(left).intersection(cast(right));
+  }
+
+  private static Object span(Object left, Object right) {
+    return cast(left).span(cast(right));
+  }
+
+  private static boolean includes(Object left, Object right) {
+    return cast(left).includes(cast(right));
+  }
+
+  private static Interval<Integer> cast(Object interval) {
+    @SuppressWarnings("unchecked")
+    Interval<Integer> result = (Interval<Integer>) interval;
+    return result;
+  }
+
+  private static Interval<Integer>[] newArray(int length) {
+    @SuppressWarnings("unchecked")
+    Interval<Integer>[] array = (Interval<Integer>[]) new Interval<?>[length];
+    return array;
+  }
+
+  private static Interval<Integer> newInterval(int lower, int upper, boolean comparable) {
+    if (comparable) {
+      return Intervals.interval(lower, BoundType.Closed, upper, BoundType.Open);
+    }
+    return Intervals.interval(lower, BoundType.Closed, upper, BoundType.Open,
+                              Comparator.<Integer>naturalOrder());
+  }
+}
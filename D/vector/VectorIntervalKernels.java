@@ -0,0 +1,153 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link IntervalKernels} with the vector API: each step loads as many values as the widest
+ * vector register holds, compares them with both bounds at once, and counts or packs the lanes of
+ * the resulting mask. The values left over at the end of a range, fewer than a vector, are checked
+ * one at a time.
+ *
+ * <p>This file is an optional source root of its own, left out of the main build since it needs
+ * the incubating module. To use it, compile it onto the classes of the main build, and run with
+ * the module:
+ *
+ * <pre>
+ *   javac --add-modules jdk.incubator.vector -cp classes -d classes vector/*.java
+ *   java --add-modules jdk.incubator.vector -cp classes:... ...
+ * </pre>
+ */
+final class VectorIntervalKernels implements IntervalKernels {
+
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+  /*
+   * REPRESENTATION NOTE:
+   *
+   * A bitmap word holds 64 values, and the number of lanes in a species is a power of two no
+   * larger than 64, so a word is filled by whole vectors except at the end of the array, and
+   * VectorMask.toLong() gives each vector's bits, ready to shift into place.
+   */
+
+  @Override
+  public int countContained(int[] values, int from, int to, int low, int high) {
+    int count = 0;
+    int i = from;
+    for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+      count += inRange(IntVector.fromArray(INTS, values, i), low, high).trueCount();
+    }
+    for (; i < to; i++) {
+      count += values[i] >= low & values[i] <= high ? 1 : 0;
+    }
+    return count;
+  }
+
+  @Override
+  public int containsAll(int[] values, long[] bitmap, int words, int low, int high) {
+    int count = 0;
+    for (int w = 0; w < words; w++) {
+      int from = w << 6;
+      int to = Math.min(from + 64, values.length);
+      long word = 0;
+      int i = from;
+      for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+        word |= inRange(IntVector.fromArray(INTS, values, i), low, high).toLong() << i;
+      }
+      for (; i < to; i++) {
+        word |= (values[i] >= low & values[i] <= high ? 1L : 0L) << i;
+      }
+      bitmap[w] = word;
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  @Override
+  public int countContained(long[] values, int from, int to, long low, long high) {
+    int count = 0;
+    int i = from;
+    for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+      count += inRange(LongVector.fromArray(LONGS, values, i), low, high).trueCount();
+    }
+    for (; i < to; i++) {
+      count += values[i] >= low & values[i] <= high ? 1 : 0;
+    }
+    return count;
+  }
+
+  @Override
+  public int containsAll(long[] values, long[] bitmap, int words, long low, long high) {
+    int count = 0;
+    for (int w = 0; w < words; w++) {
+      int from = w << 6;
+      int to = Math.min(from + 64, values.length);
+      long word = 0;
+      int i = from;
+      for (int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+        word |= inRange(LongVector.fromArray(LONGS, values, i), low, high).toLong() << i;
+      }
+      for (; i < to; i++) {
+        word |= (values[i] >= low & values[i] <= high ? 1L : 0L) << i;
+      }
+      bitmap[w] = word;
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  @Override
+  public int countContained(double[] values, int from, int to, double low, double high) {
+    int count = 0;
+    int i = from;
+    for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+      count += inRange(DoubleVector.fromArray(DOUBLES, values, i), low, high).trueCount();
+    }
+    for (; i < to; i++) {
+      count += values[i] >= low & values[i] <= high ? 1 : 0;
+    }
+    return count;
+  }
+
+  @Override
+  public int containsAll(double[] values, long[] bitmap, int words, double low, double high) {
+    int count = 0;
+    for (int w = 0; w < words; w++) {
+      int from = w << 6;
+      int to = Math.min(from + 64, values.length);
+      long word = 0;
+      int i = from;
+      for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+        word |= inRange(DoubleVector.fromArray(DOUBLES, values, i), low, high).toLong() << i;
+      }
+      for (; i < to; i++) {
+        word |= (values[i] >= low & values[i] <= high ? 1L : 0L) << i;
+      }
+      bitmap[w] = word;
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the lanes of a vector in {@code [low, high]}.
+   */
+  private static VectorMask<Integer> inRange(IntVector vector, int low, int high) {
+    return vector.compare(VectorOperators.GE, low).and(vector.compare(VectorOperators.LE, high));
+  }
+
+  private static VectorMask<Long> inRange(LongVector vector, long low, long high) {
+    return vector.compare(VectorOperators.GE, low).and(vector.compare(VectorOperators.LE, high));
+  }
+
+  /**
+   * As above; both comparisons are false for NaN lanes.
+   */
+  private static VectorMask<Double> inRange(DoubleVector vector, double low, double high) {
+    return vector.compare(VectorOperators.GE, low).and(vector.compare(VectorOperators.LE, high));
+  }
+}
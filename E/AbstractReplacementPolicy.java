@@ -0,0 +1,32 @@
+/**
+ * A skeletal {@link ReplacementPolicy} that keeps track of the registered {@link
+ * EvictionListener}. Subclasses pass every item they evict through {@link #reportEviction(Object)}
+ * on the way out of {@code require}.
+ *
+ * @param <K> keys for cached items
+ */
+public abstract class AbstractReplacementPolicy<K> implements ReplacementPolicy<K> {
+
+  // The registered listener, or null:
+  private EvictionListener<? super K> listener;
+
+  @Override
+  public void setEvictionListener(EvictionListener<? super K> listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Notifies the listener, if any, that {@code item} was evicted to make room, and returns it
+   * unchanged. Does nothing with {@code null}, so that {@code require} can end with {@code return
+   * reportEviction(evicted);} whether or not it evicted anything.
+   *
+   * @param item the evicted item, or {@code null}
+   * @return {@code item}
+   */
+  protected final K reportEviction(K item) {
+    if (item != null && listener != null) {
+      listener.onEviction(item, EvictionCause.SIZE);
+    }
+    return item;
+  }
+}
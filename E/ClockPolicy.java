@@ -2,7 +2,7 @@
  * A cache policy implementing the <a href="http://en.wikipedia.org/wiki/Page_replacement_algorithm#Clock">clock
  * algorithm</a>.
  */
-public final class ClockPolicy<K> implements ReplacementPolicy<K> {
+public final class ClockPolicy<K> extends AbstractReplacementPolicy<K> {
 
   // The capacity of the cache:
   private final int capacity;
@@ -10,8 +10,15 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
   // The circular buffer of items:
   private final K[] buffer;
 
-  // Whether each item has been referenced since the last eviction cycle:
-  private final boolean[] refBits;
+  // Whether each item has been referenced since the last eviction cycle, as a bitmap; the bit
+  // for slot i is bit (i % 64) of word i / 64:
+  private final long[] refBits;
+
+  // The valid bits of the last word of refBits:
+  private final long lastWordMask;
+
+  // Maps each cached item to its absolute index in buffer:
+  private final KeyIndex<K> index;
 
   // The hand of the clock (i.e., the start index for the queue):
   private int hand = 0;
@@ -23,10 +30,11 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
    * CLASS INVARIANTS:
    *
    *  - buffer.length == capacity
-   *  - refBits.length == capacity
+   *  - refBits.length == ceil(capacity / 64), and bits for slots >= capacity are clear
    *  - hand < capacity
    *  - size <= capacity
    *  - items in buffer are unique
+   *  - index maps each item in the queue to its absolute index, and nothing else
    *
    * REPRESENTATION NOTE:
    *
@@ -46,6 +54,9 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
    * because the array fills from left to right, and once full stays full.
    * Thus, it will always be the case that if hand != 0 then size ==
    * capacity. Nowhere do we rely on this invariant.
+   *
+   * Keeping the reference bits in a bitmap lets the hand sweep 64 slots at a time: one AND clears
+   * the set bits it passes over, and Long.numberOfTrailingZeros finds the first clear one.
    */
 
   /**
@@ -75,7 +86,9 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
 
     capacity = cap;
     buffer = temp;
-    refBits = new boolean[capacity];
+    refBits = new long[(capacity + 63) >>> 6];
+    lastWordMask = -1L >>> -capacity;
+    index = new KeyIndex<>(capacity);
   }
 
   @Override
@@ -92,12 +105,11 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
   public K require(K item) {
     // First see if item is in the cache. If so, we mark it as referenced
     // and don't need to evict:
-    for (int i = 0; i < size; ++i) {
-      if (buffer[offset(i)].equals(item)) {
-        // It's a hit!
-        refBits[offset(i)] = true;
-        return null;
-      }
+    int found = index.get(item);
+    if (found != KeyIndex.NOT_FOUND) {
+      // It's a hit!
+      setRefBit(found);
+      return null;
     }
 
     // It's a miss!
@@ -109,14 +121,12 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
     // which guarantees that we'll see one the next time around. Advancing
     // {@code hand} without changing {@code size} rotates through the buffer.
     if (size == capacity) {
-      while (refBits[hand]) {
-        refBits[hand] = false;
-        hand = offset(1);
-      }
+      hand = sweep();
 
       // Now we've found a false reference bit, so that's what we'll evict.
       // This means we advance the hand past it and decrement the size.
       evicted = buffer[hand];
+      index.remove(evicted);
       hand = offset(1);
       --size;
     }
@@ -124,22 +134,63 @@ public final class ClockPolicy<K> implements ReplacementPolicy<K> {
     // At this point, we know that size < capacity, so we can store the item
     // on the new end of the queue and increment the size.
 
-    buffer[offset(size)] = item;
-    refBits[offset(size)] = true;
+    int slot = offset(size);
+    buffer[slot] = item;
+    setRefBit(slot);
+    index.put(item, slot);
     ++size;
 
-    return evicted;
+    return reportEviction(evicted);
+  }
+
+  /**
+   * Advances from {@code hand} to the first slot whose reference bit is clear, clearing the bits of
+   * the slots it passes. All bits clear after one full turn, so this always finds one.
+   *
+   * @return the absolute index of the slot found
+   */
+  private int sweep() {
+    int slot = hand;
+    while (true) {
+      int word = slot >>> 6;
+      // The slots of this word from slot on (shifts only use the low six bits of slot):
+      long ahead = -1L << slot;
+      if (word == refBits.length - 1) {
+        ahead &= lastWordMask;
+      }
+      long unreferenced = ~refBits[word] & ahead;
+      if (unreferenced != 0) {
+        int found = (word << 6) + Long.numberOfTrailingZeros(unreferenced);
+        refBits[word] &= ~(ahead & ((1L << found) - 1));
+        return found;
+      }
+      refBits[word] &= ~ahead;
+      slot = (word + 1) << 6;
+      if (slot >= capacity) {
+        slot = 0;
+      }
+    }
+  }
+
+  /**
+   * Marks the item in {@code slot} as referenced.
+   *
+   * @param slot the absolute index
+   */
+  private void setRefBit(int slot) {
+    refBits[slot >>> 6] |= 1L << slot;
   }
 
   /**
    * Returns an absolute index into the arrays {@code buffer} and {@code refBits} given given a
    * relative index from the logical start of the queue. This implements the circular buffer's
-   * wrap-around.
+   * wrap-around, with a comparison rather than a division.
    *
-   * @param i the relative index
+   * @param i the relative index, at most {@code capacity}
    * @return the absolute index
    */
   private int offset(int i) {
-    return (hand + i) % capacity;
+    int j = hand + i;
+    return j < capacity ? j : j - capacity;
   }
 }
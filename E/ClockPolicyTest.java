@@ -96,4 +96,25 @@ public class ClockPolicyTest {
     assertEquals((Integer) 6, policy.require(2)); //  2+^1+ 7  3+ 5+
     assertEquals((Integer) 7, policy.require(4)); //  2+ 1  4+^3+ 5+
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testRequire_sweepAcrossWords() {
+    // More than two words of reference bits, with the last one partly used.
+    ReplacementPolicy<Integer> wide = new ClockPolicy<>(130);
+    for (int i = 0; i < 130; i++) {
+      assertNull(wide.require(i));
+    }
+    // Every bit is set, so the hand goes all the way round, clearing them, and evicts slot 0.
+    assertEquals((Integer) 0, wide.require(130));
+    assertEquals((Integer) 1, wide.require(131));
+    // Referencing slots 2 and 64 makes the hand skip them, across a word boundary.
+    assertNull(wide.require(2));
+    assertNull(wide.require(64));
+    assertEquals((Integer) 3, wide.require(132));
+    for (int i = 133; i < 192; i++) {
+      wide.require(i);
+    }
+    assertEquals((Integer) 63, wide.require(192));
+    assertEquals((Integer) 65, wide.require(193));
+  }
+}
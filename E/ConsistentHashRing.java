@@ -0,0 +1,119 @@
+import java.util.Arrays;
+
+/**
+ * Assigns keys to a fixed set of nodes by <a href="https://en.wikipedia.org/wiki/Consistent_hashing">consistent
+ * hashing</a>. Each node is placed on a ring of 32-bit hash values at several pseudo-random
+ * points (its virtual nodes), and a key belongs to the node owning the first point at or after the
+ * key's hash. Adding or removing a node therefore only moves the keys in that node's arcs.
+ *
+ * <p>Placement depends only on the number of nodes, the number of virtual nodes, and {@link
+ * Object#hashCode()}, so every process that builds a ring with the same parameters agrees on
+ * ownership, as long as the keys' hash codes are the same in every process (as they are for
+ * {@code String}, {@code Integer} and {@code Long}).
+ */
+public final class ConsistentHashRing {
+
+  /**
+   * The number of points per node when none is given; enough to keep each node's share of the
+   * ring within a few percent of even.
+   */
+  public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+  // The number of nodes:
+  private final int nodes;
+
+  // The positions of the virtual nodes, sorted ascending as signed ints:
+  private final int[] points;
+
+  // The node owning each point:
+  private final int[] owners;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - points.length == owners.length == nodes * virtualNodes
+   *  - points is sorted
+   *  - 0 <= owners[i] < nodes
+   */
+
+  /**
+   * Creates a ring over {@code nodes} nodes with {@link #DEFAULT_VIRTUAL_NODES} points each.
+   *
+   * @param nodes the number of nodes
+   * @throws IllegalArgumentException {@code nodes < 1}
+   */
+  public ConsistentHashRing(int nodes) {
+    this(nodes, DEFAULT_VIRTUAL_NODES);
+  }
+
+  /**
+   * Creates a ring over {@code nodes} nodes.
+   *
+   * @param nodes        the number of nodes
+   * @param virtualNodes the number of points per node
+   * @throws IllegalArgumentException {@code nodes < 1} or {@code virtualNodes < 1}
+   */
+  public ConsistentHashRing(int nodes, int virtualNodes) {
+    if (nodes < 1) {
+      throw new IllegalArgumentException("there must be at least one node");
+    }
+    if (virtualNodes < 1) {
+      throw new IllegalArgumentException("there must be at least one virtual node");
+    }
+    this.nodes = nodes;
+
+    long[] placed = new long[nodes * virtualNodes];
+    for (int node = 0; node < nodes; ++node) {
+      for (int v = 0; v < virtualNodes; ++v) {
+        int point = mix(node * 0x9E3779B9 + v);
+        // Pack the point above the owner so that sorting the longs sorts by point.
+        placed[node * virtualNodes + v] = ((long) point << 32) | node;
+      }
+    }
+    Arrays.sort(placed);
+
+    points = new int[placed.length];
+    owners = new int[placed.length];
+    for (int i = 0; i < placed.length; ++i) {
+      points[i] = (int) (placed[i] >> 32);
+      owners[i] = (int) placed[i];
+    }
+  }
+
+  /**
+   * Returns the number of nodes on the ring.
+   *
+   * @return the number of nodes
+   */
+  public int nodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the node that owns {@code key}.
+   *
+   * @param key the key (non-null)
+   * @return a node in [0, nodes())
+   */
+  public int ownerOf(Object key) {
+    int h = mix(key.hashCode());
+    int i = Arrays.binarySearch(points, h);
+    if (i < 0) {
+      i = -i - 1;
+    }
+    // Past the last point, wrap around to the first.
+    return owners[i == points.length ? 0 : i];
+  }
+
+  /**
+   * A bijective finalizer (from MurmurHash3) that spreads nearby inputs over the whole ring.
+   */
+  private static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
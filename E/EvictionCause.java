@@ -0,0 +1,22 @@
+/**
+ * Why an item left a cache, as reported to an {@link EvictionListener}.
+ */
+public enum EvictionCause {
+
+  /**
+   * The policy evicted the item to make room for another one. This is the cause for every eviction
+   * a {@link ReplacementPolicy} makes by itself.
+   */
+  SIZE,
+
+  /**
+   * The item's time to live ran out. Reported by stores that expire entries on top of a policy.
+   */
+  EXPIRED,
+
+  /**
+   * The client removed the item on purpose. Reported by stores that support explicit
+   * invalidation on top of a policy.
+   */
+  EXPLICIT
+}
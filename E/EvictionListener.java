@@ -0,0 +1,56 @@
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Receives the items evicted from a cache. Register one with {@link
+ * ReplacementPolicy#setEvictionListener(EvictionListener)}.
+ *
+ * <p>A listener registered directly is called synchronously, from inside {@code require}, after
+ * the policy has finished updating itself; an exception thrown by the listener propagates to the
+ * caller of {@code require}. To move the work off the caller's thread, wrap the listener with
+ * {@link #queued(EvictionListener, Executor)}, which also delivers evictions in batches.
+ *
+ * @param <K> keys for cached items
+ */
+@FunctionalInterface
+public interface EvictionListener<K> {
+
+  /**
+   * Called when an item leaves the cache.
+   *
+   * @param key   the item (non-null)
+   * @param cause why it left
+   */
+  void onEviction(K key, EvictionCause cause);
+
+  /**
+   * Called with several items that left the cache for the same reason, in the order they left.
+   * The default implementation calls {@link #onEviction(Object, EvictionCause)} for each;
+   * listeners that can release resources in bulk should override it.
+   *
+   * @param keys  the items (non-empty, no nulls)
+   * @param cause why they left
+   */
+  default void onEvictions(List<K> keys, EvictionCause cause) {
+    for (K key : keys) {
+      onEviction(key, cause);
+    }
+  }
+
+  /**
+   * Returns a listener that queues evictions and delivers them to {@code listener} on {@code
+   * executor}. Evictions that pile up while a delivery is pending are handed over together through
+   * {@link #onEvictions(List, EvictionCause)}, so a busy cache makes few, large calls. Deliveries
+   * never overlap, and arrive in eviction order. If {@code listener} throws, the batch it was given
+   * is dropped and the exception propagates to the executor, but later evictions are still
+   * delivered.
+   *
+   * @param listener the listener to deliver to
+   * @param executor where to run deliveries
+   * @param <K>      keys for cached items
+   * @return the queueing listener
+   */
+  static <K> EvictionListener<K> queued(EvictionListener<K> listener, Executor executor) {
+    return new QueuedEvictionListener<>(listener, executor);
+  }
+}
@@ -0,0 +1,149 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EvictionListenerTest {
+
+  @Test
+  public void listenerSeesEveryEviction() {
+    List<ReplacementPolicy<Integer>> policies = Arrays.asList(
+        new FifoPolicy<>(5), new LruPolicy<>(5), new ClockPolicy<>(5), new SampledLruPolicy<>(5),
+        new SlruPolicy<>(5), new TwoQPolicy<>(5), new GClockPolicy<>(5));
+    for (ReplacementPolicy<Integer> policy : policies) {
+      List<Integer> heard = new ArrayList<>();
+      policy.setEvictionListener((key, cause) -> {
+        assertEquals(EvictionCause.SIZE, cause);
+        heard.add(key);
+      });
+      List<Integer> returned = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        Integer evicted = policy.require((i * 7) % 13);
+        if (evicted != null) {
+          returned.add(evicted);
+        }
+      }
+      assertEquals(returned, heard);
+    }
+  }
+
+  @Test
+  public void removingListener() {
+    List<Integer> heard = new ArrayList<>();
+    ReplacementPolicy<Integer> policy = new FifoPolicy<>(1);
+    policy.setEvictionListener((key, cause) -> heard.add(key));
+    policy.require(1);
+    policy.require(2);
+    policy.setEvictionListener(null);
+    assertEquals((Integer) 2, policy.require(3));
+    assertEquals(Arrays.asList(1), heard);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void unsupportedByDefault() {
+    ReplacementPolicy<Integer> bare = new ReplacementPolicy<Integer>() {
+      @Override
+      public Integer require(Integer item) {
+        return null;
+      }
+
+      @Override
+      public int capacity() {
+        return 1;
+      }
+
+      @Override
+      public int size() {
+        return 0;
+      }
+    };
+    bare.setEvictionListener((key, cause) -> {
+    });
+  }
+
+  @Test
+  public void queuedListenerDeliversInBatches() throws Exception {
+    List<List<Integer>> batches = new ArrayList<>();
+    EvictionListener<Integer> bulk = new EvictionListener<Integer>() {
+      @Override
+      public void onEviction(Integer key, EvictionCause cause) {
+        onEvictions(Arrays.asList(key), cause);
+      }
+
+      @Override
+      public void onEvictions(List<Integer> keys, EvictionCause cause) {
+        batches.add(new ArrayList<>(keys));
+      }
+    };
+
+    // A paused executor lets evictions pile up, then runs the delivery.
+    List<Runnable> tasks = new ArrayList<>();
+    ReplacementPolicy<Integer> policy = new FifoPolicy<>(2);
+    policy.setEvictionListener(EvictionListener.queued(bulk, tasks::add));
+    for (int i = 0; i < 6; i++) {
+      policy.require(i);
+    }
+    assertEquals(1, tasks.size());
+    assertTrue(batches.isEmpty());
+    tasks.get(0).run();
+    assertEquals(Arrays.asList(Arrays.asList(0, 1, 2, 3)), batches);
+  }
+
+  @Test
+  public void queuedListenerOnRealExecutor() throws Exception {
+    List<Integer> heard = new ArrayList<>();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    ReplacementPolicy<Integer> policy = new ClockPolicy<>(10);
+    policy.setEvictionListener(EvictionListener.queued((key, cause) -> {
+      synchronized (heard) {
+        heard.add(key);
+      }
+    }, executor));
+    List<Integer> returned = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      Integer evicted = policy.require(i % 37);
+      if (evicted != null) {
+        returned.add(evicted);
+      }
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    synchronized (heard) {
+      assertEquals(returned, heard);
+    }
+  }
+
+  @Test
+  public void queuedListenerSurvivesAFailedDelivery() throws Exception {
+    List<Integer> heard = new ArrayList<>();
+    EvictionListener<Integer> flaky = (key, cause) -> {
+      if (key == 0) {
+        throw new IllegalStateException("listener failed");
+      }
+      heard.add(key);
+    };
+    List<Runnable> tasks = new ArrayList<>();
+    ReplacementPolicy<Integer> policy = new FifoPolicy<>(2);
+    policy.setEvictionListener(EvictionListener.queued(flaky, tasks::add));
+    for (int i = 0; i < 3; i++) {
+      policy.require(i);
+    }
+    assertEquals(1, tasks.size());
+    try {
+      tasks.get(0).run();
+    } catch (IllegalStateException expected) {
+      // The executor would report this.
+    }
+    policy.require(3);
+    assertEquals(2, tasks.size());
+    tasks.get(1).run();
+    assertEquals(Arrays.asList(1), heard);
+  }
+}
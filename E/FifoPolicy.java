@@ -0,0 +1,92 @@
+/**
+ * A cache policy that evicts items in the order they were brought in (first in, first out),
+ * regardless of how often they are required once cached.
+ *
+ * @param <K> keys for cached items
+ */
+public final class FifoPolicy<K> extends AbstractReplacementPolicy<K> {
+
+  // The capacity of the cache:
+  private final int capacity;
+
+  // The circular buffer of items:
+  private final K[] buffer;
+
+  // Maps each cached item to its absolute index in buffer:
+  private final KeyIndex<K> index;
+
+  // The index of the oldest item (i.e., the start index for the queue):
+  private int head = 0;
+
+  // The number of items in the cache:
+  private int size = 0;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - buffer.length == capacity
+   *  - head < capacity
+   *  - size <= capacity
+   *  - index maps each item in the queue to its absolute index, and nothing else
+   *
+   * REPRESENTATION NOTE:
+   *
+   * As in ClockPolicy, buffer is a circular buffer whose logical queue starts at head. Once the
+   * cache is full, the slot at head holds both the item to evict and, afterwards, the newest item,
+   * so eviction just overwrites it and advances head.
+   */
+
+  /**
+   * Creates a new FIFO queue with capacity {@code cap}.
+   *
+   * @param cap the capacity of the queue.
+   * @throws IllegalArgumentException {@code cap < 1}
+   */
+  public FifoPolicy(int cap) {
+    if (cap < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+
+    @SuppressWarnings("unchecked")
+    K[] temp = (K[]) new Object[cap];
+
+    capacity = cap;
+    buffer = temp;
+    index = new KeyIndex<>(cap);
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public K require(K item) {
+    // A hit doesn't change the order of the queue.
+    if (index.get(item) != KeyIndex.NOT_FOUND) {
+      return null;
+    }
+
+    // It's a miss! If there's room, append the item to the queue.
+    if (size < capacity) {
+      int slot = head + size < capacity ? head + size : head + size - capacity;
+      buffer[slot] = item;
+      index.put(item, slot);
+      ++size;
+      return null;
+    }
+
+    // Otherwise the new item replaces the oldest one, and becomes the newest.
+    K evicted = buffer[head];
+    index.remove(evicted);
+    buffer[head] = item;
+    index.put(item, head);
+    head = head + 1 == capacity ? 0 : head + 1;
+    return reportEviction(evicted);
+  }
+}
@@ -0,0 +1,187 @@
+/**
+ * A cache policy implementing generalized clock (GCLOCK). Like {@link ClockPolicy}, a hand sweeps
+ * over a circular buffer looking for an item to evict, but instead of a single reference bit each
+ * slot holds a small saturating counter. A hit increments the counter (up to {@code maxCount}),
+ * and the passing hand decrements it, so an item referenced many times survives several
+ * revolutions of the hand while an item referenced once survives only one.
+ *
+ * <p>The sweep is bounded: if the hand passes {@code maxSweep} slots without finding a zero
+ * counter, it evicts the slot with the lowest counter it saw. A miss therefore never looks at more
+ * than {@code maxSweep} slots, no matter how the counters are distributed.
+ *
+ * @param <K> keys for cached items
+ */
+public final class GClockPolicy<K> extends AbstractReplacementPolicy<K> {
+
+  /**
+   * The saturation value of the counters when none is given.
+   */
+  public static final int DEFAULT_MAX_COUNT = 3;
+
+  // The capacity of the cache:
+  private final int capacity;
+
+  // The slots of the clock; slots [0, size) are occupied:
+  private final K[] buffer;
+
+  // The reference counter of each slot, in [0, maxCount]:
+  private final byte[] counts;
+
+  // Maps each cached item to its slot in buffer:
+  private final KeyIndex<K> index;
+
+  // The value at which counters stop incrementing:
+  private final byte maxCount;
+
+  // The maximum number of slots the hand passes over on one miss:
+  private final int maxSweep;
+
+  // The hand of the clock (i.e., the next slot to consider for eviction):
+  private int hand = 0;
+
+  // The number of items in the cache:
+  private int size = 0;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - buffer.length == counts.length == capacity
+   *  - hand < capacity
+   *  - size <= capacity
+   *  - index maps buffer[i] to i for every i < size, and nothing else
+   *  - 0 <= counts[i] <= maxCount
+   *
+   * REPRESENTATION NOTE:
+   *
+   * Unlike ClockPolicy, the buffer is not treated as a queue. It fills from left to right, and
+   * once full, each new item simply takes over the slot of the item it evicts. The hand only
+   * matters once the cache is full.
+   */
+
+  /**
+   * Creates a new GCLOCK policy with capacity {@code cap}, counters saturating at {@link
+   * #DEFAULT_MAX_COUNT}, and a sweep bounded by one revolution of the hand.
+   *
+   * @param cap the capacity of the cache
+   * @throws IllegalArgumentException {@code cap < 1}
+   */
+  public GClockPolicy(int cap) {
+    this(cap, DEFAULT_MAX_COUNT, cap);
+  }
+
+  /**
+   * Creates a new GCLOCK policy.
+   *
+   * @param cap      the capacity of the cache
+   * @param maxCount the saturation value of the counters
+   * @param maxSweep the maximum number of slots examined per miss
+   * @throws IllegalArgumentException {@code cap < 1}, {@code maxCount} is not in [1, 127], or
+   *                                  {@code maxSweep < 1}
+   */
+  public GClockPolicy(int cap, int maxCount, int maxSweep) {
+    if (cap < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    if (maxCount < 1 || maxCount > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("max count must be in [1, 127]");
+    }
+    if (maxSweep < 1) {
+      throw new IllegalArgumentException("max sweep must be at least 1");
+    }
+
+    @SuppressWarnings("unchecked")
+    K[] temp = (K[]) new Object[cap];
+
+    capacity = cap;
+    buffer = temp;
+    counts = new byte[cap];
+    index = new KeyIndex<>(cap);
+    this.maxCount = (byte) maxCount;
+    this.maxSweep = maxSweep;
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public K require(K item) {
+    int slot = index.get(item);
+    if (slot != KeyIndex.NOT_FOUND) {
+      // It's a hit! Bump the counter, unless it's saturated.
+      if (counts[slot] < maxCount) {
+        ++counts[slot];
+      }
+      return null;
+    }
+
+    // It's a miss! If there's room, the item goes in the next free slot.
+    if (size < capacity) {
+      place(item, size++);
+      return null;
+    }
+
+    // Otherwise sweep for a victim and put the item in its slot.
+    int victim = sweep();
+    K evicted = buffer[victim];
+    index.remove(evicted);
+    place(item, victim);
+    return reportEviction(evicted);
+  }
+
+  /**
+   * Stores {@code item} in {@code slot} with a counter of one, as if it had just been referenced.
+   *
+   * @param item the item to store
+   * @param slot the slot to store it in
+   */
+  private void place(K item, int slot) {
+    buffer[slot] = item;
+    counts[slot] = 1;
+    index.put(item, slot);
+  }
+
+  /**
+   * Advances the hand, decrementing counters as it goes, until it finds a zero counter or has
+   * passed {@code maxSweep} slots.
+   *
+   * @return the slot to evict
+   */
+  private int sweep() {
+    int lowest = hand;
+    for (int steps = 0; steps < maxSweep; ++steps) {
+      int current = hand;
+      hand = next(hand);
+      if (counts[current] == 0) {
+        return current;
+      }
+      --counts[current];
+      if (counts[current] < counts[lowest]) {
+        lowest = current;
+      }
+    }
+
+    // The bound was hit, so settle for the least referenced slot we passed. If that's the slot
+    // under the hand (the sweep went all the way around), step past it as usual.
+    if (lowest == hand) {
+      hand = next(hand);
+    }
+    return lowest;
+  }
+
+  /**
+   * Returns the slot after {@code i}, wrapping around at the end of the buffer.
+   *
+   * @param i a slot
+   * @return the following slot
+   */
+  private int next(int i) {
+    return i + 1 == capacity ? 0 : i + 1;
+  }
+}
@@ -0,0 +1,79 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GClockPolicyTest {
+
+  ReplacementPolicy<Integer> policy = new GClockPolicy<>(4);
+
+  @Test
+  public void testCapacity() {
+    assertEquals(4, policy.capacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacity() {
+    new GClockPolicy<Integer>(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void countTooLarge() {
+    new GClockPolicy<Integer>(4, 128, 4);
+  }
+
+  /**
+   * The comments on the right show each slot with its counter, and {@code ^} marks the hand.
+   */
+  @Test
+  public void frequentItemsSurvive() {
+    assertNull(policy.require(1));                // ^1:1  _    _    _
+    assertNull(policy.require(2));                // ^1:1  2:1  _    _
+    assertNull(policy.require(3));                // ^1:1  2:1  3:1  _
+    assertNull(policy.require(4));                // ^1:1  2:1  3:1  4:1
+    assertNull(policy.require(1));                // ^1:2  2:1  3:1  4:1
+    assertNull(policy.require(1));                // ^1:3  2:1  3:1  4:1
+    assertNull(policy.require(1));                // ^1:3  2:1  3:1  4:1
+    assertEquals(4, policy.size());
+
+    assertEquals((Integer) 2, policy.require(5)); // ^1:2  5:1  3:0  4:0
+    assertEquals((Integer) 3, policy.require(6)); //  1:1  5:0  6:1 ^4:0
+    assertEquals((Integer) 4, policy.require(7)); // ^1:1  5:0  6:1  7:1
+    assertEquals((Integer) 5, policy.require(8)); //  1:0  8:1 ^6:1  7:1
+    assertNull(policy.require(1));                //  1:1  8:1 ^6:1  7:1
+    assertEquals(4, policy.size());
+  }
+
+  /**
+   * With counters saturating at one, GCLOCK degenerates to the ordinary clock algorithm.
+   */
+  @Test
+  public void sameAsClockWithOneBit() {
+    ReplacementPolicy<Integer> clock = new ClockPolicy<>(50);
+    ReplacementPolicy<Integer> gclock = new GClockPolicy<>(50, 1, 50);
+    Random random = new Random(7);
+    for (int i = 0; i < 20000; i++) {
+      Integer key = random.nextInt(120);
+      assertEquals(clock.require(key), gclock.require(key));
+    }
+  }
+
+  @Test
+  public void boundedSweep() {
+    // With a sweep of one slot, the hand can never look past the slot it starts at.
+    ReplacementPolicy<Integer> p = new GClockPolicy<>(3, 127, 1);
+    p.require(1);
+    p.require(2);
+    p.require(3);
+    for (int i = 0; i < 100; i++) {
+      p.require(1);
+      p.require(2);
+      p.require(3);
+    }
+    assertEquals((Integer) 1, p.require(4));
+    assertEquals((Integer) 2, p.require(5));
+    assertEquals(3, p.size());
+  }
+}
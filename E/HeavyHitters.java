@@ -0,0 +1,407 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most frequently required keys of a stream, using the <a
+ * href="https://doi.org/10.1007/978-3-540-30570-5_27">Space-Saving</a> algorithm of Metwally et
+ * al. At most {@code capacity} keys are monitored at a time. A key that isn't monitored takes over
+ * the counter of the least frequent monitored key, inheriting its count as an overestimate, so
+ * every key that occurs more than {@code total / capacity} times is guaranteed to be monitored.
+ *
+ * <p>Counters are kept in a "stream summary": buckets of equal count in a list ordered by count,
+ * so that each {@link #offer} takes <em>O</em>(1) time, and memory stays proportional to the
+ * capacity however many distinct keys go by.
+ *
+ * <p>Instances are thread safe. Queries take a consistent snapshot, and may run while other
+ * threads offer keys. To track the keys required of a policy, {@link #attach} it.
+ *
+ * @param <K> the type of the keys
+ */
+public final class HeavyHitters<K> {
+
+  // The maximum number of monitored keys:
+  private final int capacity;
+
+  // The counter of each monitored key:
+  private final Map<K, Counter<K>> counters;
+
+  // The buckets with the lowest and highest counts:
+  private Bucket<K> lowest = null;
+  private Bucket<K> highest = null;
+
+  // The number of keys offered so far:
+  private long total = 0;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - counters.size() <= capacity
+   *  - the buckets form a doubly linked list from lowest to highest, with strictly increasing
+   *    counts, and none of them empty
+   *  - each counter is in exactly one bucket's list, the one whose count it has, and counters maps
+   *    its key to it
+   *  - the counts of all counters add up to total
+   */
+
+  /**
+   * Creates a tracker that monitors at most {@code capacity} keys.
+   *
+   * @param capacity the number of keys to monitor
+   * @throws IllegalArgumentException {@code capacity < 1}
+   */
+  public HeavyHitters(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    this.capacity = capacity;
+    counters = new HashMap<>(capacity * 2);
+  }
+
+  /**
+   * Returns the maximum number of keys monitored at a time.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of keys offered so far.
+   *
+   * @return the length of the stream
+   */
+  public synchronized long total() {
+    return total;
+  }
+
+  /**
+   * Counts one occurrence of {@code key}.
+   *
+   * @param key the key
+   * @throws NullPointerException if {@code key} is null
+   */
+  public synchronized void offer(K key) {
+    if (key == null) {
+      throw new NullPointerException("key");
+    }
+    ++total;
+
+    Counter<K> counter = counters.get(key);
+    if (counter != null) {
+      increment(counter);
+      return;
+    }
+
+    if (counters.size() < capacity) {
+      counter = new Counter<>(key);
+      counters.put(key, counter);
+      if (lowest == null || lowest.count != 1) {
+        Bucket<K> bucket = new Bucket<>(1);
+        linkAfter(bucket, null);
+      }
+      lowest.add(counter);
+      return;
+    }
+
+    // Replace the newest of the least frequent keys, which overestimates the new key's count by at
+    // most that of the key it replaces.
+    counter = lowest.first;
+    counters.remove(counter.key);
+    counter.key = key;
+    counter.error = lowest.count;
+    counters.put(key, counter);
+    increment(counter);
+  }
+
+  /**
+   * Returns the estimated number of occurrences of {@code key}. It's never an underestimate, and
+   * for a monitored key overestimates by at most its {@linkplain Entry#error() error}.
+   *
+   * @param key the key
+   * @return its estimated count, or 0 if it isn't monitored
+   */
+  public synchronized long estimate(Object key) {
+    Counter<K> counter = counters.get(key);
+    return counter == null ? 0 : counter.bucket.count;
+  }
+
+  /**
+   * Returns up to {@code n} of the most frequent monitored keys, most frequent first.
+   *
+   * @param n the maximum number of keys to return
+   * @return a snapshot of their entries
+   * @throws IllegalArgumentException {@code n < 0}
+   */
+  public synchronized List<Entry<K>> top(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must not be negative");
+    }
+    List<Entry<K>> result = new ArrayList<>(Math.min(n, counters.size()));
+    for (Bucket<K> b = highest; b != null && result.size() < n; b = b.prev) {
+      for (Counter<K> c = b.first; c != null && result.size() < n; c = c.next) {
+        result.add(new Entry<>(c.key, b.count, c.error));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns every monitored key that certainly occurred more than {@code fraction * total()}
+   * times, most frequent first. Every key that did so is also among those monitored, but might be
+   * left out here if its error is too large to be sure.
+   *
+   * @param fraction the threshold, as a fraction of the stream length
+   * @return a snapshot of their entries
+   * @throws IllegalArgumentException if {@code fraction} is not in [0, 1]
+   */
+  public synchronized List<Entry<K>> above(double fraction) {
+    if (!(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("fraction must be in [0, 1]");
+    }
+    double threshold = fraction * total;
+    List<Entry<K>> result = new ArrayList<>();
+    for (Bucket<K> b = highest; b != null && b.count > threshold; b = b.prev) {
+      for (Counter<K> c = b.first; c != null; c = c.next) {
+        if (b.count - c.error > threshold) {
+          result.add(new Entry<>(c.key, b.count, c.error));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Forgets every key, as if none had been offered.
+   */
+  public synchronized void clear() {
+    counters.clear();
+    lowest = null;
+    highest = null;
+    total = 0;
+  }
+
+  /**
+   * Returns a policy that behaves exactly like {@code policy}, but offers every key required of it
+   * to this tracker first.
+   *
+   * @param policy the policy to track
+   * @param <T>    the type of the policy's keys
+   * @return the tracked policy
+   */
+  public <T extends K> ReplacementPolicy<T> attach(ReplacementPolicy<T> policy) {
+    return new Tracked<>(policy, this);
+  }
+
+  /**
+   * Moves {@code counter} from its bucket to the bucket for the next count, creating it if need
+   * be.
+   */
+  private void increment(Counter<K> counter) {
+    Bucket<K> from = counter.bucket;
+    long count = from.count + 1;
+
+    // A counter alone in its bucket can take the bucket along, unless the next count has one.
+    if (from.first == counter && counter.next == null
+        && (from.next == null || from.next.count != count)) {
+      from.count = count;
+      return;
+    }
+
+    Bucket<K> to = from.next;
+    if (to == null || to.count != count) {
+      to = new Bucket<>(count);
+      linkAfter(to, from);
+    }
+    from.remove(counter);
+    if (from.first == null) {
+      unlink(from);
+    }
+    to.add(counter);
+  }
+
+  /**
+   * Inserts {@code bucket} into the list after {@code prev}, or first if {@code prev} is null.
+   */
+  private void linkAfter(Bucket<K> bucket, Bucket<K> prev) {
+    Bucket<K> next = prev == null ? lowest : prev.next;
+    bucket.prev = prev;
+    bucket.next = next;
+    if (prev == null) {
+      lowest = bucket;
+    } else {
+      prev.next = bucket;
+    }
+    if (next == null) {
+      highest = bucket;
+    } else {
+      next.prev = bucket;
+    }
+  }
+
+  /**
+   * Removes {@code bucket} from the list.
+   */
+  private void unlink(Bucket<K> bucket) {
+    if (bucket.prev == null) {
+      lowest = bucket.next;
+    } else {
+      bucket.prev.next = bucket.next;
+    }
+    if (bucket.next == null) {
+      highest = bucket.prev;
+    } else {
+      bucket.next.prev = bucket.prev;
+    }
+  }
+
+  /**
+   * A monitored key, its estimated count, and the maximum overestimate of that count.
+   *
+   * @param <K> the type of the key
+   */
+  public static final class Entry<K> {
+
+    private final K key;
+    private final long count;
+    private final long error;
+
+    private Entry(K key, long count, long error) {
+      this.key = key;
+      this.count = count;
+      this.error = error;
+    }
+
+    /**
+     * Returns the key.
+     *
+     * @return the key
+     */
+    public K key() {
+      return key;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the key, which is never an underestimate.
+     *
+     * @return the estimated count
+     */
+    public long count() {
+      return count;
+    }
+
+    /**
+     * Returns the most that {@link #count()} may overestimate by: the count the key inherited when
+     * it started being monitored.
+     *
+     * @return the maximum error
+     */
+    public long error() {
+      return error;
+    }
+
+    /**
+     * Returns the number of occurrences the key certainly had, {@code count() - error()}.
+     *
+     * @return the guaranteed count
+     */
+    public long guaranteedCount() {
+      return count - error;
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + count + "(±" + error + ")";
+    }
+  }
+
+  /**
+   * A monitored key, linked into its bucket.
+   */
+  private static final class Counter<K> {
+
+    K key;
+    long error = 0;
+    Bucket<K> bucket;
+    Counter<K> prev;
+    Counter<K> next;
+
+    Counter(K key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * The counters that share a count, newest first.
+   */
+  private static final class Bucket<K> {
+
+    long count;
+    Counter<K> first;
+    Bucket<K> prev;
+    Bucket<K> next;
+
+    Bucket(long count) {
+      this.count = count;
+    }
+
+    void add(Counter<K> counter) {
+      counter.bucket = this;
+      counter.prev = null;
+      counter.next = first;
+      if (first != null) {
+        first.prev = counter;
+      }
+      first = counter;
+    }
+
+    void remove(Counter<K> counter) {
+      if (counter.prev == null) {
+        first = counter.next;
+      } else {
+        counter.prev.next = counter.next;
+      }
+      if (counter.next != null) {
+        counter.next.prev = counter.prev;
+      }
+      counter.bucket = null;
+    }
+  }
+
+  /**
+   * The policy returned by {@link #attach}.
+   */
+  private static final class Tracked<K> implements ReplacementPolicy<K> {
+
+    private final ReplacementPolicy<K> policy;
+    private final HeavyHitters<? super K> tracker;
+
+    Tracked(ReplacementPolicy<K> policy, HeavyHitters<? super K> tracker) {
+      this.policy = policy;
+      this.tracker = tracker;
+    }
+
+    @Override
+    public K require(K item) {
+      tracker.offer(item);
+      return policy.require(item);
+    }
+
+    @Override
+    public int capacity() {
+      return policy.capacity();
+    }
+
+    @Override
+    public int size() {
+      return policy.size();
+    }
+
+    @Override
+    public void setEvictionListener(EvictionListener<? super K> listener) {
+      policy.setEvictionListener(listener);
+    }
+  }
+}
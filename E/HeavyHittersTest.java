@@ -0,0 +1,104 @@
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HeavyHittersTest {
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacity() {
+    new HeavyHitters<Integer>(0);
+  }
+
+  @Test
+  public void exactBelowCapacity() {
+    HeavyHitters<String> hh = new HeavyHitters<>(3);
+    for (String key : new String[]{"a", "b", "a", "c", "a", "b"}) {
+      hh.offer(key);
+    }
+    List<HeavyHitters.Entry<String>> top = hh.top(5);
+    assertEquals(3, top.size());
+    assertEquals("a", top.get(0).key());
+    assertEquals(3, top.get(0).count());
+    assertEquals("b", top.get(1).key());
+    assertEquals(2, top.get(1).count());
+    assertEquals("c", top.get(2).key());
+    assertEquals(0, top.get(2).error());
+    assertEquals(6, hh.total());
+  }
+
+  @Test
+  public void replacesLeastFrequent() {
+    HeavyHitters<String> hh = new HeavyHitters<>(2);
+    hh.offer("a");                           // a=1
+    hh.offer("a");                           // a=2
+    hh.offer("b");                           // a=2 b=1
+    hh.offer("b");                           // a=2 b=2
+    hh.offer("c");                           // c takes over b, the newest at 2: a=2 c=3(±2)
+    assertEquals(0, hh.estimate("b"));
+    assertEquals(2, hh.estimate("a"));
+    HeavyHitters.Entry<String> c = hh.top(1).get(0);
+    assertEquals("c", c.key());
+    assertEquals(3, c.count());
+    assertEquals(2, c.error());
+    assertEquals(1, c.guaranteedCount());
+  }
+
+  @Test
+  public void findsHeavyHittersInSkewedStream() {
+    HeavyHitters<Integer> hh = new HeavyHitters<>(50);
+    Map<Integer, Integer> exact = new HashMap<>();
+    Random random = new Random(3);
+    for (int i = 0; i < 100000; i++) {
+      double u = random.nextDouble();
+      int key = (int) (u * u * u * u * 100000);
+      hh.offer(key);
+      exact.merge(key, 1, Integer::sum);
+    }
+
+    // Every key above total / capacity must be monitored, with a count bracketing the truth.
+    for (Map.Entry<Integer, Integer> e : exact.entrySet()) {
+      if (e.getValue() > hh.total() / hh.capacity()) {
+        long estimate = hh.estimate(e.getKey());
+        assertTrue(estimate >= e.getValue());
+      }
+    }
+    for (HeavyHitters.Entry<Integer> e : hh.top(50)) {
+      int truth = exact.getOrDefault(e.key(), 0);
+      assertTrue(e.count() >= truth);
+      assertTrue(e.guaranteedCount() <= truth);
+    }
+    for (HeavyHitters.Entry<Integer> e : hh.above(0.01)) {
+      assertTrue(exact.get(e.key()) > 1000);
+    }
+    assertEquals((Integer) 0, hh.top(1).get(0).key());
+  }
+
+  @Test
+  public void attachedPolicy() {
+    HeavyHitters<Integer> hh = new HeavyHitters<>(4);
+    ReplacementPolicy<Integer> policy = hh.attach(new LruPolicy<>(2));
+    assertNull(policy.require(1));
+    assertNull(policy.require(2));
+    assertNull(policy.require(1));
+    assertEquals((Integer) 2, policy.require(3));
+    assertEquals(2, policy.capacity());
+    assertEquals(2, hh.estimate(1));
+    assertEquals(4, hh.total());
+  }
+
+  @Test
+  public void clear() {
+    HeavyHitters<Integer> hh = new HeavyHitters<>(4);
+    hh.offer(1);
+    hh.clear();
+    assertEquals(0, hh.total());
+    assertTrue(hh.top(1).isEmpty());
+  }
+}
@@ -0,0 +1,87 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts cache keys to and from bytes, so that policies in different processes can agree on
+ * them. Used by {@link PolicyClient} and {@link PolicyServer}.
+ *
+ * @param <K> the type of keys
+ */
+public interface KeyCodec<K> {
+
+  /**
+   * Writes a key.
+   *
+   * @param key the key to write (non-null)
+   * @param out where to write it
+   * @throws IOException if writing fails
+   */
+  void encode(K key, DataOutput out) throws IOException;
+
+  /**
+   * Reads a key written by {@link #encode(Object, DataOutput)}.
+   *
+   * @param in where to read it from
+   * @return the key
+   * @throws IOException if reading fails
+   */
+  K decode(DataInput in) throws IOException;
+
+  /**
+   * Returns a codec for {@code Integer} keys, as four bytes each.
+   *
+   * @return the codec
+   */
+  static KeyCodec<Integer> integers() {
+    return new KeyCodec<Integer>() {
+      @Override
+      public void encode(Integer key, DataOutput out) throws IOException {
+        out.writeInt(key);
+      }
+
+      @Override
+      public Integer decode(DataInput in) throws IOException {
+        return in.readInt();
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for {@code Long} keys, as eight bytes each.
+   *
+   * @return the codec
+   */
+  static KeyCodec<Long> longs() {
+    return new KeyCodec<Long>() {
+      @Override
+      public void encode(Long key, DataOutput out) throws IOException {
+        out.writeLong(key);
+      }
+
+      @Override
+      public Long decode(DataInput in) throws IOException {
+        return in.readLong();
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for {@code String} keys, in modified UTF-8 with a two-byte length prefix.
+   *
+   * @return the codec
+   */
+  static KeyCodec<String> strings() {
+    return new KeyCodec<String>() {
+      @Override
+      public void encode(String key, DataOutput out) throws IOException {
+        out.writeUTF(key);
+      }
+
+      @Override
+      public String decode(DataInput in) throws IOException {
+        return in.readUTF();
+      }
+    };
+  }
+}
@@ -0,0 +1,265 @@
+import java.util.Arrays;
+
+/**
+ * A compact map from keys to non-negative {@code int} values (typically slot numbers in a
+ * policy's arrays), for policies that would otherwise need a {@code HashMap<K, Integer>}. The
+ * table uses open addressing with <a href="https://en.wikipedia.org/wiki/Hash_table#Robin_Hood_hashing">Robin
+ * Hood</a> linear probing and caches each key's hash code, so an entry costs one reference and
+ * two {@code int}s in three parallel arrays, with no per-entry objects at all.
+ *
+ * <p>Removal uses backward-shift deletion rather than tombstones, so a table that sees constant
+ * churn (as a full cache does) never degrades.
+ *
+ * <p>Keys are compared using {@link Object#equals(Object)} and must not be {@code null}.
+ *
+ * @param <K> the type of keys
+ */
+final class KeyIndex<K> {
+
+  /**
+   * Returned by lookups when the key is absent.
+   */
+  static final int NOT_FOUND = -1;
+
+  // The table grows once it is more than 7/8 full:
+  private static final int LOAD_NUMERATOR = 7;
+  private static final int LOAD_DENOMINATOR = 8;
+
+  // The keys, or null for empty slots:
+  private K[] keys;
+
+  // The spread hash code of the key in each slot:
+  private int[] hashes;
+
+  // The value associated with the key in each slot:
+  private int[] values;
+
+  // keys.length - 1, for wrapping probe sequences:
+  private int mask;
+
+  // 32 - log2(keys.length), so that hash >>> shift is a home slot:
+  private int shift;
+
+  // The number of entries that trigger growth:
+  private int threshold;
+
+  // The number of entries:
+  private int size = 0;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - keys.length == hashes.length == values.length, and is a power of two
+   *  - size <= threshold < keys.length
+   *  - every key is at or after its home slot (hashes[i] >>> shift), and no empty slot lies
+   *    between its home slot and its actual slot
+   *  - (Robin Hood) along any probe sequence, an entry's distance from its home slot is at most
+   *    one more than the distance of the entry before it
+   *
+   * REPRESENTATION NOTE:
+   *
+   * Home slots are taken from the high bits of the spread hash, which are the best-mixed bits of a
+   * multiplicative hash. The Robin Hood invariant lets a lookup stop as soon as it meets an entry
+   * that is closer to its home than the probe is, without reaching an empty slot.
+   */
+
+  /**
+   * Creates an index with room for {@code expectedSize} entries before it needs to grow.
+   *
+   * @param expectedSize the expected number of entries
+   * @throws IllegalArgumentException {@code expectedSize < 0}
+   */
+  KeyIndex(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("expected size must not be negative");
+    }
+    long needed = (long) expectedSize * LOAD_DENOMINATOR / LOAD_NUMERATOR + 1;
+    int length = 2;
+    while (length < needed && length < 1 << 30) {
+      length <<= 1;
+    }
+    allocate(length);
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the value associated with {@code key}.
+   *
+   * @param key the key to look up (non-null)
+   * @return the value, or {@link #NOT_FOUND}
+   */
+  int get(Object key) {
+    int slot = find(key);
+    return slot < 0 ? NOT_FOUND : values[slot];
+  }
+
+  /**
+   * Associates {@code key} with {@code value}, replacing any previous value.
+   *
+   * @param key   the key (non-null)
+   * @param value the value (non-negative)
+   * @return the previous value, or {@link #NOT_FOUND}
+   */
+  int put(K key, int value) {
+    int h = spread(key.hashCode());
+    int i = h >>> shift;
+    for (int dist = 0; ; ++dist) {
+      K current = keys[i];
+      if (hashes[i] == h && current != null && current.equals(key)) {
+        int previous = values[i];
+        values[i] = value;
+        return previous;
+      }
+      if (current == null || distance(i) < dist) {
+        // Either a free slot, or a resident closer to home than we are, which gives up its slot.
+        // Either way the key can't be further on, by the Robin Hood invariant.
+        insertDisplacing(i, key, h, value, dist);
+        if (++size > threshold) {
+          grow();
+        }
+        return NOT_FOUND;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  /**
+   * Removes {@code key} and its value.
+   *
+   * @param key the key to remove (non-null)
+   * @return the removed value, or {@link #NOT_FOUND}
+   */
+  int remove(Object key) {
+    int slot = find(key);
+    if (slot < 0) {
+      return NOT_FOUND;
+    }
+    int removed = values[slot];
+
+    // Shift the following entries back by one until we reach an empty slot or an entry that is
+    // already in its home slot.
+    int i = slot;
+    int next = (i + 1) & mask;
+    while (keys[next] != null && distance(next) > 0) {
+      keys[i] = keys[next];
+      hashes[i] = hashes[next];
+      values[i] = values[next];
+      i = next;
+      next = (next + 1) & mask;
+    }
+    keys[i] = null;
+    --size;
+    return removed;
+  }
+
+  /**
+   * Removes all entries, keeping the current table.
+   */
+  void clear() {
+    Arrays.fill(keys, null);
+    size = 0;
+  }
+
+  /**
+   * Returns the slot of {@code key} in the table, or -1 if it's absent.
+   */
+  private int find(Object key) {
+    int h = spread(key.hashCode());
+    int i = h >>> shift;
+    for (int dist = 0; ; ++dist) {
+      K current = keys[i];
+      if (current == null || distance(i) < dist) {
+        return -1;
+      }
+      if (hashes[i] == h && current.equals(key)) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  /**
+   * Places an entry at slot {@code i}, which is at distance {@code dist} from its home, pushing the
+   * resident (and so on down the probe sequence) further along, Robin Hood style. Doesn't touch
+   * {@code size}.
+   */
+  private void insertDisplacing(int i, K key, int h, int value, int dist) {
+    while (true) {
+      K current = keys[i];
+      if (current == null) {
+        keys[i] = key;
+        hashes[i] = h;
+        values[i] = value;
+        return;
+      }
+      int currentDist = distance(i);
+      if (currentDist < dist) {
+        int currentHash = hashes[i];
+        int currentValue = values[i];
+        keys[i] = key;
+        hashes[i] = h;
+        values[i] = value;
+        key = current;
+        h = currentHash;
+        value = currentValue;
+        dist = currentDist;
+      }
+      i = (i + 1) & mask;
+      ++dist;
+    }
+  }
+
+  /**
+   * Returns how far the entry in slot {@code i} is from its home slot.
+   */
+  private int distance(int i) {
+    return (i - (hashes[i] >>> shift)) & mask;
+  }
+
+  /**
+   * Doubles the table and reinserts every entry.
+   */
+  private void grow() {
+    if (keys.length == 1 << 30) {
+      throw new IllegalStateException("index is full");
+    }
+    K[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    int[] oldValues = values;
+    allocate(oldKeys.length << 1);
+    for (int j = 0; j < oldKeys.length; ++j) {
+      if (oldKeys[j] != null) {
+        insertDisplacing(oldHashes[j] >>> shift, oldKeys[j], oldHashes[j], oldValues[j], 0);
+      }
+    }
+  }
+
+  /**
+   * Replaces the table with an empty one of the given length, preserving {@code size}.
+   */
+  private void allocate(int length) {
+    @SuppressWarnings("unchecked")
+    K[] temp = (K[]) new Object[length];
+    keys = temp;
+    hashes = new int[length];
+    values = new int[length];
+    mask = length - 1;
+    shift = 32 - Integer.numberOfTrailingZeros(length);
+    threshold = (int) ((long) length * LOAD_NUMERATOR / LOAD_DENOMINATOR);
+  }
+
+  /**
+   * Scrambles a hash code so that its high bits depend on all of its bits.
+   */
+  private static int spread(int h) {
+    return (h ^ (h >>> 16)) * 0x9E3779B9;
+  }
+}
@@ -0,0 +1,113 @@
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class KeyIndexTest {
+
+  KeyIndex<String> index = new KeyIndex<>(4);
+
+  @Test
+  public void putGetRemove() {
+    assertEquals(KeyIndex.NOT_FOUND, index.get("a"));
+    assertEquals(KeyIndex.NOT_FOUND, index.put("a", 1));
+    assertEquals(KeyIndex.NOT_FOUND, index.put("b", 2));
+    assertEquals(1, index.get("a"));
+    assertEquals(2, index.get("b"));
+    assertEquals(2, index.size());
+
+    assertEquals(1, index.put("a", 3));
+    assertEquals(3, index.get("a"));
+    assertEquals(2, index.size());
+
+    assertEquals(3, index.remove("a"));
+    assertEquals(KeyIndex.NOT_FOUND, index.remove("a"));
+    assertEquals(KeyIndex.NOT_FOUND, index.get("a"));
+    assertEquals(2, index.get("b"));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  public void growsPastExpectedSize() {
+    for (int i = 0; i < 1000; i++) {
+      index.put("k" + i, i);
+    }
+    assertEquals(1000, index.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, index.get("k" + i));
+    }
+  }
+
+  @Test
+  public void clear() {
+    index.put("a", 1);
+    index.clear();
+    assertEquals(0, index.size());
+    assertEquals(KeyIndex.NOT_FOUND, index.get("a"));
+  }
+
+  /**
+   * Keys that all hash to the same value end up in one long probe sequence, which exercises
+   * displacement and backward shifting.
+   */
+  @Test
+  public void collidingKeys() {
+    KeyIndex<Colliding> colliding = new KeyIndex<>(64);
+    for (int i = 0; i < 50; i++) {
+      colliding.put(new Colliding(i), i);
+    }
+    for (int i = 0; i < 50; i += 2) {
+      assertEquals(i, colliding.remove(new Colliding(i)));
+    }
+    for (int i = 0; i < 50; i++) {
+      assertEquals(i % 2 == 0 ? KeyIndex.NOT_FOUND : i, colliding.get(new Colliding(i)));
+    }
+  }
+
+  @Test
+  public void agreesWithHashMap() {
+    KeyIndex<Integer> ints = new KeyIndex<>(1000);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(3);
+    for (int i = 0; i < 200000; i++) {
+      Integer key = random.nextInt(2000);
+      int value = random.nextInt(1000000);
+      switch (random.nextInt(3)) {
+        case 0:
+          Integer previous = expected.put(key, value);
+          assertEquals(previous == null ? KeyIndex.NOT_FOUND : previous, ints.put(key, value));
+          break;
+        case 1:
+          Integer removed = expected.remove(key);
+          assertEquals(removed == null ? KeyIndex.NOT_FOUND : removed, ints.remove(key));
+          break;
+        default:
+          Integer found = expected.get(key);
+          assertEquals(found == null ? KeyIndex.NOT_FOUND : found, ints.get(key));
+      }
+      assertEquals(expected.size(), ints.size());
+    }
+  }
+
+  private static final class Colliding {
+
+    private final int id;
+
+    Colliding(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Colliding && ((Colliding) other).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 17;
+    }
+  }
+}
@@ -2,7 +2,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 
-public class LruPolicy<K> implements ReplacementPolicy<K> {
+public class LruPolicy<K> extends AbstractReplacementPolicy<K> {
 
   // The capacity of the cache:
   private final int capacity;
@@ -45,7 +45,7 @@ public class LruPolicy<K> implements ReplacementPolicy<K> {
       return null;
     }
     buffer.addFirst(item);
-    return buffer.removeLast();
+    return reportEviction(buffer.removeLast());
   }
 
   @Override
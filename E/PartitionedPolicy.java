@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A cache policy that partitions the key space among several policies, usually one per process
+ * on a host, so that each key is cached by exactly one of them. Keys are assigned to partitions by
+ * a {@link ConsistentHashRing}.
+ *
+ * <p>In each process, the partition it owns is an ordinary local policy, and the others are
+ * {@link PolicyClient}s connected to the {@link PolicyServer}s of the processes that own them. For
+ * testing, any partition can be an in-process policy instead; the partitioned policy doesn't care.
+ * Every process must list the partitions in the same order, so that they agree on ownership.
+ *
+ * @param <K> keys for cached items
+ */
+public final class PartitionedPolicy<K> implements ReplacementPolicy<K> {
+
+  // The partitions, indexed by ring node:
+  private final List<ReplacementPolicy<K>> partitions;
+
+  // Maps keys to partitions:
+  private final ConsistentHashRing ring;
+
+  /**
+   * Creates a partitioned policy over the given partitions, with {@link
+   * ConsistentHashRing#DEFAULT_VIRTUAL_NODES} points per partition.
+   *
+   * @param partitions the partitions, in the same order in every process
+   * @throws IllegalArgumentException {@code partitions} is empty
+   */
+  public PartitionedPolicy(List<? extends ReplacementPolicy<K>> partitions) {
+    this(partitions, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+  }
+
+  /**
+   * Creates a partitioned policy over the given partitions.
+   *
+   * @param partitions   the partitions, in the same order in every process
+   * @param virtualNodes the number of ring points per partition
+   * @throws IllegalArgumentException {@code partitions} is empty, or {@code virtualNodes < 1}
+   */
+  public PartitionedPolicy(List<? extends ReplacementPolicy<K>> partitions, int virtualNodes) {
+    if (partitions.isEmpty()) {
+      throw new IllegalArgumentException("there must be at least one partition");
+    }
+    this.partitions = new ArrayList<>(partitions);
+    ring = new ConsistentHashRing(partitions.size(), virtualNodes);
+  }
+
+  /**
+   * Returns the partition that owns {@code item}.
+   *
+   * @param item an item (non-null)
+   * @return the index of its partition
+   */
+  public int ownerOf(K item) {
+    return ring.ownerOf(item);
+  }
+
+  @Override
+  public K require(K item) {
+    return partitions.get(ring.ownerOf(item)).require(item);
+  }
+
+  /**
+   * Requires a batch of items. The batch is split by owner, and the first request to each remote
+   * partition is sent before any answer is awaited, so the round trips overlap. Each client keeps
+   * at most one request of its sub-batch on the wire, so the servers never wait on answers that
+   * nobody is reading.
+   *
+   * <p>Items owned by the same partition are required in their order in {@code items}; the
+   * relative order of items owned by different partitions doesn't matter, since they don't
+   * affect each other.
+   *
+   * <p>If a partition fails, the batches already sent to the others are still answered, and the
+   * failure is thrown once they are; those items were required even though their answers are
+   * lost.
+   *
+   * @param items the required items (non-null)
+   * @return the item evicted by each required item, or {@code null}, in the same order
+   */
+  public List<K> requireAll(List<K> items) {
+    List<List<K>> batches = new ArrayList<>();
+    List<List<Integer>> positions = new ArrayList<>();
+    for (int i = 0; i < partitions.size(); ++i) {
+      batches.add(new ArrayList<>());
+      positions.add(new ArrayList<>());
+    }
+    for (int i = 0; i < items.size(); ++i) {
+      int owner = ring.ownerOf(items.get(i));
+      batches.get(owner).add(items.get(i));
+      positions.get(owner).add(i);
+    }
+
+    // Put every remote batch on the wire first...
+    boolean[] outstanding = new boolean[partitions.size()];
+    List<K> evicted = new ArrayList<>(items.size());
+    try {
+      for (int p = 0; p < partitions.size(); ++p) {
+        if (!batches.get(p).isEmpty() && partitions.get(p) instanceof PolicyClient) {
+          ((PolicyClient<K>) partitions.get(p)).send(batches.get(p));
+          outstanding[p] = true;
+        }
+      }
+
+      // ...then handle the local ones while the remote ones are being answered, and collect.
+      for (int i = 0; i < items.size(); ++i) {
+        evicted.add(null);
+      }
+      for (int p = 0; p < partitions.size(); ++p) {
+        List<K> batch = batches.get(p);
+        if (batch.isEmpty()) {
+          continue;
+        }
+        ReplacementPolicy<K> partition = partitions.get(p);
+        List<K> answers;
+        if (partition instanceof PolicyClient) {
+          // A client whose receive fails has closed itself, so it is no longer outstanding.
+          outstanding[p] = false;
+          answers = ((PolicyClient<K>) partition).receive();
+        } else {
+          answers = new ArrayList<>(batch.size());
+          for (K item : batch) {
+            answers.add(partition.require(item));
+          }
+        }
+        for (int j = 0; j < answers.size(); ++j) {
+          evicted.set(positions.get(p).get(j), answers.get(j));
+        }
+      }
+    } catch (RuntimeException e) {
+      // Read the answers of the batches still on the wire, or the next call would take them for
+      // its own.
+      for (int p = 0; p < partitions.size(); ++p) {
+        if (outstanding[p]) {
+          try {
+            ((PolicyClient<K>) partitions.get(p)).receive();
+          } catch (RuntimeException suppressed) {
+            e.addSuppressed(suppressed);
+          }
+        }
+      }
+      throw e;
+    }
+    return evicted;
+  }
+
+  /**
+   * Registers the listener with every partition, so it hears about evictions from all of them
+   * (for remote partitions, only those caused by this process' requests).
+   *
+   * @param listener the listener, or {@code null}
+   * @throws UnsupportedOperationException if a partition doesn't support listeners
+   */
+  @Override
+  public void setEvictionListener(EvictionListener<? super K> listener) {
+    for (ReplacementPolicy<K> partition : partitions) {
+      partition.setEvictionListener(listener);
+    }
+  }
+
+  @Override
+  public int capacity() {
+    int total = 0;
+    for (ReplacementPolicy<K> partition : partitions) {
+      total += partition.capacity();
+    }
+    return total;
+  }
+
+  @Override
+  public int size() {
+    int total = 0;
+    for (ReplacementPolicy<K> partition : partitions) {
+      total += partition.size();
+    }
+    return total;
+  }
+}
@@ -0,0 +1,248 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PartitionedPolicyTest {
+
+  @Test
+  public void ringIsBalancedAndStable() {
+    ConsistentHashRing ring = new ConsistentHashRing(4);
+    int[] counts = new int[4];
+    for (int i = 0; i < 100000; i++) {
+      counts[ring.ownerOf(i)]++;
+    }
+    for (int count : counts) {
+      assertTrue(Arrays.toString(counts), count > 20000 && count < 30000);
+    }
+
+    // Adding a node only moves keys onto the new node.
+    ConsistentHashRing bigger = new ConsistentHashRing(5);
+    for (int i = 0; i < 100000; i++) {
+      int before = ring.ownerOf(i);
+      int after = bigger.ownerOf(i);
+      assertTrue(after == before || after == 4);
+    }
+  }
+
+  /**
+   * With in-process partitions, each key is cached by exactly one partition.
+   */
+  @Test
+  public void keysGoToTheirOwners() {
+    List<ReplacementPolicy<Integer>> partitions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      partitions.add(new LruPolicy<>(10));
+    }
+    PartitionedPolicy<Integer> policy = new PartitionedPolicy<>(partitions);
+    assertEquals(30, policy.capacity());
+
+    for (int i = 0; i < 9; i++) {
+      assertNull(policy.require(i));
+    }
+    assertEquals(9, policy.size());
+    for (int i = 0; i < 9; i++) {
+      // Requiring again is a hit, in the owner only.
+      int owner = policy.ownerOf(i);
+      int ownerSize = partitions.get(owner).size();
+      assertNull(policy.require(i));
+      assertEquals(ownerSize, partitions.get(owner).size());
+    }
+    assertEquals(9, policy.size());
+  }
+
+  @Test
+  public void requireAllMatchesRequire() {
+    PartitionedPolicy<Integer> batched = new PartitionedPolicy<>(
+        Arrays.asList(new ClockPolicy<>(5), new ClockPolicy<>(5)));
+    PartitionedPolicy<Integer> single = new PartitionedPolicy<>(
+        Arrays.asList(new ClockPolicy<>(5), new ClockPolicy<>(5)));
+    List<Integer> keys = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      keys.add((i * 7) % 23);
+    }
+    List<Integer> expected = new ArrayList<>();
+    for (Integer key : keys) {
+      expected.add(single.require(key));
+    }
+    assertEquals(expected, batched.requireAll(keys));
+  }
+
+  /**
+   * One local partition and one served over loopback TCP behave like two local partitions.
+   */
+  @Test
+  public void overLoopback() throws Exception {
+    InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    try (PolicyServer<Integer> server =
+             new PolicyServer<>(new FifoPolicy<>(5), KeyCodec.integers(), any);
+         PolicyClient<Integer> client =
+             new PolicyClient<>(KeyCodec.integers(), server.address())) {
+      PartitionedPolicy<Integer> remote =
+          new PartitionedPolicy<>(Arrays.asList(new FifoPolicy<>(5), client));
+      PartitionedPolicy<Integer> local =
+          new PartitionedPolicy<>(Arrays.asList(new FifoPolicy<>(5), new FifoPolicy<>(5)));
+      assertEquals(10, remote.capacity());
+
+      for (int i = 0; i < 100; i++) {
+        Integer key = (i * 13) % 17;
+        assertEquals(local.require(key), remote.require(key));
+      }
+      assertEquals(local.size(), remote.size());
+
+      List<Integer> keys = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+        keys.add((i * 11) % 31);
+      }
+      assertEquals(local.requireAll(keys), remote.requireAll(keys));
+      assertEquals(local.size(), remote.size());
+    }
+  }
+
+  @Test
+  public void pipelinedBatches() throws Exception {
+    InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    try (PolicyServer<String> server =
+             new PolicyServer<>(new FifoPolicy<>(2), KeyCodec.strings(), any);
+         PolicyClient<String> client =
+             new PolicyClient<>(KeyCodec.strings(), server.address())) {
+      client.send(Arrays.asList("a", "b"));
+      client.send(Arrays.asList("c", "a"));
+      client.send(Arrays.asList("d"));
+      assertEquals(Arrays.asList(null, null), client.receive());
+      assertEquals(Arrays.asList("a", "b"), client.receive());
+      assertEquals(Arrays.asList("c"), client.receive());
+      assertEquals(2, client.size());
+    }
+  }
+
+  @Test
+  public void batchLargerThanTheSocketBuffers() throws Exception {
+    InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    try (PolicyServer<String> server =
+             new PolicyServer<>(new FifoPolicy<>(10), KeyCodec.strings(), any);
+         PolicyClient<String> client =
+             new PolicyClient<>(KeyCodec.strings(), server.address())) {
+      // Every item evicts another, so the answers are as large as the requests: megabytes.
+      char[] padding = new char[100];
+      Arrays.fill(padding, '.');
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; i < 3 * PolicyProtocol.MAX_BATCH + 5; i++) {
+        keys.add("key-" + i + new String(padding));
+      }
+      List<String> evicted = client.requireAll(keys);
+      assertEquals(keys.size(), evicted.size());
+      assertNull(evicted.get(9));
+      assertEquals(keys.get(0), evicted.get(10));
+      assertEquals(keys.get(keys.size() - 11), evicted.get(keys.size() - 1));
+    }
+  }
+
+  @Test
+  public void failedClientStaysClosed() throws Exception {
+    InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    PolicyServer<Integer> server =
+        new PolicyServer<>(new FifoPolicy<>(5), KeyCodec.integers(), any);
+    try (PolicyClient<Integer> client =
+             new PolicyClient<>(KeyCodec.integers(), server.address())) {
+      client.require(1);
+      server.close();
+      int failures = 0;
+      for (int i = 0; i < 3; i++) {
+        try {
+          client.require(2);
+        } catch (UncheckedIOException e) {
+          failures++;
+        }
+      }
+      assertEquals(3, failures);
+    }
+  }
+
+  /**
+   * A remote partition that dies in the middle of a batch doesn't leave the answers of the other
+   * partitions on the wire to be read by the next batch.
+   */
+  @Test
+  public void partitionDiesMidBatch() throws Exception {
+    InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    List<PolicyServer<Integer>> dying = new ArrayList<>();
+    ReplacementPolicy<Integer> dies = new ReplacementPolicy<Integer>() {
+      private final FifoPolicy<Integer> policy = new FifoPolicy<>(5);
+
+      @Override
+      public Integer require(Integer item) {
+        if (policy.size() == 2) {
+          try {
+            dying.get(0).close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+        return policy.require(item);
+      }
+
+      @Override
+      public int capacity() {
+        return policy.capacity();
+      }
+
+      @Override
+      public int size() {
+        return policy.size();
+      }
+    };
+    try (PolicyServer<Integer> deadServer = new PolicyServer<>(dies, KeyCodec.integers(), any);
+         PolicyServer<Integer> liveServer =
+             new PolicyServer<>(new FifoPolicy<>(3), KeyCodec.integers(), any);
+         PolicyClient<Integer> dead =
+             new PolicyClient<>(KeyCodec.integers(), deadServer.address());
+         PolicyClient<Integer> live =
+             new PolicyClient<>(KeyCodec.integers(), liveServer.address())) {
+      dying.add(deadServer);
+      PartitionedPolicy<Integer> policy = new PartitionedPolicy<>(Arrays.asList(dead, live));
+      FifoPolicy<Integer> reference = new FifoPolicy<>(3);
+      // Twenty keys for each partition; the dead one is closed while requiring its third.
+      List<Integer> keys = new ArrayList<>();
+      int[] perPartition = new int[2];
+      for (int i = 0; perPartition[0] < 20 || perPartition[1] < 20; i++) {
+        int owner = policy.ownerOf(i);
+        if (perPartition[owner] < 20) {
+          perPartition[owner]++;
+          keys.add(i);
+          if (owner == 1) {
+            reference.require(i);
+          }
+        }
+      }
+      try {
+        policy.requireAll(keys);
+        fail("the dead partition should fail the batch");
+      } catch (UncheckedIOException e) {
+        // expected
+      }
+
+      // The live partition took its share of the failed batch, and answers the next one in step.
+      List<Integer> liveKeys = new ArrayList<>();
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 100000; liveKeys.size() < 10; i++) {
+        if (policy.ownerOf(i) == 1) {
+          liveKeys.add(i);
+          expected.add(reference.require(i));
+        }
+      }
+      assertEquals(expected, policy.requireAll(liveKeys));
+      assertEquals(3, live.size());
+    }
+  }
+}
@@ -0,0 +1,236 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link ReplacementPolicy} that forwards every call to a {@link PolicyServer} in another
+ * process, over TCP or a Unix-domain socket. Besides the single-key calls of the policy interface,
+ * the client can send a batch of keys in one request ({@link #requireAll(List)}), and can split
+ * sending from receiving ({@link #send(List)} and {@link #receive()}) so that a caller talking to
+ * several servers can have requests in flight to all of them at once.
+ *
+ * <p>A listener registered with the client hears about the evictions caused by this client's
+ * requests; evictions caused by other clients of the same server aren't reported to it.
+ *
+ * <p>Since the {@code ReplacementPolicy} methods can't throw checked exceptions, I/O failures are
+ * reported as {@link UncheckedIOException}. A failure closes the connection, and every later call
+ * fails too. A client is not thread safe.
+ *
+ * @param <K> keys for cached items
+ */
+public final class PolicyClient<K> extends AbstractReplacementPolicy<K> implements Closeable {
+
+  // How keys are written on the wire:
+  private final KeyCodec<K> codec;
+
+  // The connection to the server:
+  private final SocketChannel channel;
+  private final DataInputStream in;
+  private final DataOutputStream out;
+
+  // The batches sent but not yet received, oldest first; only the first may have items on the
+  // wire:
+  private final List<Batch<K>> pending = new ArrayList<>();
+
+  // The I/O failure that closed the connection, or null if there was none:
+  private IOException failure = null;
+
+  // The remote capacity, which never changes, fetched on first use:
+  private int capacity = -1;
+
+  /**
+   * Connects to a {@link PolicyServer}.
+   *
+   * @param codec   how keys are written on the wire; must match the server's
+   * @param address the server's address
+   * @throws IOException if the connection fails
+   */
+  public PolicyClient(KeyCodec<K> codec, SocketAddress address) throws IOException {
+    this.codec = codec;
+    channel = SocketChannel.open(address);
+    in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+  }
+
+  @Override
+  public K require(K item) {
+    return requireAll(Collections.singletonList(item)).get(0);
+  }
+
+  /**
+   * Requires a batch of items, in order, in a single round trip.
+   *
+   * @param items the required items (non-null)
+   * @return the item evicted by each required item, or {@code null}, in the same order
+   * @throws UncheckedIOException if the connection fails
+   */
+  public List<K> requireAll(List<K> items) {
+    send(items);
+    return receive();
+  }
+
+  /**
+   * Sends a batch of items to be required, without waiting for the answer. Batches larger than
+   * the protocol allows are split, and answered together by {@link #receive()}.
+   *
+   * <p>Only one sub-batch of at most {@link PolicyProtocol#MAX_BATCH} items is on the wire at a
+   * time: the rest of a large batch, and any batches sent after it, are written by {@link
+   * #receive()} once the answers before them are read. Otherwise the answers to a large batch
+   * could fill the socket buffers while the client is still writing, and both ends would block.
+   *
+   * @param items the required items (non-null)
+   * @throws UncheckedIOException if the connection fails, or failed before
+   */
+  public void send(List<K> items) {
+    checkConnection();
+    pending.add(new Batch<>(items));
+    if (pending.size() == 1) {
+      sendNext(pending.get(0));
+    }
+  }
+
+  /**
+   * Waits for the answer to the oldest batch sent by {@link #send(List)} and not yet received.
+   *
+   * @return the item evicted by each required item of that batch, or {@code null}, in order
+   * @throws IllegalStateException if no batch is outstanding
+   * @throws UncheckedIOException  if the connection fails, or failed before
+   */
+  public List<K> receive() {
+    checkConnection();
+    if (pending.isEmpty()) {
+      throw new IllegalStateException("no batch is waiting for an answer");
+    }
+    Batch<K> batch = pending.get(0);
+    try {
+      do {
+        if (batch.inFlight == 0 && batch.sent < batch.items.size()) {
+          sendNext(batch);
+        }
+        for (int i = 0; i < batch.inFlight; ++i) {
+          batch.evicted.add(in.readByte() == 0 ? null : codec.decode(in));
+        }
+        batch.inFlight = 0;
+      } while (batch.sent < batch.items.size());
+    } catch (IOException e) {
+      throw fail(e);
+    }
+    pending.remove(0);
+    for (K item : batch.evicted) {
+      reportEviction(item);
+    }
+    return batch.evicted;
+  }
+
+  @Override
+  public int capacity() {
+    if (capacity < 0) {
+      capacity = query(PolicyProtocol.CAPACITY);
+    }
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return query(PolicyProtocol.SIZE);
+  }
+
+  /**
+   * Closes the connection.
+   *
+   * @throws IOException if closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Sends a request with no arguments and reads its {@code int} answer.
+   */
+  private int query(byte op) {
+    checkConnection();
+    if (!pending.isEmpty()) {
+      throw new IllegalStateException("batches are still waiting for answers");
+    }
+    try {
+      out.writeByte(op);
+      out.flush();
+      return in.readInt();
+    } catch (IOException e) {
+      throw fail(e);
+    }
+  }
+
+  /**
+   * Writes the next sub-batch of a batch, which has none on the wire.
+   */
+  private void sendNext(Batch<K> batch) {
+    try {
+      int count = Math.min(batch.items.size() - batch.sent, PolicyProtocol.MAX_BATCH);
+      out.writeByte(PolicyProtocol.REQUIRE);
+      out.writeInt(count);
+      for (K item : batch.items.subList(batch.sent, batch.sent + count)) {
+        codec.encode(item, out);
+      }
+      out.flush();
+      batch.sent += count;
+      batch.inFlight = count;
+    } catch (IOException e) {
+      throw fail(e);
+    }
+  }
+
+  /**
+   * Throws if an earlier I/O failure left the stream out of step with the batches.
+   */
+  private void checkConnection() {
+    if (failure != null) {
+      throw new UncheckedIOException(
+          new IOException("the connection failed earlier and was closed", failure));
+    }
+  }
+
+  /**
+   * Records an I/O failure and closes the connection, since the answers still on the stream no
+   * longer match the batches waiting for them.
+   */
+  private UncheckedIOException fail(IOException e) {
+    failure = e;
+    pending.clear();
+    try {
+      channel.close();
+    } catch (IOException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+    return new UncheckedIOException(e);
+  }
+
+  /**
+   * A batch sent and not yet received.
+   */
+  private static final class Batch<K> {
+
+    final List<K> items;
+    final List<K> evicted;
+
+    // The number of items written, and of those whose answers are yet to be read:
+    int sent = 0;
+    int inFlight = 0;
+
+    Batch(List<K> items) {
+      this.items = items;
+      evicted = new ArrayList<>(items.size());
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/**
+ * Constants for the binary protocol spoken between {@link PolicyClient} and {@link PolicyServer}.
+ *
+ * <p>Every request starts with a one-byte opcode. Responses carry no header, because a server
+ * answers the requests on a connection strictly in order; a client may therefore write several
+ * requests before reading any responses (pipelining).
+ *
+ * <pre>
+ *   REQUIRE:   request  = op, int count, count * key
+ *              response = count * (byte hasEvicted, [key])
+ *   SIZE:      request  = op
+ *              response = int size
+ *   CAPACITY:  request  = op
+ *              response = int capacity
+ * </pre>
+ *
+ * <p>Integers are big-endian, and keys are written by the connection's {@link KeyCodec}. A batch
+ * of {@code count} keys is required in order, exactly as if {@code require} were called on each
+ * in turn.
+ */
+final class PolicyProtocol {
+
+  private PolicyProtocol() {
+  } // prevents instantiation.
+
+  /**
+   * Requires a batch of keys.
+   */
+  static final byte REQUIRE = 1;
+
+  /**
+   * Asks for the size of the served policy.
+   */
+  static final byte SIZE = 2;
+
+  /**
+   * Asks for the capacity of the served policy.
+   */
+  static final byte CAPACITY = 3;
+
+  /**
+   * The largest batch a server accepts, to bound the memory a single request can demand.
+   */
+  static final int MAX_BATCH = 1 << 16;
+}
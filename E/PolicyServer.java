@@ -0,0 +1,188 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves a {@link ReplacementPolicy} to other processes over a socket, speaking the {@link
+ * PolicyProtocol}. The socket may be a TCP socket (normally bound to the loopback address) or a
+ * Unix-domain socket.
+ *
+ * <p>Each connection is handled by its own thread. Requests from all connections are applied to
+ * the policy one at a time, since policies aren't thread safe.
+ *
+ * @param <K> keys for cached items
+ */
+public final class PolicyServer<K> implements Closeable {
+
+  // The policy being served; also the lock serializing access to it:
+  private final ReplacementPolicy<K> policy;
+
+  // How keys are written on the wire:
+  private final KeyCodec<K> codec;
+
+  // The listening socket:
+  private final ServerSocketChannel server;
+
+  // The thread accepting connections:
+  private final Thread acceptor;
+
+  // The open connections, so that close() can close them:
+  private final List<SocketChannel> connections = new ArrayList<>();
+
+  /**
+   * Starts serving {@code policy} on {@code address}. A TCP port of 0 picks a free port; see
+   * {@link #address()}.
+   *
+   * @param policy  the policy to serve
+   * @param codec   how keys are written on the wire
+   * @param address an {@code InetSocketAddress} or {@code UnixDomainSocketAddress} to bind to
+   * @throws IOException if the socket can't be bound
+   */
+  public PolicyServer(ReplacementPolicy<K> policy, KeyCodec<K> codec, SocketAddress address)
+      throws IOException {
+    this.policy = policy;
+    this.codec = codec;
+    server = address instanceof UnixDomainSocketAddress
+             ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+             : ServerSocketChannel.open();
+    server.bind(address);
+
+    acceptor = new Thread(this::acceptLoop, "policy-server-" + server.getLocalAddress());
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Returns the address the server is listening on.
+   *
+   * @return the bound address
+   * @throws IOException if the server has been closed
+   */
+  public SocketAddress address() throws IOException {
+    return server.getLocalAddress();
+  }
+
+  /**
+   * Stops accepting connections and closes the open ones.
+   *
+   * @throws IOException if closing the socket fails
+   */
+  @Override
+  public void close() throws IOException {
+    server.close();
+    synchronized (connections) {
+      for (SocketChannel connection : connections) {
+        connection.close();
+      }
+      connections.clear();
+    }
+  }
+
+  /**
+   * Accepts connections until the server socket is closed.
+   */
+  private void acceptLoop() {
+    while (server.isOpen()) {
+      SocketChannel connection;
+      try {
+        connection = server.accept();
+      } catch (IOException e) {
+        // Closed (or broken); either way there's nothing more to accept.
+        return;
+      }
+      synchronized (connections) {
+        connections.add(connection);
+      }
+      Thread handler = new Thread(() -> serve(connection), "policy-connection");
+      handler.setDaemon(true);
+      handler.start();
+    }
+  }
+
+  /**
+   * Answers requests on one connection until the client hangs up.
+   */
+  private void serve(SocketChannel connection) {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Channels.newInputStream(connection)));
+         DataOutputStream out = new DataOutputStream(
+             new BufferedOutputStream(Channels.newOutputStream(connection)))) {
+      while (true) {
+        int op = in.read();
+        if (op < 0) {
+          return;
+        }
+        handle((byte) op, in, out);
+        // Only flush once the client has no more pipelined requests waiting, so that a burst of
+        // requests is answered with as few writes as possible.
+        if (in.available() == 0) {
+          out.flush();
+        }
+      }
+    } catch (EOFException e) {
+      // The client hung up mid-request; nothing to answer.
+    } catch (IOException e) {
+      // The connection broke, or the server was closed.
+    } finally {
+      synchronized (connections) {
+        connections.remove(connection);
+      }
+    }
+  }
+
+  /**
+   * Reads the rest of one request and writes its response.
+   */
+  private void handle(byte op, DataInputStream in, DataOutputStream out) throws IOException {
+    switch (op) {
+      case PolicyProtocol.REQUIRE:
+        int count = in.readInt();
+        if (count < 0 || count > PolicyProtocol.MAX_BATCH) {
+          throw new IOException("bad batch size: " + count);
+        }
+        List<K> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+          keys.add(codec.decode(in));
+        }
+        List<K> evicted = new ArrayList<>(count);
+        synchronized (policy) {
+          for (K key : keys) {
+            evicted.add(policy.require(key));
+          }
+        }
+        for (K key : evicted) {
+          if (key == null) {
+            out.writeByte(0);
+          } else {
+            out.writeByte(1);
+            codec.encode(key, out);
+          }
+        }
+        break;
+      case PolicyProtocol.SIZE:
+        int size;
+        synchronized (policy) {
+          size = policy.size();
+        }
+        out.writeInt(size);
+        break;
+      case PolicyProtocol.CAPACITY:
+        out.writeInt(policy.capacity());
+        break;
+      default:
+        throw new IOException("unknown opcode: " + op);
+    }
+  }
+}
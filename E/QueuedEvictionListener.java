@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The listener returned by {@link EvictionListener#queued(EvictionListener, Executor)}.
+ *
+ * @param <K> keys for cached items
+ */
+final class QueuedEvictionListener<K> implements EvictionListener<K> {
+
+  // The listener that evictions are delivered to:
+  private final EvictionListener<K> delegate;
+
+  // Where deliveries run:
+  private final Executor executor;
+
+  // Evictions not yet delivered, oldest first:
+  private final Queue<Eviction<K>> queue = new ConcurrentLinkedQueue<>();
+
+  // Whether a delivery task has been submitted and hasn't finished draining:
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  /*
+   * REPRESENTATION NOTE:
+   *
+   * At most one delivery task is outstanding at a time. A task drains the queue, clears the flag,
+   * and then checks the queue once more, because an eviction may have been queued after the last
+   * poll but before the flag was cleared, in which case nobody else would schedule a task for it.
+   *
+   * If the delegate throws, the task clears the flag on its way out and schedules a new task for
+   * whatever is left, so that one failure can't leave the flag set and stop delivery for good.
+   */
+
+  QueuedEvictionListener(EvictionListener<K> delegate, Executor executor) {
+    this.delegate = delegate;
+    this.executor = executor;
+  }
+
+  @Override
+  public void onEviction(K key, EvictionCause cause) {
+    queue.add(new Eviction<>(key, cause));
+    schedule();
+  }
+
+  /**
+   * Submits a delivery task, unless one is outstanding.
+   */
+  private void schedule() {
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RuntimeException e) {
+        // The task will never run, so it can't clear the flag itself.
+        scheduled.set(false);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Runs a delivery task, handing the rest of the queue to a new task if the delegate throws.
+   */
+  private void drain() {
+    boolean finished = false;
+    try {
+      deliver();
+      finished = true;
+    } finally {
+      if (!finished) {
+        scheduled.set(false);
+        if (!queue.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+  }
+
+  /**
+   * Delivers everything in the queue, grouping consecutive evictions with the same cause, until
+   * it is empty and the flag is cleared.
+   */
+  private void deliver() {
+    do {
+      List<K> batch = new ArrayList<>();
+      EvictionCause batchCause = null;
+      Eviction<K> next;
+      while ((next = queue.poll()) != null) {
+        if (next.cause != batchCause && !batch.isEmpty()) {
+          delegate.onEvictions(batch, batchCause);
+          batch = new ArrayList<>();
+        }
+        batch.add(next.key);
+        batchCause = next.cause;
+      }
+      if (!batch.isEmpty()) {
+        delegate.onEvictions(batch, batchCause);
+      }
+      scheduled.set(false);
+    } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+  }
+
+  private static final class Eviction<K> {
+
+    private final K key;
+    private final EvictionCause cause;
+
+    Eviction(K key, EvictionCause cause) {
+      this.key = key;
+      this.cause = cause;
+    }
+  }
+}
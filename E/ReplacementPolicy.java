@@ -1,7 +1,8 @@
 /**
  * A replacement policy for managing a cache. This class keeps track of items in a cache, and when
  * the client requires an item, it notifies the cache via the {@code require} method. The policy
- * then tells the client what item to evict, if any.
+ * then tells the client what item to evict, if any, and also tells the registered {@link
+ * EvictionListener}, if there is one.
  *
  * <p>Items are compared using {@link Object#equals(Object)}.
  *
@@ -35,4 +36,19 @@ public interface ReplacementPolicy<K> {
    * @return number of items currently cached
    */
   public abstract int size();
+
+  /**
+   * Registers a listener to be told about every item the policy evicts, replacing any previous
+   * listener. Passing {@code null} removes the listener. The return value of {@link
+   * #require(Object)} is unaffected.
+   *
+   * <p>Policies that extend {@link AbstractReplacementPolicy} support listeners; the default
+   * implementation does not.
+   *
+   * @param listener the listener, or {@code null}
+   * @throws UnsupportedOperationException if the policy doesn't support listeners
+   */
+  public default void setEvictionListener(EvictionListener<? super K> listener) {
+    throw new UnsupportedOperationException("eviction listeners are not supported");
+  }
 }
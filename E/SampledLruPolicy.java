@@ -0,0 +1,270 @@
+/**
+ * A cache policy approximating least-recently-used eviction by sampling, in the style of <a
+ * href="https://redis.io/docs/reference/eviction/#approximated-lru-algorithm">Redis' approximated
+ * LRU</a>. Rather than keeping the items in recency order, each slot records the value of an
+ * access clock at its last reference. To evict, the policy looks at {@code sampleSize} random
+ * slots and evicts the one that was referenced longest ago.
+ *
+ * <p>An optional candidate pool remembers the oldest slots seen by previous samples, which makes
+ * the approximation noticeably closer to exact LRU for small sample sizes.
+ *
+ * @param <K> keys for cached items
+ */
+public final class SampledLruPolicy<K> extends AbstractReplacementPolicy<K> {
+
+  /**
+   * The number of slots sampled per eviction when none is given. Five is the value Redis settled
+   * on; it already gets within a few percent of exact LRU on skewed workloads.
+   */
+  public static final int DEFAULT_SAMPLE_SIZE = 5;
+
+  // The capacity of the cache:
+  private final int capacity;
+
+  // The dense array of items; slots [0, size) are occupied:
+  private final K[] keys;
+
+  // The value of the access clock when each slot was last referenced:
+  private final int[] stamps;
+
+  // Maps each cached item to its slot in keys:
+  private final KeyIndex<K> index;
+
+  // The number of slots looked at per eviction:
+  private final int sampleSize;
+
+  // The slots and stamps of the oldest candidates seen so far, oldest first:
+  private final int[] poolSlots;
+  private final int[] poolStamps;
+
+  // The number of valid entries in the pool:
+  private int poolSize = 0;
+
+  // Incremented on every reference:
+  private int clock = 0;
+
+  // State of the xorshift generator used for sampling:
+  private long seed;
+
+  // The number of items in the cache:
+  private int size = 0;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - keys.length == stamps.length == capacity
+   *  - size <= capacity
+   *  - index maps keys[i] to i for every i < size, and nothing else
+   *  - poolSize <= poolSlots.length == poolStamps.length
+   *  - poolStamps is sorted by age, oldest first
+   *
+   * REPRESENTATION NOTE:
+   *
+   * Stamps are compared by age, that is clock - stamp, rather than by value, so the clock may wrap
+   * around freely as long as no item goes 2^31 references without being evicted or touched.
+   *
+   * A pool entry is only trusted if the stamp it recorded still matches the stamp in its slot;
+   * otherwise the slot was referenced (or reused) since it was pooled and the entry is dropped.
+   */
+
+  /**
+   * Creates a new sampled LRU policy with capacity {@code cap}, sampling {@link
+   * #DEFAULT_SAMPLE_SIZE} slots per eviction and keeping no candidate pool.
+   *
+   * @param cap the capacity of the cache
+   * @throws IllegalArgumentException {@code cap < 1}
+   */
+  public SampledLruPolicy(int cap) {
+    this(cap, DEFAULT_SAMPLE_SIZE, 0);
+  }
+
+  /**
+   * Creates a new sampled LRU policy.
+   *
+   * @param cap        the capacity of the cache
+   * @param sampleSize the number of slots to sample per eviction
+   * @param poolSize   the number of old candidates to carry between evictions (may be 0)
+   * @throws IllegalArgumentException {@code cap < 1}, {@code sampleSize < 1} or {@code poolSize <
+   *                                  0}
+   */
+  public SampledLruPolicy(int cap, int sampleSize, int poolSize) {
+    if (cap < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    if (sampleSize < 1) {
+      throw new IllegalArgumentException("sample size must be at least 1");
+    }
+    if (poolSize < 0) {
+      throw new IllegalArgumentException("pool size must not be negative");
+    }
+
+    @SuppressWarnings("unchecked")
+    K[] temp = (K[]) new Object[cap];
+
+    capacity = cap;
+    keys = temp;
+    stamps = new int[cap];
+    index = new KeyIndex<>(cap);
+    this.sampleSize = sampleSize;
+    poolSlots = new int[poolSize];
+    poolStamps = new int[poolSize];
+    seed = System.nanoTime() | 1;
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public K require(K item) {
+    ++clock;
+
+    int slot = index.get(item);
+    if (slot != KeyIndex.NOT_FOUND) {
+      // It's a hit! Just refresh the stamp.
+      stamps[slot] = clock;
+      return null;
+    }
+
+    // It's a miss! If there's room, the item goes on the end of the dense array.
+    if (size < capacity) {
+      place(item, size++);
+      return null;
+    }
+
+    // Otherwise it replaces the victim in place, so the array stays dense.
+    int victim = chooseVictim();
+    K evicted = keys[victim];
+    index.remove(evicted);
+    place(item, victim);
+    return reportEviction(evicted);
+  }
+
+  /**
+   * Stores {@code item} in {@code slot} as the most recently used item.
+   *
+   * @param item the item to store
+   * @param slot the slot to store it in
+   */
+  private void place(K item, int slot) {
+    keys[slot] = item;
+    stamps[slot] = clock;
+    index.put(item, slot);
+  }
+
+  /**
+   * Picks the slot to evict. When the sample covers the whole cache this is exactly the least
+   * recently used slot.
+   *
+   * @return the slot of the victim
+   */
+  private int chooseVictim() {
+    if (sampleSize >= size) {
+      int oldest = 0;
+      for (int i = 1; i < size; ++i) {
+        if (age(i) > age(oldest)) {
+          oldest = i;
+        }
+      }
+      return oldest;
+    }
+
+    if (poolSlots.length == 0) {
+      int oldest = randomSlot();
+      for (int i = 1; i < sampleSize; ++i) {
+        int candidate = randomSlot();
+        if (age(candidate) > age(oldest)) {
+          oldest = candidate;
+        }
+      }
+      return oldest;
+    }
+
+    // With a pool, the sample is merged into the pool and the oldest still-valid entry wins.
+    for (int i = 0; i < sampleSize; ++i) {
+      offerToPool(randomSlot());
+    }
+    while (poolSize > 0) {
+      int slot = poolSlots[0];
+      int stamp = poolStamps[0];
+      removeFromPool(0);
+      if (stamps[slot] == stamp) {
+        return slot;
+      }
+    }
+
+    // Every pooled entry was stale, which can only happen if all sampled slots were referenced
+    // again while waiting. Fall back to a plain sample.
+    return randomSlot();
+  }
+
+  /**
+   * Inserts a slot into the candidate pool, keeping the pool ordered oldest first. Stale entries
+   * for the same slot are replaced, and if the pool is full the youngest candidate is dropped.
+   *
+   * @param slot the candidate slot
+   */
+  private void offerToPool(int slot) {
+    int age = age(slot);
+    for (int i = 0; i < poolSize; ++i) {
+      if (poolSlots[i] == slot) {
+        removeFromPool(i);
+        break;
+      }
+    }
+
+    int pos = 0;
+    while (pos < poolSize && clock - poolStamps[pos] >= age) {
+      ++pos;
+    }
+    if (pos == poolSlots.length) {
+      return;
+    }
+
+    int last = Math.min(poolSize, poolSlots.length - 1);
+    System.arraycopy(poolSlots, pos, poolSlots, pos + 1, last - pos);
+    System.arraycopy(poolStamps, pos, poolStamps, pos + 1, last - pos);
+    poolSlots[pos] = slot;
+    poolStamps[pos] = stamps[slot];
+    poolSize = last + 1;
+  }
+
+  /**
+   * Removes the {@code i}th entry of the candidate pool.
+   *
+   * @param i the position in the pool
+   */
+  private void removeFromPool(int i) {
+    --poolSize;
+    System.arraycopy(poolSlots, i + 1, poolSlots, i, poolSize - i);
+    System.arraycopy(poolStamps, i + 1, poolStamps, i, poolSize - i);
+  }
+
+  /**
+   * Returns the number of references since {@code slot} was last referenced.
+   *
+   * @param slot the slot
+   * @return its age
+   */
+  private int age(int slot) {
+    return clock - stamps[slot];
+  }
+
+  /**
+   * Returns a uniformly random occupied slot.
+   *
+   * @return a slot in [0, size)
+   */
+  private int randomSlot() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 7;
+    seed ^= seed << 17;
+    return (int) (((seed >>> 32) * size) >>> 32);
+  }
+}
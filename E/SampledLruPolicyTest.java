@@ -0,0 +1,112 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SampledLruPolicyTest {
+
+  ReplacementPolicy<Integer> policy = new SampledLruPolicy<>(5);
+
+  @Test
+  public void testCapacity() {
+    assertEquals(5, policy.capacity());
+  }
+
+  @Test
+  public void testSize() {
+    assertEquals(0, policy.size());
+    policy.require(1);
+    policy.require(2);
+    policy.require(1);
+    assertEquals(2, policy.size());
+    for (int i = 0; i < 100; i++) {
+      policy.require(i);
+    }
+    assertEquals(5, policy.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacity() {
+    new SampledLruPolicy<Integer>(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroSampleSize() {
+    new SampledLruPolicy<Integer>(5, 0, 0);
+  }
+
+  @Test
+  public void oneItem() {
+    ReplacementPolicy<Integer> p = new SampledLruPolicy<>(1);
+    assertNull(p.require(1));
+    assertNull(p.require(1));
+    assertEquals((Integer) 1, p.require(2));
+    assertEquals((Integer) 2, p.require(3));
+  }
+
+  /**
+   * When every slot is sampled the policy is exact LRU, so it should agree with the example in
+   * {@link LruPolicyTest}.
+   */
+  @Test
+  public void exactWhenSampleCoversCache() {
+    ReplacementPolicy<Integer> policy = new SampledLruPolicy<>(5, 5, 0);
+    policy.require(1);                            // 1 _ _ _ _
+    policy.require(2);                            // 1 2 _ _ _
+    policy.require(1);                            // 2 1 _ _ _
+    policy.require(3);                            // 2 1 3 _ _
+    policy.require(4);                            // 2 1 3 4 _
+    policy.require(1);                            // 2 3 4 1 _
+    policy.require(5);                            // 2 3 4 1 5
+
+    assertEquals((Integer) 2, policy.require(6)); // 3 4 1 5 6
+    assertNull(policy.require(5));                // 3 4 1 6 5
+    assertEquals((Integer) 3, policy.require(7)); // 4 1 6 5 7
+    assertNull(policy.require(4));                // 1 6 5 7 4
+    assertNull(policy.require(5));                // 1 6 7 4 5
+    assertEquals((Integer) 1, policy.require(8)); // 6 7 4 5 8
+    assertEquals(5, policy.size());
+  }
+
+  @Test
+  public void evictionKeepsCacheFull() {
+    ReplacementPolicy<Integer> p = new SampledLruPolicy<>(100, 5, 16);
+    for (int i = 0; i < 100; i++) {
+      assertNull(p.require(i));
+    }
+    for (int i = 100; i < 10000; i++) {
+      p.require(i % 300);
+      assertEquals(100, p.size());
+    }
+  }
+
+  @Test
+  public void hitRatioCloseToLru() {
+    double exact = hitRatio(new LruPolicy<>(200));
+    double sampled = hitRatio(new SampledLruPolicy<>(200));
+    double pooled = hitRatio(new SampledLruPolicy<>(200, 5, 16));
+    assertEquals(exact, sampled, 0.05);
+    assertEquals(exact, pooled, 0.05);
+  }
+
+  /**
+   * Replays a fixed, skewed trace and returns the fraction of requests that hit.
+   */
+  private static double hitRatio(ReplacementPolicy<Integer> p) {
+    Random random = new Random(42);
+    int hits = 0;
+    int requests = 50000;
+    for (int i = 0; i < requests; i++) {
+      // Squaring a uniform variable skews the keys towards zero.
+      double u = random.nextDouble();
+      int key = (int) (u * u * 2000);
+      int before = p.size();
+      if (p.require(key) == null && p.size() == before) {
+        hits++;
+      }
+    }
+    return (double) hits / requests;
+  }
+}
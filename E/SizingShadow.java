@@ -0,0 +1,372 @@
+import java.util.Arrays;
+
+/**
+ * Wraps a live {@link ReplacementPolicy} and estimates, from the traffic passing through it, what
+ * its hit ratio would be if it were larger. Use it in place of the policy it wraps.
+ *
+ * <p>The shadow samples a fixed fraction of the key space by hash, and remembers the hashes of the
+ * sampled keys the policy evicts, most recent first, in a ghost list. When a sampled key misses
+ * but its ghost is found behind {@code d} other ghosts, roughly {@code d * samplingPeriod} items
+ * evicted after it are still out of the cache, so a cache with at least that many extra slots
+ * would probably still have held it. Counting such "ghost hits" for each extra size gives the
+ * estimate. With every key sampled, the estimate is exact for LRU; it is a good approximation for
+ * policies close to it.
+ *
+ * <p>Only fingerprints are kept, never keys: about 24 bytes per sampled eviction, for twice as
+ * many as the largest estimated size needs. On {@code require}, unsampled keys cost one hash and a
+ * comparison.
+ *
+ * @param <K> keys for cached items
+ */
+public final class SizingShadow<K> implements ReplacementPolicy<K> {
+
+  /**
+   * One key in this many is sampled when no period is given.
+   */
+  public static final int DEFAULT_SAMPLING_PERIOD = 16;
+
+  // The policy being observed:
+  private final ReplacementPolicy<K> policy;
+
+  // The size factors to estimate, ascending:
+  private final double[] factors;
+
+  // For each factor, the ghost depth below which a ghost hit counts:
+  private final int[] depthLimits;
+
+  // A key is sampled when (fingerprint & sampleMask) == 0:
+  private final int sampleMask;
+
+  // The fingerprints of sampled evictions, in a ring indexed by sequence number:
+  private final int[] ring;
+
+  // A Fenwick tree over ring slots, counting the ghosts still in the table:
+  private final int[] live;
+
+  // Open-addressed table from fingerprint to 1 + the sequence number of its latest eviction:
+  private final int[] tableFingerprints;
+  private final int[] tableSequences;
+
+  // The number of sampled evictions so far:
+  private int evictions = 0;
+
+  // Counters since the last reset:
+  private long requests = 0;
+  private long hits = 0;
+  private long sampledRequests = 0;
+  private final long[] ghostHits;
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - factors is sorted ascending, and factors.length == depthLimits.length == ghostHits.length
+   *  - ring holds the fingerprints of sampled evictions number max(0, evictions - ring.length)
+   *    through evictions - 1, the one numbered s at ring[s % ring.length]
+   *  - the table maps a fingerprint to (1 + its latest sequence number) only while that eviction
+   *    is still in the ring and the key hasn't been required since; otherwise it has no entry
+   *  - the table is at most half full
+   *  - live counts, for each ring slot, 1 if the table still points at that slot's eviction
+   *
+   * REPRESENTATION NOTE:
+   *
+   * The table uses linear probing with backward-shift deletion, like KeyIndex, but on primitive
+   * fingerprints. A sequence slot of 0 marks an empty table slot.
+   *
+   * A ghost's depth counts only the ghosts newer than it that are still in the table. Items that
+   * were evicted after it but have since come back are in the cache again, above it in LRU order
+   * whatever the cache size, so they don't count as extra slots.
+   */
+
+  /**
+   * Shadows {@code policy}, sampling one key in {@link #DEFAULT_SAMPLING_PERIOD}, and estimating
+   * the hit ratio at 1.5, 2 and 4 times its capacity.
+   *
+   * @param policy the policy to observe
+   */
+  public SizingShadow(ReplacementPolicy<K> policy) {
+    this(policy, DEFAULT_SAMPLING_PERIOD, 1.5, 2, 4);
+  }
+
+  /**
+   * Shadows {@code policy}.
+   *
+   * @param policy         the policy to observe
+   * @param samplingPeriod one key in this many is sampled; a power of two
+   * @param factors        the capacity multiples to estimate, each greater than 1
+   * @throws IllegalArgumentException if {@code samplingPeriod} is not a positive power of two, no
+   *                                  factors are given, or a factor is not greater than 1
+   */
+  public SizingShadow(ReplacementPolicy<K> policy, int samplingPeriod, double... factors) {
+    if (samplingPeriod < 1 || Integer.bitCount(samplingPeriod) != 1) {
+      throw new IllegalArgumentException("sampling period must be a power of two");
+    }
+    if (factors.length == 0) {
+      throw new IllegalArgumentException("there must be at least one factor");
+    }
+    this.policy = policy;
+    this.factors = factors.clone();
+    Arrays.sort(this.factors);
+    if (!(this.factors[0] > 1)) {
+      throw new IllegalArgumentException("factors must be greater than 1");
+    }
+    sampleMask = samplingPeriod - 1;
+
+    depthLimits = new int[factors.length];
+    for (int i = 0; i < factors.length; ++i) {
+      double extraSlots = (this.factors[i] - 1) * policy.capacity();
+      depthLimits[i] = (int) Math.ceil(extraSlots / samplingPeriod);
+    }
+    ghostHits = new long[factors.length];
+
+    // Ghosts of items that came back don't count towards depth, so the ring has to reach further
+    // back than the deepest limit; twice as far covers all but pathological traces.
+    int ghosts = Math.max(1, 2 * depthLimits[factors.length - 1]);
+    ring = new int[ghosts];
+    live = new int[ghosts + 1];
+    int tableLength = Integer.highestOneBit(ghosts) << 2;
+    tableFingerprints = new int[tableLength];
+    tableSequences = new int[tableLength];
+  }
+
+  @Override
+  public K require(K item) {
+    int before = policy.size();
+    K evicted = policy.require(item);
+    boolean hit = evicted == null && policy.size() == before;
+
+    ++requests;
+    if (hit) {
+      ++hits;
+    }
+
+    int fingerprint = fingerprint(item);
+    if ((fingerprint & sampleMask) == 0) {
+      ++sampledRequests;
+      int sequence = removeGhost(fingerprint);
+      if (!hit && sequence >= 0) {
+        int depth = newerGhosts(sequence);
+        for (int i = 0; i < depthLimits.length; ++i) {
+          if (depth < depthLimits[i]) {
+            ++ghostHits[i];
+          }
+        }
+      }
+    }
+
+    if (evicted != null) {
+      int evictedFingerprint = fingerprint(evicted);
+      if ((evictedFingerprint & sampleMask) == 0) {
+        addGhost(evictedFingerprint);
+      }
+    }
+    return evicted;
+  }
+
+  @Override
+  public int capacity() {
+    return policy.capacity();
+  }
+
+  @Override
+  public int size() {
+    return policy.size();
+  }
+
+  @Override
+  public void setEvictionListener(EvictionListener<? super K> listener) {
+    policy.setEvictionListener(listener);
+  }
+
+  /**
+   * Returns the number of requests seen since the last reset.
+   *
+   * @return the number of requests
+   */
+  public long requests() {
+    return requests;
+  }
+
+  /**
+   * Returns the observed hit ratio of the live policy since the last reset.
+   *
+   * @return the hit ratio, or 0 if there have been no requests
+   */
+  public double hitRatio() {
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  /**
+   * Returns the estimated hit ratio had the policy had {@code factor} times its capacity, over
+   * the requests since the last reset.
+   *
+   * @param factor one of the factors given at construction
+   * @return the estimated hit ratio, at most 1
+   * @throws IllegalArgumentException if {@code factor} wasn't given at construction
+   */
+  public double estimatedHitRatio(double factor) {
+    int i = Arrays.binarySearch(factors, factor);
+    if (i < 0) {
+      throw new IllegalArgumentException("not an estimated factor: " + factor);
+    }
+    if (sampledRequests == 0) {
+      return hitRatio();
+    }
+    return Math.min(1, hitRatio() + (double) ghostHits[i] / sampledRequests);
+  }
+
+  /**
+   * Clears the counters, but keeps the ghost list, so that estimates can be taken per interval.
+   */
+  public void reset() {
+    requests = 0;
+    hits = 0;
+    sampledRequests = 0;
+    Arrays.fill(ghostHits, 0);
+  }
+
+  /**
+   * Records a sampled eviction, forgetting the oldest one if the ring is full.
+   */
+  private void addGhost(int fingerprint) {
+    int slot = evictions % ring.length;
+    if (evictions >= ring.length) {
+      // Only forget the old fingerprint if the table still points at this eviction of it.
+      int old = ring[slot];
+      int i = find(old);
+      if (i >= 0 && tableSequences[i] - 1 == evictions - ring.length) {
+        deleteAt(i);
+        addLive(slot, -1);
+      }
+    }
+    ring[slot] = fingerprint;
+    addLive(slot, 1);
+
+    int i = find(fingerprint);
+    if (i >= 0) {
+      // Two keys share the fingerprint; the older ghost is forgotten.
+      addLive((tableSequences[i] - 1) % ring.length, -1);
+      tableSequences[i] = evictions + 1;
+    } else {
+      int mask = tableFingerprints.length - 1;
+      i = home(fingerprint);
+      while (tableSequences[i] != 0) {
+        i = (i + 1) & mask;
+      }
+      tableFingerprints[i] = fingerprint;
+      tableSequences[i] = evictions + 1;
+    }
+
+    // Rather than overflow, start over with an empty ghost list.
+    if (++evictions == Integer.MAX_VALUE) {
+      evictions = 0;
+      Arrays.fill(tableSequences, 0);
+      Arrays.fill(live, 0);
+    }
+  }
+
+  /**
+   * Removes the ghost of {@code fingerprint}, if any.
+   *
+   * @return the sequence number of its eviction, or -1
+   */
+  private int removeGhost(int fingerprint) {
+    int i = find(fingerprint);
+    if (i < 0) {
+      return -1;
+    }
+    int sequence = tableSequences[i] - 1;
+    deleteAt(i);
+    addLive(sequence % ring.length, -1);
+    return sequence;
+  }
+
+  /**
+   * Returns the number of ghosts still in the table that were evicted after {@code sequence}.
+   */
+  private int newerGhosts(int sequence) {
+    int from = (sequence + 1) % ring.length;
+    int to = (evictions - 1) % ring.length;
+    if (sequence + 1 >= evictions) {
+      return 0;
+    }
+    if (from <= to) {
+      return liveBefore(to + 1) - liveBefore(from);
+    }
+    // The range wraps around the end of the ring.
+    return liveBefore(ring.length) - liveBefore(from) + liveBefore(to + 1);
+  }
+
+  /**
+   * Adds {@code delta} to the live count of ring slot {@code slot}.
+   */
+  private void addLive(int slot, int delta) {
+    for (int i = slot + 1; i < live.length; i += i & -i) {
+      live[i] += delta;
+    }
+  }
+
+  /**
+   * Returns the live count of ring slots [0, {@code end}).
+   */
+  private int liveBefore(int end) {
+    int sum = 0;
+    for (int i = end; i > 0; i -= i & -i) {
+      sum += live[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the table slot holding {@code fingerprint}, or -1.
+   */
+  private int find(int fingerprint) {
+    int mask = tableFingerprints.length - 1;
+    for (int i = home(fingerprint); tableSequences[i] != 0; i = (i + 1) & mask) {
+      if (tableFingerprints[i] == fingerprint) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Empties table slot {@code i}, shifting back any entries that probed past it.
+   */
+  private void deleteAt(int i) {
+    int mask = tableFingerprints.length - 1;
+    int next = (i + 1) & mask;
+    while (tableSequences[next] != 0) {
+      int home = home(tableFingerprints[next]);
+      // The entry at next may move into i only if i is within its probe sequence.
+      if (((next - home) & mask) >= ((next - i) & mask)) {
+        tableFingerprints[i] = tableFingerprints[next];
+        tableSequences[i] = tableSequences[next];
+        i = next;
+      }
+      next = (next + 1) & mask;
+    }
+    tableSequences[i] = 0;
+  }
+
+  /**
+   * Returns the home slot of a fingerprint in the table.
+   */
+  private int home(int fingerprint) {
+    // The low bits decide sampling, so take the slot from the high bits.
+    int bits = Integer.numberOfTrailingZeros(tableFingerprints.length);
+    return (fingerprint * 0x9E3779B9) >>> (32 - bits);
+  }
+
+  /**
+   * Hashes a key to a well-mixed fingerprint.
+   */
+  private static int fingerprint(Object key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
@@ -0,0 +1,91 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SizingShadowTest {
+
+  @Test
+  public void passesThrough() {
+    SizingShadow<Integer> shadow = new SizingShadow<>(new FifoPolicy<>(2));
+    assertEquals(2, shadow.capacity());
+    assertEquals(null, shadow.require(1));
+    assertEquals(null, shadow.require(2));
+    assertEquals(null, shadow.require(1));
+    assertEquals((Integer) 1, shadow.require(3));
+    assertEquals(2, shadow.size());
+    assertEquals(4, shadow.requests());
+    assertEquals(0.25, shadow.hitRatio(), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void periodMustBePowerOfTwo() {
+    new SizingShadow<>(new FifoPolicy<Integer>(2), 3, 2.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownFactor() {
+    new SizingShadow<>(new FifoPolicy<Integer>(2)).estimatedHitRatio(3);
+  }
+
+  /**
+   * A cyclic scan over 150 keys never hits in a cache of 100, but always would in a cache of 200.
+   */
+  @Test
+  public void scanFitsInLargerCache() {
+    SizingShadow<Integer> shadow = new SizingShadow<>(new LruPolicy<>(100), 1, 1.2, 2);
+    for (int i = 0; i < 3000; i++) {
+      shadow.require(i % 150);
+    }
+    shadow.reset();
+    for (int i = 0; i < 3000; i++) {
+      shadow.require(i % 150);
+    }
+    assertEquals(0, shadow.hitRatio(), 1e-9);
+    assertEquals(0, shadow.estimatedHitRatio(1.2), 1e-9);
+    assertEquals(1, shadow.estimatedHitRatio(2), 1e-9);
+  }
+
+  @Test
+  public void exactWhenEveryKeyIsSampled() {
+    SizingShadow<Integer> shadow = new SizingShadow<>(new LruPolicy<>(200), 1, 1.5, 2, 4);
+    hitRatio(shadow);
+    assertEquals(hitRatio(new LruPolicy<>(300)), shadow.estimatedHitRatio(1.5), 1e-9);
+    assertEquals(hitRatio(new LruPolicy<>(400)), shadow.estimatedHitRatio(2), 1e-9);
+    assertEquals(hitRatio(new LruPolicy<>(800)), shadow.estimatedHitRatio(4), 1e-9);
+  }
+
+  @Test
+  public void estimatesMatchLargerCaches() {
+    SizingShadow<Integer> shadow = new SizingShadow<>(new LruPolicy<>(200), 4, 1.5, 2, 4);
+    double actual15 = hitRatio(new LruPolicy<>(300));
+    double actual2 = hitRatio(new LruPolicy<>(400));
+    double actual4 = hitRatio(new LruPolicy<>(800));
+    double live = hitRatio(shadow);
+    assertEquals(live, shadow.hitRatio(), 1e-9);
+    assertTrue(shadow.estimatedHitRatio(2) > live);
+    assertEquals(actual15, shadow.estimatedHitRatio(1.5), 0.03);
+    assertEquals(actual2, shadow.estimatedHitRatio(2), 0.03);
+    assertEquals(actual4, shadow.estimatedHitRatio(4), 0.03);
+  }
+
+  /**
+   * Replays a fixed, skewed trace and returns the fraction of requests that hit.
+   */
+  private static double hitRatio(ReplacementPolicy<Integer> p) {
+    Random random = new Random(11);
+    int hits = 0;
+    int requests = 100000;
+    for (int i = 0; i < requests; i++) {
+      double u = random.nextDouble();
+      int key = (int) (u * u * u * 5000);
+      int before = p.size();
+      if (p.require(key) == null && p.size() == before) {
+        hits++;
+      }
+    }
+    return (double) hits / requests;
+  }
+}
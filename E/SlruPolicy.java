@@ -0,0 +1,130 @@
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * A cache policy implementing <a href="https://en.wikipedia.org/wiki/Cache_replacement_policies#Segmented_LRU_(SLRU)">segmented
+ * LRU</a>. The cache is split into a probationary segment and a protected segment, each kept in
+ * LRU order. New items enter the probationary segment, and are promoted to the protected segment
+ * when they are referenced a second time. Evictions always come from the probationary segment, so
+ * a one-time scan over many keys can only displace other probationary items, never the hot set.
+ *
+ * <p>All operations run in expected <em>O</em>(1) time.
+ *
+ * @param <K> keys for cached items
+ */
+public final class SlruPolicy<K> extends AbstractReplacementPolicy<K> {
+
+  /**
+   * The fraction of the capacity given to the protected segment when none is specified.
+   */
+  public static final double DEFAULT_PROTECTED_RATIO = 0.8;
+
+  // The capacity of the cache:
+  private final int capacity;
+
+  // The maximum number of items in the protected segment:
+  private final int protectedCapacity;
+
+  // Items seen once, least recently used first:
+  private final LinkedHashSet<K> probation = new LinkedHashSet<>();
+
+  // Items seen at least twice, least recently used first:
+  private final LinkedHashSet<K> protectedSegment = new LinkedHashSet<>();
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - probation and protectedSegment are disjoint
+   *  - protectedSegment.size() <= protectedCapacity < capacity
+   *  - probation.size() + protectedSegment.size() <= capacity
+   *
+   * REPRESENTATION NOTE:
+   *
+   * A LinkedHashSet iterates in insertion order, so removing an item and adding it again moves it
+   * to the most recently used end, and the first item of the iteration is the least recently used.
+   */
+
+  /**
+   * Creates a new segmented LRU policy with capacity {@code cap}, of which {@link
+   * #DEFAULT_PROTECTED_RATIO} is reserved for the protected segment.
+   *
+   * @param cap the capacity of the cache
+   * @throws IllegalArgumentException {@code cap < 1}
+   */
+  public SlruPolicy(int cap) {
+    this(cap, DEFAULT_PROTECTED_RATIO);
+  }
+
+  /**
+   * Creates a new segmented LRU policy with capacity {@code cap}. The protected segment holds at
+   * most {@code protectedRatio * cap} items, but always leaves at least one slot for probation.
+   *
+   * @param cap            the capacity of the cache
+   * @param protectedRatio the fraction of the capacity given to the protected segment
+   * @throws IllegalArgumentException {@code cap < 1}, or {@code protectedRatio} is not in [0, 1)
+   */
+  public SlruPolicy(int cap, double protectedRatio) {
+    if (cap < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    if (!(protectedRatio >= 0 && protectedRatio < 1)) {
+      throw new IllegalArgumentException("protected ratio must be in [0, 1)");
+    }
+    capacity = cap;
+    protectedCapacity = Math.min(cap - 1, (int) (cap * protectedRatio));
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return probation.size() + protectedSegment.size();
+  }
+
+  @Override
+  public K require(K item) {
+    // A hit in the protected segment just refreshes the item's recency.
+    if (protectedSegment.remove(item)) {
+      protectedSegment.add(item);
+      return null;
+    }
+
+    // A hit in probation promotes the item. If that overflows the protected segment, its least
+    // recently used item is demoted back to the most recently used end of probation.
+    if (probation.remove(item)) {
+      if (protectedCapacity == 0) {
+        probation.add(item);
+        return null;
+      }
+      protectedSegment.add(item);
+      if (protectedSegment.size() > protectedCapacity) {
+        probation.add(removeEldest(protectedSegment));
+      }
+      return null;
+    }
+
+    // It's a miss! New items always start on probation.
+    K evicted = null;
+    if (size() == capacity) {
+      evicted = removeEldest(probation);
+    }
+    probation.add(item);
+    return reportEviction(evicted);
+  }
+
+  /**
+   * Removes and returns the least recently used item of a segment.
+   *
+   * @param segment a non-empty segment
+   * @return its least recently used item
+   */
+  private static <K> K removeEldest(LinkedHashSet<K> segment) {
+    Iterator<K> itr = segment.iterator();
+    K eldest = itr.next();
+    itr.remove();
+    return eldest;
+  }
+}
@@ -0,0 +1,75 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SlruPolicyTest {
+
+  /**
+   * A cache of five items with room for two protected items. The comments on the right show the
+   * state after each operation as {@code probation | protected}, least recently used first.
+   */
+  ReplacementPolicy<Integer> policy = new SlruPolicy<>(5, 0.4);
+
+  @Test
+  public void testCapacity() {
+    assertEquals(5, policy.capacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacity() {
+    new SlruPolicy<Integer>(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badRatio() {
+    new SlruPolicy<Integer>(5, 1.0);
+  }
+
+  @Test
+  public void oneItem() {
+    ReplacementPolicy<Integer> p = new SlruPolicy<>(1);
+    assertNull(p.require(1));
+    assertNull(p.require(1));
+    assertEquals((Integer) 1, p.require(2));
+    assertEquals(1, p.size());
+  }
+
+  @Test
+  public void extendedExample() {
+    assertNull(policy.require(1));                // 1         |
+    assertNull(policy.require(2));                // 1 2       |
+    assertNull(policy.require(3));                // 1 2 3     |
+    assertNull(policy.require(1));                // 2 3       | 1
+    assertNull(policy.require(2));                // 3         | 1 2
+    assertNull(policy.require(4));                // 3 4       | 1 2
+    assertNull(policy.require(3));                // 4 1       | 2 3
+    assertNull(policy.require(5));                // 4 1 5     | 2 3
+    assertEquals(5, policy.size());
+
+    assertEquals((Integer) 4, policy.require(6)); // 1 5 6     | 2 3
+    assertNull(policy.require(2));                // 1 5 6     | 3 2
+    assertEquals((Integer) 1, policy.require(7)); // 5 6 7     | 3 2
+    assertEquals(5, policy.size());
+  }
+
+  @Test
+  public void scanResistance() {
+    ReplacementPolicy<Integer> p = new SlruPolicy<>(100);
+    // Make 0..49 hot.
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < 50; i++) {
+        p.require(i);
+      }
+    }
+    // A long scan of keys seen only once.
+    for (int i = 1000; i < 100000; i++) {
+      p.require(i);
+    }
+    // The hot set survived.
+    for (int i = 0; i < 50; i++) {
+      assertNull(p.require(i));
+      assertEquals(100, p.size());
+    }
+  }
+}
@@ -0,0 +1,168 @@
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * A cache policy implementing the full version of the <a href="http://www.vldb.org/conf/1994/P439.PDF">2Q
+ * algorithm</a> of Johnson and Shasha. Items seen for the first time go into a FIFO queue,
+ * {@code A1in}. When they fall out of it their keys are remembered, without taking up cache
+ * space, in a second FIFO queue of "ghosts", {@code A1out}. Only an item that is required again
+ * while its ghost is still remembered is admitted into the main LRU queue, {@code Am}. A scan
+ * therefore passes through {@code A1in} and {@code A1out} without touching the hot items in
+ * {@code Am}.
+ *
+ * <p>All operations run in expected <em>O</em>(1) time.
+ *
+ * @param <K> keys for cached items
+ */
+public final class TwoQPolicy<K> extends AbstractReplacementPolicy<K> {
+
+  /**
+   * The fraction of the capacity that {@code A1in} may grow to before it is evicted from, as
+   * recommended in the paper.
+   */
+  public static final double DEFAULT_IN_RATIO = 0.25;
+
+  /**
+   * The number of ghosts remembered in {@code A1out}, as a fraction of the capacity, as
+   * recommended in the paper.
+   */
+  public static final double DEFAULT_OUT_RATIO = 0.5;
+
+  // The capacity of the cache:
+  private final int capacity;
+
+  // The threshold above which A1in is evicted from rather than Am:
+  private final int inCapacity;
+
+  // The maximum number of ghosts in A1out:
+  private final int outCapacity;
+
+  // Cached items seen once, oldest first:
+  private final LinkedHashSet<K> a1in = new LinkedHashSet<>();
+
+  // Keys recently evicted from a1in (not cached), oldest first:
+  private final LinkedHashSet<K> a1out = new LinkedHashSet<>();
+
+  // Cached items seen again after becoming ghosts, least recently used first:
+  private final LinkedHashSet<K> am = new LinkedHashSet<>();
+
+  /*
+   * CLASS INVARIANTS:
+   *
+   *  - a1in, a1out and am are pairwise disjoint
+   *  - a1in.size() + am.size() <= capacity
+   *  - a1out.size() <= outCapacity
+   *
+   * REPRESENTATION NOTE:
+   *
+   * As in SlruPolicy, each queue is a LinkedHashSet, whose iteration order is insertion order.
+   * Removing and re-adding an item moves it to the back of its queue.
+   */
+
+  /**
+   * Creates a new 2Q policy with capacity {@code cap}, using the queue sizes recommended in the
+   * paper.
+   *
+   * @param cap the capacity of the cache
+   * @throws IllegalArgumentException {@code cap < 1}
+   */
+  public TwoQPolicy(int cap) {
+    this(cap, DEFAULT_IN_RATIO, DEFAULT_OUT_RATIO);
+  }
+
+  /**
+   * Creates a new 2Q policy with capacity {@code cap}.
+   *
+   * @param cap      the capacity of the cache
+   * @param inRatio  the size of {@code A1in}, as a fraction of {@code cap}
+   * @param outRatio the number of ghosts in {@code A1out}, as a fraction of {@code cap}
+   * @throws IllegalArgumentException {@code cap < 1}, {@code inRatio} is not in [0, 1], or
+   *                                  {@code outRatio < 0}
+   */
+  public TwoQPolicy(int cap, double inRatio, double outRatio) {
+    if (cap < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    if (!(inRatio >= 0 && inRatio <= 1)) {
+      throw new IllegalArgumentException("in ratio must be in [0, 1]");
+    }
+    if (!(outRatio >= 0)) {
+      throw new IllegalArgumentException("out ratio must not be negative");
+    }
+    capacity = cap;
+    inCapacity = (int) (cap * inRatio);
+    outCapacity = (int) (cap * outRatio);
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return a1in.size() + am.size();
+  }
+
+  @Override
+  public K require(K item) {
+    // A hit in Am refreshes the item's recency.
+    if (am.remove(item)) {
+      am.add(item);
+      return null;
+    }
+
+    // A hit in A1in does nothing: a burst of correlated references shouldn't count as reuse.
+    if (a1in.contains(item)) {
+      return null;
+    }
+
+    // It's a miss! A remembered ghost goes straight into Am; anything else starts in A1in. The
+    // ghost must be looked up before reclaiming, which may push it out of A1out.
+    boolean ghost = a1out.remove(item);
+    K evicted = reclaim();
+    if (ghost) {
+      am.add(item);
+    } else {
+      a1in.add(item);
+    }
+    return reportEviction(evicted);
+  }
+
+  /**
+   * Makes room for one more item if the cache is full.
+   *
+   * @return the evicted item, or {@code null} if the cache wasn't full
+   */
+  private K reclaim() {
+    if (size() < capacity) {
+      return null;
+    }
+
+    if (a1in.size() > inCapacity || am.isEmpty()) {
+      K evicted = removeEldest(a1in);
+      if (outCapacity > 0) {
+        if (a1out.size() == outCapacity) {
+          removeEldest(a1out);
+        }
+        a1out.add(evicted);
+      }
+      return evicted;
+    }
+
+    return removeEldest(am);
+  }
+
+  /**
+   * Removes and returns the oldest item of a queue.
+   *
+   * @param queue a non-empty queue
+   * @return its oldest item
+   */
+  private static <K> K removeEldest(LinkedHashSet<K> queue) {
+    Iterator<K> itr = queue.iterator();
+    K eldest = itr.next();
+    itr.remove();
+    return eldest;
+  }
+}
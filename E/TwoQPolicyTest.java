@@ -0,0 +1,78 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TwoQPolicyTest {
+
+  /**
+   * A cache of four items where {@code A1in} holds one item and {@code A1out} remembers two
+   * ghosts. The comments on the right show the state after each operation as {@code A1in | Am |
+   * A1out}, oldest first.
+   */
+  ReplacementPolicy<Integer> policy = new TwoQPolicy<>(4, 0.25, 0.5);
+
+  @Test
+  public void testCapacity() {
+    assertEquals(4, policy.capacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacity() {
+    new TwoQPolicy<Integer>(0);
+  }
+
+  @Test
+  public void oneItem() {
+    ReplacementPolicy<Integer> p = new TwoQPolicy<>(1);
+    assertNull(p.require(1));
+    assertNull(p.require(1));
+    assertEquals((Integer) 1, p.require(2));
+    assertEquals((Integer) 2, p.require(1));
+    assertEquals(1, p.size());
+  }
+
+  @Test
+  public void extendedExample() {
+    assertNull(policy.require(1));                // 1 2 3 4 |         |
+    assertNull(policy.require(2));
+    assertNull(policy.require(3));
+    assertNull(policy.require(4));
+    assertNull(policy.require(1));                // re-references in A1in are ignored
+    assertEquals(4, policy.size());
+
+    assertEquals((Integer) 1, policy.require(5)); // 2 3 4 5 |         | 1
+    assertEquals((Integer) 2, policy.require(1)); // 3 4 5   | 1       | 2
+    assertEquals((Integer) 3, policy.require(2)); // 4 5     | 1 2     | 3
+    assertEquals((Integer) 4, policy.require(6)); // 5 6     | 1 2     | 3 4
+    assertEquals((Integer) 5, policy.require(7)); // 6 7     | 1 2     | 4 5
+    assertNull(policy.require(1));                // 6 7     | 2 1     | 4 5
+    assertEquals((Integer) 6, policy.require(4)); // 7       | 2 1 4   | 5 6
+    assertEquals((Integer) 2, policy.require(8)); // 7 8     | 1 4     | 5 6
+    assertEquals(4, policy.size());
+  }
+
+  @Test
+  public void scanResistance() {
+    ReplacementPolicy<Integer> p = new TwoQPolicy<>(100);
+    // Reference 0..49 twice, far enough apart that they reach Am.
+    for (int i = 0; i < 50; i++) {
+      p.require(i);
+    }
+    for (int i = 1000; i < 1100; i++) {
+      p.require(i);
+    }
+    for (int i = 0; i < 50; i++) {
+      p.require(i);
+    }
+    // A long scan of keys seen only once.
+    for (int i = 2000; i < 100000; i++) {
+      p.require(i);
+    }
+    // The hot set survived.
+    for (int i = 0; i < 50; i++) {
+      assertNull(p.require(i));
+      assertEquals(100, p.size());
+    }
+  }
+}
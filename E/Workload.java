@@ -0,0 +1,172 @@
+import java.util.Random;
+
+/**
+ * Synthetic key traces for exercising replacement policies. Each trace is an array of keys in the
+ * range [0, {@code keySpace}), boxed ahead of time so that replaying a trace doesn't allocate.
+ */
+public final class Workload {
+
+  private Workload() {
+  } // prevents instantiation.
+
+  /**
+   * Creates a trace from a workload name, as used by the benchmark parameters: {@code uniform},
+   * {@code scan}, {@code loop}, or {@code zipf_<skew>} (for example {@code zipf_0.99}).
+   *
+   * @param name     the workload name
+   * @param length   the number of keys in the trace
+   * @param keySpace the number of distinct keys
+   * @param seed     the random seed
+   * @return the trace
+   * @throws IllegalArgumentException if the name isn't recognized
+   */
+  public static Integer[] named(String name, int length, int keySpace, long seed) {
+    if (name.equals("uniform")) {
+      return uniform(length, keySpace, seed);
+    }
+    if (name.equals("scan")) {
+      return scan(length, keySpace);
+    }
+    if (name.equals("loop")) {
+      return loop(length, keySpace);
+    }
+    if (name.startsWith("zipf_")) {
+      return zipf(length, keySpace, Double.parseDouble(name.substring(5)), seed);
+    }
+    throw new IllegalArgumentException("unknown workload: " + name);
+  }
+
+  /**
+   * Every key is equally likely.
+   *
+   * @param length   the number of keys in the trace
+   * @param keySpace the number of distinct keys
+   * @param seed     the random seed
+   * @return the trace
+   */
+  public static Integer[] uniform(int length, int keySpace, long seed) {
+    Random random = new Random(seed);
+    Integer[] trace = new Integer[length];
+    for (int i = 0; i < length; i++) {
+      trace[i] = random.nextInt(keySpace);
+    }
+    return trace;
+  }
+
+  /**
+   * Key {@code k} (counting from 1) is requested with probability proportional to {@code 1 /
+   * k^skew}. Keys are scattered over the key space so that popular keys aren't also numerically
+   * adjacent. Sampling uses the rejection-inversion method of Hörmann and Derflinger, which needs
+   * constant time and memory per key for any key space and any positive skew.
+   *
+   * @param length   the number of keys in the trace
+   * @param keySpace the number of distinct keys
+   * @param skew     the Zipf exponent (positive)
+   * @param seed     the random seed
+   * @return the trace
+   */
+  public static Integer[] zipf(int length, int keySpace, double skew, long seed) {
+    if (!(skew > 0)) {
+      throw new IllegalArgumentException("skew must be positive");
+    }
+    Random random = new Random(seed);
+    Integer[] trace = new Integer[length];
+
+    double hIntegralX1 = hIntegral(1.5, skew) - 1;
+    double hIntegralN = hIntegral(keySpace + 0.5, skew);
+    double s = 2 - hIntegralInverse(hIntegral(2.5, skew) - h(2, skew), skew);
+    for (int i = 0; i < length; i++) {
+      int rank;
+      while (true) {
+        double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+        double x = hIntegralInverse(u, skew);
+        rank = Math.max(1, Math.min(keySpace, (int) (x + 0.5)));
+        if (rank - x <= s || u >= hIntegral(rank + 0.5, skew) - h(rank, skew)) {
+          break;
+        }
+      }
+      trace[i] = scatter(rank - 1, keySpace);
+    }
+    return trace;
+  }
+
+  /**
+   * Keys are requested in order, over and over: 0, 1, ..., keySpace - 1, 0, 1, .... When the key
+   * space is larger than the cache this defeats LRU entirely.
+   *
+   * @param length   the number of keys in the trace
+   * @param keySpace the number of distinct keys
+   * @return the trace
+   */
+  public static Integer[] scan(int length, int keySpace) {
+    Integer[] trace = new Integer[length];
+    for (int i = 0; i < length; i++) {
+      trace[i] = i % keySpace;
+    }
+    return trace;
+  }
+
+  /**
+   * A small hot loop over the first eighth of the key space, interrupted every so often by a
+   * one-time scan over the rest of it. Policies that are scan resistant keep the loop cached.
+   *
+   * @param length   the number of keys in the trace
+   * @param keySpace the number of distinct keys
+   * @return the trace
+   */
+  public static Integer[] loop(int length, int keySpace) {
+    int hot = Math.max(1, keySpace / 8);
+    Integer[] trace = new Integer[length];
+    int looped = 0;
+    int scanned = hot;
+    for (int i = 0; i < length; i++) {
+      if (i % 4 == 3) {
+        trace[i] = scanned;
+        scanned = scanned + 1 < keySpace ? scanned + 1 : hot;
+      } else {
+        trace[i] = looped;
+        looped = looped + 1 < hot ? looped + 1 : 0;
+      }
+    }
+    return trace;
+  }
+
+  /**
+   * The unnormalized Zipf density, x^-skew.
+   */
+  private static double h(double x, double skew) {
+    return Math.exp(-skew * Math.log(x));
+  }
+
+  /**
+   * An antiderivative of {@link #h(double, double)}, written to stay accurate near skew = 1.
+   */
+  private static double hIntegral(double x, double skew) {
+    double logX = Math.log(x);
+    double t = (1 - skew) * logX;
+    double expm1OverT = Math.abs(t) > 1e-8 ? Math.expm1(t) / t : 1 + t * 0.5 * (1 + t / 3);
+    return expm1OverT * logX;
+  }
+
+  /**
+   * The inverse of {@link #hIntegral(double, double)}.
+   */
+  private static double hIntegralInverse(double x, double skew) {
+    double t = Math.max(-1, x * (1 - skew));
+    double log1pOverT = Math.abs(t) > 1e-8 ? Math.log1p(t) / t : 1 - t * (0.5 - t / 3);
+    return Math.exp(log1pOverT * x);
+  }
+
+  /**
+   * Maps a popularity rank to a key with a fixed bijection on [0, keySpace).
+   */
+  private static Integer scatter(int rank, int keySpace) {
+    // Multiplying by a large odd constant permutes [0, 2^k); cycle-walk until we land in range.
+    int mask = Integer.highestOneBit(Math.max(1, keySpace - 1)) * 2 - 1;
+    int key = rank;
+    do {
+      key = (key * 0x9E3779B1 + 0x7F4A7C15) & mask;
+    } while (key >= keySpace);
+    return key;
+  }
+}
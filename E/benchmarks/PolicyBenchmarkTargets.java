@@ -0,0 +1,81 @@
+import java.util.function.ToIntFunction;
+
+/**
+ * The policies and workloads measured by {@code benchmarks.ReplacementPolicyBenchmark}. JMH only
+ * runs benchmarks in a named package, and a class in a named package can't name the classes of
+ * the default package, so the benchmark calls these methods reflectively while setting up and sees
+ * what they return only through JDK types. The calls it times are to a {@link ToIntFunction}
+ * with a single implementation, which the JIT compiler inlines.
+ */
+public final class PolicyBenchmarkTargets {
+
+  private PolicyBenchmarkTargets() {
+  } // prevents instantiation.
+
+  /**
+   * Creates a trace; see {@link Workload#named}.
+   *
+   * @param workload the workload name
+   * @param length   the number of keys in the trace
+   * @param keySpace the number of distinct keys
+   * @param seed     the random seed
+   * @return the trace
+   */
+  public static Integer[] trace(String workload, int length, int keySpace, long seed) {
+    return Workload.named(workload, length, keySpace, seed);
+  }
+
+  /**
+   * Creates a policy, replays a trace against it, and then requires the keys of the key space in
+   * order until it is full, since a skewed trace may touch too few keys to fill it. Every miss
+   * then evicts, rather than filling a cold cache.
+   *
+   * @param name     the policy name: {@code Fifo}, {@code Lru}, {@code Clock}, {@code SampledLru},
+   *                 {@code Slru}, {@code TwoQ} or {@code GClock}
+   * @param capacity the capacity of the policy
+   * @param trace    the trace to warm it with
+   * @param keySpace the number of distinct keys in the trace
+   * @return a function that requires a key and returns 1 on a hit and 0 on a miss
+   * @throws IllegalArgumentException if the name isn't recognized
+   */
+  public static ToIntFunction<Integer> warmedPolicy(String name, int capacity, Integer[] trace,
+                                                    int keySpace) {
+    ReplacementPolicy<Integer> cache = newPolicy(name, capacity);
+    for (Integer key : trace) {
+      cache.require(key);
+    }
+    for (int key = 0; cache.size() < capacity && key < keySpace; ++key) {
+      cache.require(key);
+    }
+    // A miss either evicts something or grows the cache.
+    return key -> {
+      int before = cache.size();
+      Integer evicted = cache.require(key);
+      return evicted == null && cache.size() == before ? 1 : 0;
+    };
+  }
+
+  /**
+   * Creates a policy by name.
+   */
+  private static ReplacementPolicy<Integer> newPolicy(String name, int capacity) {
+    switch (name) {
+      case "Fifo":
+        return new FifoPolicy<>(capacity);
+      case "Lru":
+        return new LruPolicy<>(capacity);
+      case "Clock":
+        return new ClockPolicy<>(capacity);
+      case "SampledLru":
+        return new SampledLruPolicy<>(capacity);
+      case "Slru":
+        return new SlruPolicy<>(capacity);
+      case "TwoQ":
+        return new TwoQPolicy<>(capacity);
+      case "GClock":
+        return new GClockPolicy<>(capacity);
+      default:
+        throw new IllegalArgumentException("unknown policy: " + name);
+    }
+  }
+}
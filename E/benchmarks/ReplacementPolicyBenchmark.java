@@ -0,0 +1,227 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * JMH benchmarks for every {@code ReplacementPolicy} implementation. Each benchmark replays a
+ * pre-generated {@code Workload} trace against a pre-warmed policy, one {@code require} per
+ * operation, and reports throughput along with the hit ratio (as the {@code hits} and {@code
+ * misses} secondary counters).
+ *
+ * <p>JMH needs benchmarks in a named package, so this directory is a source root of its own, with
+ * {@code PolicyBenchmarkTargets} bridging to the policies in the default package. Build the main
+ * sources first, then this root with the JMH annotation processor on the class path, which
+ * generates the benchmark list, and run JMH's main class, for example:
+ *
+ * <pre>
+ *   javac -d classes $(ls *.java | grep -v Test)
+ *   javac -cp classes:jmh-core.jar:jmh-generator-annprocess.jar -d classes benchmarks/*.java
+ *   java -cp classes:jmh-core.jar:jopt-simple.jar:commons-math3.jar org.openjdk.jmh.Main \
+ *       ReplacementPolicyBenchmark -prof gc
+ * </pre>
+ *
+ * <p>The GC profiler adds allocation rates. Parameters can be narrowed from the command line,
+ * e.g. {@code -p policy=Clock,GClock -p capacity=1000000}. {@code LruPolicy} searches linearly,
+ * so it has its own benchmark, {@link #requireLru}, over the smaller capacities only.
+ *
+ * <p>Traces are at least several times the capacity, and the cache is full before measurement
+ * starts, so that every capacity measures steady-state eviction. The largest capacity needs a few
+ * gigabytes of heap.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplacementPolicyBenchmark {
+
+  // The shortest trace, in keys:
+  private static final int MIN_TRACE_LENGTH = 1 << 20;
+
+  // The class creating the policies and traces, in the default package:
+  private static final String TARGETS = "PolicyBenchmarkTargets";
+
+  /**
+   * A pre-warmed policy, its workload, and a cursor into the trace.
+   */
+  public abstract static class TraceState {
+
+    ToIntFunction<Integer> cache;
+    Integer[] trace;
+    int cursor;
+
+    @SuppressWarnings("unchecked")
+    void load(String policy, int capacity, String workload) {
+      // A key space four times the capacity gives every workload a meaningful miss rate, and a
+      // trace several times the capacity lets every workload fill the cache and keep evicting.
+      int keySpace = capacity * 4;
+      trace = (Integer[]) target("trace", new Class<?>[]{String.class, int.class, int.class,
+                                                         long.class},
+                                 workload, traceLength(capacity), keySpace, 42L);
+      cache = (ToIntFunction<Integer>) target(
+          "warmedPolicy", new Class<?>[]{String.class, int.class, Integer[].class, int.class},
+          policy, capacity, trace, keySpace);
+      cursor = 0;
+    }
+
+    Integer nextKey() {
+      Integer key = trace[cursor];
+      cursor = (cursor + 1) & (trace.length - 1);
+      return key;
+    }
+  }
+
+  /**
+   * The policy under test, for every policy but {@code LruPolicy}.
+   */
+  @State(Scope.Thread)
+  public static class PolicyState extends TraceState {
+
+    @Param({"Fifo", "Clock", "SampledLru", "Slru", "TwoQ", "GClock"})
+    public String policy;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int capacity;
+
+    @Param({"uniform", "zipf_0.7", "zipf_0.99", "zipf_1.2", "scan", "loop"})
+    public String workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      load(policy, capacity, workload);
+    }
+  }
+
+  /**
+   * {@code LruPolicy}, which searches linearly, so that warming it takes quadratic time and only
+   * the smaller capacities are practical.
+   */
+  @State(Scope.Thread)
+  public static class LruState extends TraceState {
+
+    @Param({"10", "1000", "100000"})
+    public int capacity;
+
+    @Param({"uniform", "zipf_0.7", "zipf_0.99", "zipf_1.2", "scan", "loop"})
+    public String workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      load("Lru", capacity, workload);
+    }
+  }
+
+  /**
+   * The same as {@link PolicyState}, but shared by all benchmark threads. Policies aren't thread
+   * safe, so access to it is serialized.
+   */
+  @State(Scope.Benchmark)
+  public static class SharedPolicyState extends PolicyState {
+  }
+
+  /**
+   * Counts hits and misses, which JMH reports alongside the primary result.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class HitCounters {
+
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  /**
+   * One thread, one private policy.
+   */
+  @Benchmark
+  public int require(PolicyState state, HitCounters counters) {
+    return record(state.cache, state.nextKey(), counters);
+  }
+
+  /**
+   * One thread, one private {@code LruPolicy}.
+   */
+  @Benchmark
+  public int requireLru(LruState state, HitCounters counters) {
+    return record(state.cache, state.nextKey(), counters);
+  }
+
+  /**
+   * Four threads, each with a private policy, to see how the policies scale when they don't
+   * share anything but the memory system.
+   */
+  @Benchmark
+  @Threads(4)
+  public int requirePerThread(PolicyState state, HitCounters counters) {
+    return record(state.cache, state.nextKey(), counters);
+  }
+
+  /**
+   * Four threads sharing one policy behind a lock, the way a naive cache would use it.
+   */
+  @Benchmark
+  @Threads(4)
+  public int requireShared(SharedPolicyState state, HitCounters counters) {
+    synchronized (state) {
+      return record(state.cache, state.nextKey(), counters);
+    }
+  }
+
+  /**
+   * Requires a key and counts it as a hit or a miss.
+   */
+  private static int record(ToIntFunction<Integer> cache, Integer key, HitCounters counters) {
+    int hit = cache.applyAsInt(key);
+    counters.hits += hit;
+    counters.misses += 1 - hit;
+    return hit;
+  }
+
+  /**
+   * Returns the length of the trace for a capacity: a power of two, so replay can wrap with a
+   * mask, and at least four times the capacity.
+   */
+  static int traceLength(int capacity) {
+    return Math.max(MIN_TRACE_LENGTH, Integer.highestOneBit(capacity) << 3);
+  }
+
+  /**
+   * Calls a static method of {@link #TARGETS}.
+   */
+  private static Object target(String name, Class<?>[] types, Object... args) {
+    try {
+      return Class.forName(TARGETS).getMethod(name, types).invoke(null, args);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(TARGETS + " isn't on the class path", e);
+    }
+  }
+}